@@ -0,0 +1,172 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks every BigInteger operation across operand sizes.
+ * <p>
+ * BigInteger lives in the default package, which cannot be imported and which JMH
+ * does not accept benchmarks in, so it is reached through method handles held in
+ * static final fields. The JIT treats those as constants and inlines the calls, so
+ * the measured cost is the operation itself.
+ * <p>
+ * BigInteger keeps per-instance caches, such as the forward transform of the NTT
+ * multiplication tier, so an operation repeated on the same instances would measure
+ * a cache hit. Benchmarks whose cost depends on those caches take their operands from
+ * Fresh, which decodes new instances before every invocation. At the smallest sizes
+ * the per-invocation setup adds timing overhead of its own, and the allocation
+ * profile includes the decoded copies.
+ * <p>
+ * For educational purposes only.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BigIntegerBenchmark {
+
+    private static final MethodHandle FROM_STRING;
+    private static final MethodHandle FROM_INT;
+    private static final MethodHandle ADD;
+    private static final MethodHandle SUBTRACT;
+    private static final MethodHandle MULTIPLY;
+    private static final MethodHandle DIVIDE;
+    private static final MethodHandle POWER;
+    private static final MethodHandle LARGER_THAN;
+    private static final MethodHandle TO_STRING;
+    private static final MethodHandle TO_BYTES;
+    private static final MethodHandle FROM_BYTES;
+
+    static {
+        try {
+            Class<?> type = Class.forName("BigInteger");
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            MethodType binary = MethodType.methodType(Object.class, Object.class, Object.class);
+            FROM_STRING = lookup.findConstructor(type, MethodType.methodType(void.class, String.class))
+                    .asType(MethodType.methodType(Object.class, String.class));
+            FROM_INT = lookup.findConstructor(type, MethodType.methodType(void.class, int.class))
+                    .asType(MethodType.methodType(Object.class, int.class));
+            ADD = lookup.findVirtual(type, "add", MethodType.methodType(type, type)).asType(binary);
+            SUBTRACT = lookup.findVirtual(type, "subtract", MethodType.methodType(type, type)).asType(binary);
+            MULTIPLY = lookup.findVirtual(type, "multiply", MethodType.methodType(type, type)).asType(binary);
+            DIVIDE = lookup.findVirtual(type, "divide", MethodType.methodType(type, type)).asType(binary);
+            POWER = lookup.findVirtual(type, "power", MethodType.methodType(type, type)).asType(binary);
+            LARGER_THAN = lookup.findVirtual(type, "largerThan", MethodType.methodType(boolean.class, type))
+                    .asType(MethodType.methodType(boolean.class, Object.class, Object.class));
+            TO_STRING = lookup.findVirtual(type, "toString", MethodType.methodType(String.class))
+                    .asType(MethodType.methodType(String.class, Object.class));
+            TO_BYTES = lookup.findVirtual(type, "toByteArray", MethodType.methodType(byte[].class))
+                    .asType(MethodType.methodType(byte[].class, Object.class));
+            FROM_BYTES = lookup.findStatic(type, "fromByteArray", MethodType.methodType(type, byte[].class))
+                    .asType(MethodType.methodType(Object.class, byte[].class));
+        } catch (ReflectiveOperationException ex) {
+            throw new ExceptionInInitializerError(ex);
+        }
+    }
+
+    /**
+     * Operand size in decimal digits.
+     */
+    @Param({"10", "100", "1000", "10000", "100000", "1000000"})
+    public int digits;
+
+    private String text;
+    private Object one;
+    private Object two;
+    private Object almostOne;
+    private Object base;
+    private Object exponent;
+    private byte[] oneBytes;
+    private byte[] twoBytes;
+    private byte[] dividendBytes;
+
+    @Setup
+    public void setup() throws Throwable {
+        text = Operands.decimal(digits, 1);
+        one = (Object) FROM_STRING.invokeExact(text);
+        two = (Object) FROM_STRING.invokeExact(Operands.decimal(digits, 2));
+        almostOne = (Object) FROM_STRING.invokeExact(Operands.lastDigitChanged(text));
+        base = (Object) FROM_STRING.invokeExact(Operands.decimal(10, 3));
+        exponent = (Object) FROM_INT.invokeExact(Operands.exponent(digits));
+        oneBytes = (byte[]) TO_BYTES.invokeExact(one);
+        twoBytes = (byte[]) TO_BYTES.invokeExact(two);
+        dividendBytes = (byte[]) TO_BYTES.invokeExact((Object) MULTIPLY.invokeExact(one, two));
+    }
+
+    /**
+     * Operands decoded anew before every invocation, so that no per-instance cache
+     * survives from one invocation to the next.
+     */
+    @State(Scope.Thread)
+    public static class Fresh {
+
+        private Object one;
+        private Object two;
+        private Object dividend;
+
+        @Setup(Level.Invocation)
+        public void setup(BigIntegerBenchmark benchmark) throws Throwable {
+            one = (Object) FROM_BYTES.invokeExact(benchmark.oneBytes);
+            two = (Object) FROM_BYTES.invokeExact(benchmark.twoBytes);
+            dividend = (Object) FROM_BYTES.invokeExact(benchmark.dividendBytes);
+        }
+    }
+
+    @Benchmark
+    public Object add() throws Throwable {
+        return (Object) ADD.invokeExact(one, two);
+    }
+
+    @Benchmark
+    public Object subtract() throws Throwable {
+        return (Object) SUBTRACT.invokeExact(one, two);
+    }
+
+    @Benchmark
+    public Object multiply(Fresh fresh) throws Throwable {
+        return (Object) MULTIPLY.invokeExact(fresh.one, fresh.two);
+    }
+
+    @Benchmark
+    public Object divide(Fresh fresh) throws Throwable {
+        return (Object) DIVIDE.invokeExact(fresh.dividend, fresh.two);
+    }
+
+    @Benchmark
+    public Object power() throws Throwable {
+        return (Object) POWER.invokeExact(base, exponent);
+    }
+
+    @Benchmark
+    public boolean largerThan() throws Throwable {
+        return (boolean) LARGER_THAN.invokeExact(one, almostOne);
+    }
+
+    @Benchmark
+    public Object fromString() throws Throwable {
+        return (Object) FROM_STRING.invokeExact(text);
+    }
+
+    @Benchmark
+    public String toDecimalString(Fresh fresh) throws Throwable {
+        return (String) TO_STRING.invokeExact(fresh.one);
+    }
+}
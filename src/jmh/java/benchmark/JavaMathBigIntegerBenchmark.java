@@ -0,0 +1,96 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Baseline for BigIntegerBenchmark: the same operations on the same operands
+ * using java.math.BigInteger.
+ * <p>
+ * For educational purposes only.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JavaMathBigIntegerBenchmark {
+
+    /**
+     * Operand size in decimal digits.
+     */
+    @Param({"10", "100", "1000", "10000", "100000", "1000000"})
+    public int digits;
+
+    private String text;
+    private BigInteger one;
+    private BigInteger two;
+    private BigInteger almostOne;
+    private BigInteger dividend;
+    private BigInteger base;
+    private int exponent;
+
+    @Setup
+    public void setup() {
+        text = Operands.decimal(digits, 1);
+        one = new BigInteger(text);
+        two = new BigInteger(Operands.decimal(digits, 2));
+        almostOne = new BigInteger(Operands.lastDigitChanged(text));
+        dividend = one.multiply(two);
+        base = new BigInteger(Operands.decimal(10, 3));
+        exponent = Operands.exponent(digits);
+    }
+
+    @Benchmark
+    public BigInteger add() {
+        return one.add(two);
+    }
+
+    @Benchmark
+    public BigInteger subtract() {
+        return one.subtract(two);
+    }
+
+    @Benchmark
+    public BigInteger multiply() {
+        return one.multiply(two);
+    }
+
+    @Benchmark
+    public BigInteger divide() {
+        return dividend.divide(two);
+    }
+
+    @Benchmark
+    public BigInteger power() {
+        return base.pow(exponent);
+    }
+
+    @Benchmark
+    public boolean largerThan() {
+        return one.compareTo(almostOne) > 0;
+    }
+
+    @Benchmark
+    public BigInteger fromString() {
+        return new BigInteger(text);
+    }
+
+    @Benchmark
+    public String toDecimalString() {
+        return one.toString();
+    }
+}
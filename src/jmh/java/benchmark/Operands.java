@@ -0,0 +1,54 @@
+package benchmark;
+
+import java.util.Random;
+
+/**
+ * Deterministic decimal operands shared by the benchmarks, so this implementation
+ * and the java.math baseline always work on the same numbers.
+ * <p>
+ * For educational purposes only.
+ */
+final class Operands {
+
+    private Operands() {
+    }
+
+    /**
+     * Creates a random positive decimal string of an exact length.
+     *
+     * @param digits Number of digits
+     * @param seed   Seed, so repeated runs measure the same operands
+     * @return Decimal string without leading zeros
+     */
+    static String decimal(int digits, long seed) {
+        Random random = new Random(seed * 1_000_003L + digits);
+        char[] chars = new char[digits];
+        chars[0] = (char) ('1' + random.nextInt(9));
+        for (int i = 1; i < digits; i++) {
+            chars[i] = (char) ('0' + random.nextInt(10));
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Gets an operand equal to another except in its last digit, so comparisons
+     * have to scan the whole magnitude.
+     *
+     * @param value Decimal string
+     * @return The same digits with the last digit changed
+     */
+    static String lastDigitChanged(String value) {
+        char last = value.charAt(value.length() - 1);
+        return value.substring(0, value.length() - 1) + (last == '9' ? '8' : (char) (last + 1));
+    }
+
+    /**
+     * Gets the exponent that raises a 10-digit base to roughly the given number of digits.
+     *
+     * @param digits Target result size in digits
+     * @return Exponent, at least 1
+     */
+    static int exponent(int digits) {
+        return Math.max(1, digits / 10);
+    }
+}
@@ -0,0 +1,112 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how multiplyParallel() scales with the number of pool threads.
+ * One thread runs the sequential multiply(), so it is the baseline for the others.
+ * The operands are decoded anew before every invocation. Otherwise the sequential
+ * baseline would reuse the NTT forward transforms cached on the operands, while the
+ * parallel splits recompute theirs.
+ * <p>
+ * For educational purposes only.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParallelMultiplyBenchmark {
+
+    private static final MethodHandle FROM_STRING;
+    private static final MethodHandle MULTIPLY_PARALLEL;
+    private static final MethodHandle TO_BYTES;
+    private static final MethodHandle FROM_BYTES;
+
+    static {
+        try {
+            Class<?> type = Class.forName("BigInteger");
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            FROM_STRING = lookup.findConstructor(type, MethodType.methodType(void.class, String.class))
+                    .asType(MethodType.methodType(Object.class, String.class));
+            MULTIPLY_PARALLEL = lookup.findVirtual(type, "multiplyParallel",
+                    MethodType.methodType(type, type, ForkJoinPool.class))
+                    .asType(MethodType.methodType(Object.class, Object.class, Object.class, ForkJoinPool.class));
+            TO_BYTES = lookup.findVirtual(type, "toByteArray", MethodType.methodType(byte[].class))
+                    .asType(MethodType.methodType(byte[].class, Object.class));
+            FROM_BYTES = lookup.findStatic(type, "fromByteArray", MethodType.methodType(type, byte[].class))
+                    .asType(MethodType.methodType(Object.class, byte[].class));
+        } catch (ReflectiveOperationException ex) {
+            throw new ExceptionInInitializerError(ex);
+        }
+    }
+
+    /**
+     * Operand size in decimal digits.
+     */
+    @Param({"100000", "1000000"})
+    public int digits;
+
+    /**
+     * Pool parallelism.
+     */
+    @Param({"1", "2", "4", "8", "16", "32"})
+    public int threads;
+
+    private ForkJoinPool pool;
+    private byte[] oneBytes;
+    private byte[] twoBytes;
+
+    @Setup
+    public void setup() throws Throwable {
+        pool = new ForkJoinPool(threads);
+        oneBytes = (byte[]) TO_BYTES.invokeExact((Object) FROM_STRING.invokeExact(Operands.decimal(digits, 1)));
+        twoBytes = (byte[]) TO_BYTES.invokeExact((Object) FROM_STRING.invokeExact(Operands.decimal(digits, 2)));
+    }
+
+    /**
+     * Operands decoded anew before every invocation, so that no per-instance cache
+     * survives from one invocation to the next.
+     */
+    @State(Scope.Thread)
+    public static class Fresh {
+
+        private Object one;
+        private Object two;
+
+        @Setup(Level.Invocation)
+        public void setup(ParallelMultiplyBenchmark benchmark) throws Throwable {
+            one = (Object) FROM_BYTES.invokeExact(benchmark.oneBytes);
+            two = (Object) FROM_BYTES.invokeExact(benchmark.twoBytes);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public Object multiplyParallel(Fresh fresh) throws Throwable {
+        return (Object) MULTIPLY_PARALLEL.invokeExact(fresh.one, fresh.two, pool);
+    }
+}
@@ -0,0 +1,257 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Evaluates a stream of arithmetic expressions, one per line, and writes one result
+ * per line in the same order.
+ * <p>
+ * Each line is parsed into an Expression tree whose operations are scheduled as
+ * dependent tasks on an executor, so independent subtrees of one expression, and
+ * separate expressions, are evaluated in parallel while later lines are still being
+ * read. Within a batch of lines every distinct subexpression is evaluated once:
+ * repeats, whether within one line or across lines, reuse the first result.
+ * Results are written as soon as the expressions before them are done, so at most
+ * two batches of lines are held in memory at any time.
+ * <p>
+ * Cheap operations on small operands that are already known are done on the reading
+ * thread, where handing them to the executor would cost more than the arithmetic.
+ * <p>
+ * A line that cannot be parsed or evaluated produces a line starting with "error: ".
+ * Blank lines are skipped.
+ * <p>
+ * This class is not thread-safe.
+ * <p>
+ * For educational purposes only.
+ */
+public class BatchEvaluator {
+
+    /**
+     * Default number of lines that share one table of subexpressions.
+     */
+    static final int DEFAULT_BATCH_SIZE = 4096;
+    /**
+     * Operand length in words below which +, -, *, / and % on known values are done
+     * on the reading thread.
+     */
+    private static final int INLINE_LIMIT = 32;
+
+    /**
+     * Executor running the operations.
+     */
+    private final Executor executor;
+    /**
+     * Number of lines that share one table of subexpressions.
+     */
+    private final int batchSize;
+    /**
+     * Number of expressions evaluated so far.
+     */
+    private long expressions;
+    /**
+     * Number of expressions that failed to parse or evaluate.
+     */
+    private long failures;
+    /**
+     * Number of subexpressions that reused an earlier result.
+     */
+    private long shared;
+    /**
+     * Time spent in evaluate() so far.
+     */
+    private long elapsedNanos;
+
+    /**
+     * Creates an evaluator running on the common fork-join pool.
+     */
+    public BatchEvaluator() {
+        this(ForkJoinPool.commonPool(), DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Creates an evaluator running on the given executor.
+     *
+     * @param executor  Executor running the operations
+     * @param batchSize Number of lines that share one table of subexpressions
+     * @throws IllegalArgumentException If the batch size is not positive
+     */
+    public BatchEvaluator(Executor executor, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size not positive.");
+        }
+        this.executor = executor;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Evaluates every expression of the input and writes the results in order.
+     * The output is flushed at the end but neither stream is closed.
+     *
+     * @param input  Expressions, one per line
+     * @param output Receives one result or error line per expression
+     * @throws IOException If reading or writing fails
+     */
+    public void evaluate(Reader input, Writer output) throws IOException {
+        long start = System.nanoTime();
+        BufferedReader reader = input instanceof BufferedReader ? (BufferedReader) input : new BufferedReader(input);
+        Map<Expression, CompletableFuture<BigInteger>> scheduled = new HashMap<>();
+        ArrayDeque<CompletableFuture<BigInteger>> pending = new ArrayDeque<>();
+        int linesInBatch = 0;
+        try {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                CompletableFuture<BigInteger> result;
+                try {
+                    result = schedule(Expression.parse(line), scheduled);
+                } catch (IllegalArgumentException ex) {
+                    result = failed(ex);
+                }
+                pending.add(result);
+                if (++linesInBatch == batchSize) {
+                    scheduled.clear();
+                    linesInBatch = 0;
+                }
+                while (pending.size() > batchSize) {
+                    write(pending.poll(), output);
+                }
+            }
+            while (!pending.isEmpty()) {
+                write(pending.poll(), output);
+            }
+            output.flush();
+        } finally {
+            elapsedNanos += System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * Gets the number of expressions evaluated so far.
+     *
+     * @return Number of result and error lines written
+     */
+    public long expressions() {
+        return expressions;
+    }
+
+    /**
+     * Gets the number of expressions that failed to parse or evaluate.
+     *
+     * @return Number of error lines written
+     */
+    public long failures() {
+        return failures;
+    }
+
+    /**
+     * Gets the number of subexpressions, numbers aside, that reused an earlier result.
+     *
+     * @return Number of operations saved by deduplication
+     */
+    public long shared() {
+        return shared;
+    }
+
+    /**
+     * Gets the throughput of all evaluate() calls so far.
+     *
+     * @return Expressions per second
+     */
+    public double throughput() {
+        return elapsedNanos == 0 ? 0 : expressions * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Summarizes the work done so far.
+     *
+     * @return One line with the counts, the time taken and the throughput
+     */
+    public String report() {
+        return String.format(Locale.ROOT, "%d expressions (%d failed, %d shared subexpressions) in %.3f s: %.0f expressions/s",
+                expressions, failures, shared, elapsedNanos / 1e9, throughput());
+    }
+
+    /**
+     * Schedules the evaluation of an expression, reusing the result of any equal
+     * subexpression scheduled earlier in the batch.
+     *
+     * @param expression Expression to evaluate
+     * @param scheduled  Results of the subexpressions scheduled in this batch
+     * @return Future value of the expression
+     */
+    private CompletableFuture<BigInteger> schedule(Expression expression,
+                                                   Map<Expression, CompletableFuture<BigInteger>> scheduled) {
+        if (expression.isNumber()) {
+            return CompletableFuture.completedFuture(expression.value());
+        }
+        CompletableFuture<BigInteger> result = scheduled.get(expression);
+        if (result != null) {
+            shared++;
+            return result;
+        }
+        CompletableFuture<BigInteger> left = schedule(expression.left(), scheduled);
+        CompletableFuture<BigInteger> right = schedule(expression.right(), scheduled);
+        char operator = expression.operator();
+        if (operator != '^' && isSmall(left) && isSmall(right)) {
+            try {
+                result = CompletableFuture.completedFuture(Expression.apply(operator, left.join(), right.join()));
+            } catch (ArithmeticException ex) {
+                result = failed(ex);
+            }
+        } else {
+            result = left.thenCombineAsync(right, (one, two) -> Expression.apply(operator, one, two), executor);
+        }
+        scheduled.put(expression, result);
+        return result;
+    }
+
+    /**
+     * Creates a future that has already failed.
+     *
+     * @param ex Cause of the failure
+     * @return Future completed exceptionally with the cause
+     */
+    private static CompletableFuture<BigInteger> failed(RuntimeException ex) {
+        CompletableFuture<BigInteger> result = new CompletableFuture<>();
+        result.completeExceptionally(ex);
+        return result;
+    }
+
+    /**
+     * Checks if a future already holds a value short enough to operate on inline.
+     *
+     * @param value Future value
+     * @return True if the value is known and below INLINE_LIMIT words
+     */
+    private static boolean isSmall(CompletableFuture<BigInteger> value) {
+        return value.isDone() && !value.isCompletedExceptionally() && value.join().magnitude().length < INLINE_LIMIT;
+    }
+
+    /**
+     * Waits for a result and writes it as one line.
+     *
+     * @param result Future value of an expression
+     * @param output Writer to write to
+     * @throws IOException If writing fails
+     */
+    private void write(CompletableFuture<BigInteger> result, Writer output) throws IOException {
+        try {
+            result.join().writeDecimal(output);
+        } catch (CompletionException ex) {
+            failures++;
+            output.write("error: " + ex.getCause().getMessage());
+        }
+        output.write('\n');
+        expressions++;
+    }
+}
@@ -1,402 +1,4466 @@
-import java.util.ArrayList;
-import java.util.List;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.ref.SoftReference;
+import java.nio.Buffer;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Represents a number which can grow without bound.
  * Opposed to regular Integers which are capped at 2.14b.
  * <p>
+ * The magnitude is stored as packed base 2^32 words; the decimal
+ * representation is only produced when requested through toString().
+ * <p>
  * This class is immutable.
  * <p>
- * Guarantees precision on addition, subtraction, multiplication, and power operations
+ * Guarantees precision on addition, subtraction, multiplication, division, and power operations
  * <p>
  * For educational purposes only.
  */
-public class BigInteger {
+public class BigInteger implements Comparable<BigInteger> {
+
+    /**
+     * Mask to read an int word as an unsigned value.
+     */
+    private static final long LONG_MASK = 0xffffffffL;
+    /**
+     * Largest power of ten that fits in a word, used for decimal conversion.
+     */
+    private static final int DECIMAL_CHUNK = 1000000000;
+    /**
+     * Number of decimal digits held by DECIMAL_CHUNK.
+     */
+    private static final int DECIMAL_CHUNK_DIGITS = 9;
+    /**
+     * log10(2), the number of decimal digits per bit.
+     */
+    private static final double LOG10_2 = Math.log10(2);
+    /**
+     * Streaming decimal conversion works on blocks of 9 * 2^DECIMAL_STREAM_LEVEL digits,
+     * so parse() and writeDecimal() hold at most about 70k characters at a time.
+     */
+    private static final int DECIMAL_STREAM_LEVEL = 12;
+    /**
+     * Operand length in words below which multiply() uses the schoolbook algorithm.
+     * Tunable through the biginteger.karatsubaThreshold system property.
+     */
+    private static final int KARATSUBA_THRESHOLD = Integer.getInteger("biginteger.karatsubaThreshold", 80);
+    /**
+     * Operand length in words below which multiply() uses Karatsuba instead of Toom-Cook 3.
+     * Tunable through the biginteger.toomCookThreshold system property.
+     */
+    private static final int TOOM_COOK_THRESHOLD = Integer.getInteger("biginteger.toomCookThreshold", 240);
+    /**
+     * Operand length in words below which squaring uses the schoolbook algorithm.
+     * Tunable through the biginteger.karatsubaSquareThreshold system property.
+     */
+    private static final int KARATSUBA_SQUARE_THRESHOLD = Integer.getInteger("biginteger.karatsubaSquareThreshold", 128);
+    /**
+     * Operand length in words below which squaring uses Karatsuba instead of Toom-Cook 3.
+     * Tunable through the biginteger.toomCookSquareThreshold system property.
+     */
+    private static final int TOOM_COOK_SQUARE_THRESHOLD = Integer.getInteger("biginteger.toomCookSquareThreshold", 216);
+    /**
+     * Operand length in words from which multiply() uses number-theoretic transforms.
+     * Tunable through the biginteger.nttThreshold system property.
+     */
+    private static final int NTT_THRESHOLD = Integer.getInteger("biginteger.nttThreshold", 3000);
+    /**
+     * Divisor length in words from which division uses Burnikel-Ziegler instead of Knuth's Algorithm D.
+     * Tunable through the biginteger.burnikelZieglerThreshold system property.
+     */
+    private static final int BURNIKEL_ZIEGLER_THRESHOLD = Integer.getInteger("biginteger.burnikelZieglerThreshold", 80);
+    /**
+     * How many words longer than the divisor the dividend must be before Burnikel-Ziegler is used.
+     * Tunable through the biginteger.burnikelZieglerOffset system property.
+     */
+    private static final int BURNIKEL_ZIEGLER_OFFSET = Integer.getInteger("biginteger.burnikelZieglerOffset", 40);
+    /**
+     * Magnitude length in words below which decimal conversion uses the quadratic
+     * chunk-by-chunk algorithm instead of divide and conquer.
+     * Tunable through the biginteger.decimalConversionThreshold system property.
+     */
+    private static final int DECIMAL_CONVERSION_THRESHOLD = Integer.getInteger("biginteger.decimalConversionThreshold", 40);
+    /**
+     * Power of ten length in words from which toString() divides by it through a cached
+     * reciprocal instead of by Burnikel-Ziegler division.
+     * Tunable through the biginteger.decimalReciprocalThreshold system property.
+     */
+    private static final int DECIMAL_RECIPROCAL_THRESHOLD = Integer.getInteger("biginteger.decimalReciprocalThreshold", 200);
+    /**
+     * Cache of 10^(9 * 2^k) magnitudes for decimal conversion, indexed by k.
+     * Only ever replaced by a longer copy, so readers need no lock.
+     */
+    private static volatile int[][] decimalPowers = {{DECIMAL_CHUNK}};
+    /**
+     * Cache of the same powers of ten prepared for division, indexed by k and filled on demand.
+     */
+    private static volatile Reciprocal[] decimalReciprocals = new Reciprocal[0];
+    /**
+     * Operand length in words from which multiplyParallel() splits a product into
+     * Toom-Cook 3 sub-products that run as separate fork-join tasks.
+     * Tunable through the biginteger.parallelThreshold system property.
+     */
+    private static final int PARALLEL_THRESHOLD = Integer.getInteger("biginteger.parallelThreshold", 4000);
+    /**
+     * Modulus length in words from which modPow() uses Barrett reduction, which rides on the
+     * fast multiply tiers, instead of word-by-word Montgomery reduction.
+     * Tunable through the biginteger.montgomeryThreshold system property.
+     */
+    private static final int MONTGOMERY_THRESHOLD = Integer.getInteger("biginteger.montgomeryThreshold", 256);
+    /**
+     * Operand length in words from which gcd() and its relatives reduce the operands with
+     * the recursive half-GCD instead of Lehmer steps on their leading bits.
+     * Tunable through the biginteger.halfGcdThreshold system property.
+     */
+    private static final int HALF_GCD_THRESHOLD = Integer.getInteger("biginteger.halfGcdThreshold", 300);
+    /**
+     * Candidate length in words from which nextProbablePrime() searches as many windows
+     * of candidates at once as the pool has threads, instead of one window at a time.
+     * Tunable through the biginteger.parallelPrimeThreshold system property.
+     */
+    private static final int PARALLEL_PRIME_THRESHOLD = Integer.getInteger("biginteger.parallelPrimeThreshold", 8);
+    /**
+     * Certainty of the primes returned by nextProbablePrime(), the same as java.math uses.
+     */
+    private static final int PRIME_CERTAINTY = 100;
+    /**
+     * Odd primes below 2^16, for trial division and for sieving windows of candidates.
+     */
+    private static final int[] SMALL_PRIMES = oddPrimesBelow(1 << 16);
+    /**
+     * Number of leading SMALL_PRIMES that isProbablePrime() divides by before any exponentiation.
+     */
+    private static final int TRIAL_DIVISION_PRIMES = 200;
+    /**
+     * Number of packed factors up to which factorial() and its relatives multiply one
+     * word at a time instead of splitting the run in halves.
+     */
+    private static final int PRODUCT_LEAF_SIZE = 16;
+    /**
+     * Exponent bit lengths up to which each sliding window width is used; width i + 1 for entry i.
+     */
+    private static final int[] WINDOW_THRESHOLDS = {7, 25, 81, 241, 673, 1793, Integer.MAX_VALUE};
+    /**
+     * Smallest value kept in the small-value cache.
+     */
+    private static final int CACHE_LOW = -16;
+    /**
+     * Largest value kept in the small-value cache.
+     */
+    private static final int CACHE_HIGH = 1024;
+    /**
+     * Shared instances of CACHE_LOW to CACHE_HIGH, handed out by valueOf().
+     */
+    private static final BigInteger[] SMALL_VALUES = new BigInteger[CACHE_HIGH - CACHE_LOW + 1];
+
+    static {
+        for (int value = CACHE_LOW; value <= CACHE_HIGH; value++) {
+            SMALL_VALUES[value - CACHE_LOW] = new BigInteger(magnitudeOf(Math.abs(value)), value < 0);
+        }
+    }
+
+    /**
+     * The BigInteger 0.
+     */
+    public static final BigInteger ZERO = valueOf(0);
+    /**
+     * The BigInteger 1.
+     */
+    public static final BigInteger ONE = valueOf(1);
+    /**
+     * The BigInteger 2.
+     */
+    public static final BigInteger TWO = valueOf(2);
+    /**
+     * The BigInteger 10.
+     */
+    public static final BigInteger TEN = valueOf(10);
+
+    /**
+     * Stores this BigInteger's magnitude as base 2^32 words, least significant word first.
+     * Never contains leading zero words, so zero is the empty array.
+     */
+    private final int[] mag;
+    /**
+     * True if negative. False if positive or zero. Final, like mag, so that an instance
+     * handed to another thread without synchronization is never seen half built.
+     */
+    private final boolean negative;
+    /**
+     * Last forward transform of this magnitude, kept so that multiplying the same
+     * value again skips it. Softly referenced because transforms are large.
+     */
+    private volatile SoftReference<NumberTheoreticTransform.Transform> transformCache;
+    /**
+     * Hash code, or 0 if not computed yet. Racy but safe: every thread computes the same value.
+     */
+    private int hash;
+    /**
+     * Result of bitLength() plus one, or 0 if not computed yet. Offset by one so that the
+     * default value means unknown even when the instance was published through a race.
+     */
+    private int bitLengthPlusOne;
+    /**
+     * Result of digitCount(), or 0 if not computed yet.
+     */
+    private int digitCount;
+    /**
+     * Result of toString(), softly referenced because the digits take more memory
+     * than the magnitude.
+     */
+    private volatile SoftReference<String> decimalString;
+
+    /**
+     * Initializes a BigInteger with a value of zero.
+     */
+    public BigInteger() {
+        this(0);
+    }
+
+    /**
+     * Initializes a BigInteger with a specified String value.
+     *
+     * @param value Initial value.
+     */
+    public BigInteger(String value) {
+        boolean isNegative = false;
+        if (value.startsWith("-")) {
+            value = value.substring(1);
+            isNegative = true;
+        }
+        this.mag = parseMagnitude(value);
+        this.negative = isNegative && mag.length > 0;
+    }
+
+    /**
+     * Initializes a BigInteger with a specified value.
+     *
+     * @param value Initial value.
+     */
+    public BigInteger(int value) {
+        long magnitude = Math.abs((long) value);
+        this.mag = magnitude == 0 ? new int[0] : new int[]{(int) magnitude};
+        this.negative = value < 0;
+    }
+
+    /**
+     * Initializes a BigInteger directly from a magnitude produced by this class
+     * or by MutableBigInteger. The magnitude must not contain leading zero words
+     * and is not copied, so the caller must not modify it afterwards.
+     *
+     * @param mag      Magnitude words, least significant first
+     * @param negative True if negative
+     */
+    BigInteger(int[] mag, boolean negative) {
+        this.mag = mag;
+        this.negative = negative && mag.length > 0;
+    }
+
+    /**
+     * Gets the magnitude words of this BigInteger without copying them.
+     * Callers in this package must not modify the returned array.
+     *
+     * @return Magnitude words, least significant first, without leading zero words
+     */
+    int[] magnitude() {
+        return mag;
+    }
+
+    /**
+     * Checks if this BigInteger is negative.
+     *
+     * @return True if negative
+     */
+    boolean isNegative() {
+        return negative;
+    }
+
+    /**
+     * Gets a BigInteger with the specified value. Values from -16 to 1024 come
+     * from a cache of shared instances, so no allocation happens for them.
+     *
+     * @param value Value
+     * @return BigInteger equal to value
+     */
+    public static BigInteger valueOf(long value) {
+        return value < 0 ? valueOf(-value, true) : valueOf(value, false);
+    }
+
+    /**
+     * Gets a BigInteger from a magnitude that fits in 64 bits and a sign,
+     * using the small-value cache when possible.
+     *
+     * @param magnitude Magnitude, read as an unsigned 64-bit value
+     * @param negative  True if negative
+     * @return BigInteger equal to (+/-)magnitude
+     */
+    private static BigInteger valueOf(long magnitude, boolean negative) {
+        if (magnitude >= 0 && magnitude <= (negative ? -CACHE_LOW : CACHE_HIGH)) {
+            return SMALL_VALUES[(int) (negative ? -magnitude : magnitude) - CACHE_LOW];
+        }
+        return new BigInteger(magnitudeOf(magnitude), negative);
+    }
+
+    /**
+     * Converts an unsigned 64-bit value into a magnitude.
+     *
+     * @param magnitude Magnitude, read as an unsigned 64-bit value
+     * @return Magnitude words without leading zero words
+     */
+    private static int[] magnitudeOf(long magnitude) {
+        int high = (int) (magnitude >>> 32);
+        if (high != 0) {
+            return new int[]{(int) magnitude, high};
+        }
+        return magnitude == 0 ? new int[0] : new int[]{(int) magnitude};
+    }
+
+    /**
+     * Checks if this BigInteger fits in a long, for the machine-word fast paths.
+     *
+     * @return True if the value is between -(2^63 - 1) and 2^63 - 1
+     */
+    boolean fitsInLong() {
+        return mag.length < 2 || (mag.length == 2 && mag[1] >= 0);
+    }
+
+    /**
+     * Gets the value of a BigInteger that fits in a long.
+     *
+     * @return The value as a long
+     */
+    long toLong() {
+        long magnitude = mag.length == 0 ? 0 : mag[0] & LONG_MASK;
+        if (mag.length == 2) {
+            magnitude |= (long) mag[1] << 32;
+        }
+        return negative ? -magnitude : magnitude;
+    }
+
+    /**
+     * Makes a negative version of this BigInteger
+     *
+     * @return  -(this) as a BigInteger
+     */
+    public BigInteger makeNegative() {
+        return new BigInteger(mag, !negative);
+    }
+
+    /**
+     * Adds this BigInteger to another.
+     *
+     * @param other Another BigInteger to add to
+     * @return Addition result
+     */
+    public BigInteger add(BigInteger other) {
+        return addSigned(other, other.negative);
+    }
+
+    /**
+     * Subtracts another BigInteger from this one.
+     *
+     * @param other Another BigInteger to subtract
+     * @return Subtraction result
+     */
+    public BigInteger subtract(BigInteger other) {
+        return addSigned(other, !other.negative);
+    }
+
+    /**
+     * Adds the magnitude of another BigInteger, taken with the given sign, to this one.
+     * Both add and subtract end up here so that each call makes a single pass
+     * over the words and allocates only the result.
+     *
+     * @param other         Another BigInteger
+     * @param otherNegative Sign to apply to the other magnitude
+     * @return this + (+/-)|other|
+     */
+    private BigInteger addSigned(BigInteger other, boolean otherNegative) {
+        if (other.mag.length == 0) {
+            return this;
+        }
+        if (mag.length == 0) {
+            return otherNegative == other.negative ? other : new BigInteger(other.mag, otherNegative);
+        }
+        if (fitsInLong() && other.fitsInLong()) {
+            long one = toLong();
+            long two = otherNegative == other.negative ? other.toLong() : -other.toLong();
+            long sum = one + two;
+            if (((one ^ sum) & (two ^ sum)) >= 0) {
+                return valueOf(sum);
+            }
+        }
+        if (negative == otherNegative) {
+            return new BigInteger(addMagnitude(mag, other.mag), negative);
+        }
+        int comparison = iterativeCompare(mag, other.mag);
+        if (comparison == 0) {
+            return ZERO;
+        } else if (comparison > 0) {
+            return new BigInteger(subtractMagnitude(mag, other.mag), negative);
+        } else {
+            return new BigInteger(subtractMagnitude(other.mag, mag), otherNegative);
+        }
+    }
+
+    /**
+     * Multiplies this BigInteger with another.
+     * The algorithm is picked by operand length: schoolbook, Karatsuba, Toom-Cook 3
+     * or number-theoretic transforms. Multiplying a value by itself takes a dedicated
+     * squaring path, and multiplying by a power of two is a shift.
+     *
+     * @param other Another BigInteger to multiply with
+     * @return Multiplication result
+     */
+    public BigInteger multiply(BigInteger other) {
+        if (mag.length == 0 || other.mag.length == 0) {
+            return ZERO;
+        }
+        boolean resultNegative = this.negative != other.negative;
+        if (mag.length == 1 && other.mag.length == 1) {
+            return valueOf((mag[0] & LONG_MASK) * (other.mag[0] & LONG_MASK), resultNegative);
+        }
+        int twos = powerOfTwo(other.mag);
+        if (twos >= 0) {
+            return new BigInteger(shiftLeftMagnitude(mag, twos), resultNegative);
+        }
+        twos = powerOfTwo(mag);
+        if (twos >= 0) {
+            return new BigInteger(shiftLeftMagnitude(other.mag, twos), resultNegative);
+        }
+        if (mag.length >= NTT_THRESHOLD && other.mag.length >= NTT_THRESHOLD) {
+            int length = NumberTheoreticTransform.transformLength(mag.length, other.mag.length);
+            if (length > 0) {
+                NumberTheoreticTransform.Transform transform = transform(length);
+                NumberTheoreticTransform.Transform otherTransform =
+                        other.mag == mag ? transform : other.transform(length);
+                int[] product = NumberTheoreticTransform.multiply(transform, otherTransform,
+                        mag.length + other.mag.length);
+                return new BigInteger(stripLeadingZeros(product), resultNegative);
+            }
+        }
+        if (other.mag == mag) {
+            return new BigInteger(squareMagnitude(mag), resultNegative);
+        }
+        return new BigInteger(multiplyMagnitude(mag, other.mag), resultNegative);
+    }
+
+    /**
+     * Multiplies this BigInteger by another using the common fork-join pool.
+     *
+     * @param other BigInteger to multiply by
+     * @return Multiplication result, identical to multiply()
+     * @see #multiplyParallel(BigInteger, ForkJoinPool)
+     */
+    public BigInteger multiplyParallel(BigInteger other) {
+        return multiplyParallel(other, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Multiplies this BigInteger by another, running sub-products in parallel.
+     * <p>
+     * Products of operands of at least PARALLEL_THRESHOLD words are split by Toom-Cook 3
+     * into five independent sub-products, recursively, until there are enough tasks to
+     * occupy the pool. Each level of splitting adds work, so no deeper split is made.
+     * The leaves use the same algorithms as multiply(), so the result is always the same.
+     *
+     * @param other BigInteger to multiply by
+     * @param pool  Pool to run the sub-products in
+     * @return Multiplication result, identical to multiply()
+     */
+    public BigInteger multiplyParallel(BigInteger other, ForkJoinPool pool) {
+        int depth = 0;
+        for (long tasks = 1; tasks < pool.getParallelism(); tasks *= 5) {
+            depth++;
+        }
+        if (depth == 0 || mag.length < PARALLEL_THRESHOLD || other.mag.length < PARALLEL_THRESHOLD) {
+            return multiply(other);
+        }
+        return pool.invoke(new ParallelMultiplyTask(this, other, depth));
+    }
+
+    /**
+     * One product of multiplyParallel(), split into Toom-Cook 3 sub-products
+     * while there is depth left and both operands are large enough.
+     */
+    private static final class ParallelMultiplyTask extends RecursiveTask<BigInteger> {
+
+        /**
+         * Serialization version; RecursiveTask is Serializable.
+         */
+        private static final long serialVersionUID = 1L;
+        /**
+         * First factor.
+         */
+        private final BigInteger one;
+        /**
+         * Second factor, the same object as one when squaring.
+         */
+        private final BigInteger two;
+        /**
+         * Remaining levels of splitting.
+         */
+        private final int depth;
+
+        ParallelMultiplyTask(BigInteger one, BigInteger two, int depth) {
+            this.one = one;
+            this.two = two;
+            this.depth = depth;
+        }
+
+        @Override
+        protected BigInteger compute() {
+            if (depth == 0 || one.mag.length < PARALLEL_THRESHOLD || two.mag.length < PARALLEL_THRESHOLD) {
+                return one.multiply(two);
+            }
+            boolean square = one.mag == two.mag;
+            int k = (Math.max(one.mag.length, two.mag.length) + 2) / 3;
+            BigInteger[] a = toomEvaluate(one.mag, k);
+            BigInteger[] b = square ? a : toomEvaluate(two.mag, k);
+            ParallelMultiplyTask[] tasks = new ParallelMultiplyTask[a.length];
+            for (int i = 0; i < tasks.length; i++) {
+                tasks[i] = new ParallelMultiplyTask(a[i], b[i], depth - 1);
+            }
+            invokeAll(tasks);
+            int[] product = toomInterpolate(tasks[0].join(), tasks[1].join(), tasks[2].join(),
+                    tasks[3].join(), tasks[4].join(), k, one.mag.length + two.mag.length);
+            return new BigInteger(product, one.negative != two.negative);
+        }
+    }
+
+    /**
+     * Gets the forward transform of this magnitude, reusing the cached one when
+     * it was made for the same transform length.
+     *
+     * @param length Transform length
+     * @return The forward transform of this magnitude
+     */
+    private NumberTheoreticTransform.Transform transform(int length) {
+        SoftReference<NumberTheoreticTransform.Transform> reference = transformCache;
+        NumberTheoreticTransform.Transform transform = reference == null ? null : reference.get();
+        if (transform == null || transform.length != length) {
+            transform = NumberTheoreticTransform.forward(mag, length);
+            transformCache = new SoftReference<>(transform);
+        }
+        return transform;
+    }
+
+    /**
+     * Divides this BigInteger by another, rounding toward zero.
+     *
+     * @param other BigInt to divide by
+     * @return Quotient of this / other
+     * @throws ArithmeticException If other is zero
+     */
+    public BigInteger divide(BigInteger other) {
+        return divideAndRemainder(other)[0];
+    }
+
+    /**
+     * Gets the remainder of dividing this BigInteger by another.
+     * The remainder takes the sign of this BigInteger, so that
+     * this == divide(other) * other + remainder(other).
+     *
+     * @param other BigInt to divide by
+     * @return Remainder of this / other
+     * @throws ArithmeticException If other is zero
+     */
+    public BigInteger remainder(BigInteger other) {
+        return divideAndRemainder(other)[1];
+    }
+
+    /**
+     * Reduces this BigInteger modulo a positive modulus.
+     * Unlike remainder(), the result is never negative.
+     *
+     * @param modulus Positive modulus
+     * @return this mod modulus, between zero and modulus - 1
+     * @throws ArithmeticException If modulus is not positive
+     */
+    public BigInteger mod(BigInteger modulus) {
+        if (!modulus.largerThanZero()) {
+            throw new ArithmeticException("Modulus not positive.");
+        }
+        BigInteger result = remainder(modulus);
+        return result.negative ? result.add(modulus) : result;
+    }
+
+    /**
+     * Divides this BigInteger by another, giving both the quotient and the remainder.
+     * The quotient is rounded toward zero and the remainder takes the sign of this BigInteger.
+     * Dividing by a power of two is a shift.
+     *
+     * @param other BigInt to divide by
+     * @return Array of the quotient followed by the remainder
+     * @throws ArithmeticException If other is zero
+     */
+    public BigInteger[] divideAndRemainder(BigInteger other) {
+        if (other.isZero()) {
+            throw new ArithmeticException("Division by zero.");
+        }
+        int twos = powerOfTwo(other.mag);
+        int[][] result = twos >= 0
+                ? new int[][]{shiftRightMagnitude(mag, twos), lowBits(mag, twos)}
+                : divideMagnitude(mag, other.mag);
+        return new BigInteger[]{
+                new BigInteger(result[0], this.negative != other.negative),
+                new BigInteger(result[1], this.negative)
+        };
+    }
+
+    /**
+     * Brings this BigInteger to the power of the other BigInteger.
+     * Uses sliding-window square-and-multiply over the exponent's bits, and
+     * applies any power-of-two factor of the base as a single shift at the end.
+     *
+     * @param other BigInt to bring to power
+     * @return Exponent result
+     * @throws ArithmeticException If the exponent does not fit in an int and the
+     *                             result would not fit in memory
+     */
+    public BigInteger power(BigInteger other) {
+        if(other.isZero()) {
+            return ONE;
+        }
+        if(!other.largerThanZero()) {
+            // We don't support decimals so this rounds to zero.
+            return ZERO;
+        }
+        boolean resultNegative = negative && !other.isEven();
+        if (mag.length == 0 || (mag.length == 1 && mag[0] == 1)) {
+            return new BigInteger(mag, resultNegative);
+        }
+        if (other.mag.length > 1 || other.mag[0] < 0) {
+            throw new ArithmeticException("Exponent too large.");
+        }
+        int exponent = other.mag[0];
+        int trailingZeros = lowestSetBit(mag);
+        long shift = (long) trailingZeros * exponent;
+        if (shift > Integer.MAX_VALUE) {
+            throw new ArithmeticException("Exponent too large.");
+        }
+        int[] base = shiftRightMagnitude(mag, trailingZeros);
+        int[] result = base.length == 1 && base[0] == 1
+                ? base
+                : slidingWindowPower(base, new int[]{exponent}, PLAIN_ARITHMETIC);
+        return new BigInteger(shiftLeftMagnitude(result, (int) shift), resultNegative);
+    }
+
+    /**
+     * Raises this BigInteger to a power modulo a positive modulus.
+     * Odd moduli use Montgomery reduction and other moduli use Barrett reduction,
+     * so intermediate values never grow beyond twice the modulus length.
+     *
+     * A negative exponent raises the modular inverse of this BigInteger instead.
+     *
+     * @param exponent Exponent
+     * @param modulus  Positive modulus
+     * @return this^exponent mod modulus, between zero and modulus - 1
+     * @throws ArithmeticException If the modulus is not positive, or the exponent is negative
+     *                             and this BigInteger is not invertible modulo the modulus
+     */
+    public BigInteger modPow(BigInteger exponent, BigInteger modulus) {
+        if (!modulus.largerThanZero()) {
+            throw new ArithmeticException("Modulus not positive.");
+        }
+        if (exponent.negative) {
+            return modInverse(modulus).modPow(new BigInteger(exponent.mag, false), modulus);
+        }
+        if (modulus.mag.length == 1 && modulus.mag[0] == 1) {
+            return ZERO;
+        }
+        if (exponent.isZero()) {
+            return ONE;
+        }
+        BigInteger base = mod(modulus);
+        if (base.isZero()) {
+            return base;
+        }
+        ModularArithmetic arithmetic = modularArithmetic(modulus.mag);
+        int[] result = slidingWindowPower(arithmetic.enter(base.mag), exponent.mag, arithmetic);
+        return new BigInteger(arithmetic.leave(result), false);
+    }
+
+    /**
+     * Computes the greatest common divisor of this BigInteger and another.
+     * Operands that fit in 64 bits use binary GCD. Longer ones are reduced by Lehmer
+     * steps, each taking all the Euclidean steps that the leading 62 bits determine in
+     * one pass over the words. From HALF_GCD_THRESHOLD words on, the recursive half-GCD
+     * finds the steps that halve the operands from their upper halves alone, so the
+     * cost grows like a multiplication times a logarithm rather than quadratically.
+     *
+     * @param other Other BigInteger
+     * @return The greatest common divisor, never negative and zero only if both are zero
+     */
+    public BigInteger gcd(BigInteger other) {
+        return new BigInteger(gcdMagnitude(mag, other.mag), false);
+    }
+
+    /**
+     * Computes the greatest common divisor of this BigInteger and another together with
+     * Bezout coefficients x and y such that this * x + other * y = gcd.
+     * The coefficients come from the same reduction as gcd(), which tracks the steps taken.
+     *
+     * @param other Other BigInteger
+     * @return Array of the greatest common divisor, x and y; unless other is zero,
+     *         x is reduced to 0 <= x < |other| / gcd
+     */
+    public BigInteger[] extendedGcd(BigInteger other) {
+        if (other.isZero()) {
+            return new BigInteger[]{new BigInteger(mag, false), valueOf(signum()), ZERO};
+        }
+        BigInteger[] gcdAndCofactor = gcdAndCofactor(mag, other.mag);
+        BigInteger gcd = gcdAndCofactor[0];
+        BigInteger cofactor = negative ? gcdAndCofactor[1].makeNegative() : gcdAndCofactor[1];
+        BigInteger x = cofactor.mod(new BigInteger(other.mag, false).divide(gcd));
+        BigInteger y = gcd.subtract(multiply(x)).divide(other);
+        return new BigInteger[]{gcd, x, y};
+    }
+
+    /**
+     * Computes the inverse of this BigInteger modulo a positive modulus.
+     *
+     * @param modulus Positive modulus
+     * @return The x between zero and modulus - 1 with this * x = 1 (mod modulus)
+     * @throws ArithmeticException If the modulus is not positive or this BigInteger
+     *                             shares a factor with it
+     */
+    public BigInteger modInverse(BigInteger modulus) {
+        if (!modulus.largerThanZero()) {
+            throw new ArithmeticException("Modulus not positive.");
+        }
+        BigInteger[] gcdAndCofactor = gcdAndCofactor(mod(modulus).mag, modulus.mag);
+        int[] gcd = gcdAndCofactor[0].mag;
+        if (gcd.length != 1 || gcd[0] != 1) {
+            throw new ArithmeticException("Not invertible.");
+        }
+        return gcdAndCofactor[1].mod(modulus);
+    }
+
+    /**
+     * Computes the least common multiple of this BigInteger and another.
+     *
+     * @param other Other BigInteger
+     * @return The smallest non-negative multiple of both, zero if either is zero
+     */
+    public BigInteger lcm(BigInteger other) {
+        if (isZero() || other.isZero()) {
+            return ZERO;
+        }
+        int[] quotient = divideMagnitude(mag, gcdMagnitude(mag, other.mag))[0];
+        return new BigInteger(multiplyMagnitude(quotient, other.mag), false);
+    }
+
+    /**
+     * Checks if the absolute value of this BigInteger is probably prime.
+     * <p>
+     * Values of one word are decided exactly by Miller-Rabin tests to the bases 2, 7 and 61.
+     * Longer values are divided by the first TRIAL_DIVISION_PRIMES odd primes and then given
+     * the Baillie-PSW test: a strong Miller-Rabin test to base 2 followed by a strong Lucas
+     * test with Selfridge's parameters. No composite is known to pass both, and none below
+     * 2^64 does. Above 64 bits, Miller-Rabin tests to random bases follow, as many as the
+     * certainty asks for but no more than the bit length calls for, as in java.math.
+     *
+     * @param certainty Measure of the tolerated error: a composite is reported as prime
+     *                  with probability below 2^-certainty
+     * @return False if this BigInteger is certainly composite, true if it is probably prime
+     *         or the certainty is not positive
+     */
+    public boolean isProbablePrime(int certainty) {
+        return certainty <= 0 || isProbablePrime(mag, certainty, true);
+    }
+
+    /**
+     * Finds the first integer above this BigInteger that is probably prime, using the
+     * common fork-join pool.
+     *
+     * @return The first probable prime above this BigInteger
+     * @throws ArithmeticException If this BigInteger is negative
+     * @see #nextProbablePrime(ForkJoinPool)
+     */
+    public BigInteger nextProbablePrime() {
+        return nextProbablePrime(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Finds the first integer above this BigInteger that is probably prime, with the
+     * certainty java.math uses: a composite is returned with probability below 2^-100.
+     * <p>
+     * Candidates above one word are searched in windows of consecutive odd numbers. Each
+     * window is first sieved by the odd primes below 2^16, which discards about nine in ten
+     * candidates without any exponentiation, and the survivors are tested in order by
+     * isProbablePrime(). From PARALLEL_PRIME_THRESHOLD words on, consecutive windows are
+     * searched in parallel, one per thread of the pool. The lowest window holding a prime
+     * gives the result, and the windows above it stop as soon as it is found, so the result
+     * is always the same as a sequential search.
+     *
+     * @param pool Pool to search the windows in
+     * @return The first probable prime above this BigInteger
+     * @throws ArithmeticException If this BigInteger is negative
+     */
+    public BigInteger nextProbablePrime(ForkJoinPool pool) {
+        if (negative) {
+            throw new ArithmeticException("Negative start.");
+        }
+        BigInteger candidate = add(ONE);
+        for (; candidate.mag.length < 2; candidate = candidate.add(ONE)) {
+            if (isPrimeWord(candidate.mag.length == 0 ? 0 : candidate.mag[0] & LONG_MASK)) {
+                return candidate;
+            }
+        }
+        int[] start = (candidate.mag[0] & 1) == 0 ? addMagnitude(candidate.mag, ONE.mag) : candidate.mag;
+        PrimeSearch search = new PrimeSearch(start);
+        int windows = start.length < PARALLEL_PRIME_THRESHOLD ? 1 : pool.getParallelism();
+        for (int first = 0; ; first += windows) {
+            int[] prime = windows == 1
+                    ? search.window(first)
+                    : pool.invoke(new PrimeSearchTask(search, first, windows));
+            if (prime != null) {
+                return new BigInteger(prime, false);
+            }
+        }
+    }
+
+    /**
+     * Computes the factorial of n by the prime swing algorithm. With swing(n) = n! / (n/2)!^2,
+     * the odd part of n! is the square of the odd part of (n/2)! times the odd part of
+     * swing(n), and the exponent of each odd prime in swing(n) follows from the digits of n
+     * in that prime's base, so the swing is a product of primes. The power of two,
+     * n - bitCount(n), is added as a shift at the end.
+     *
+     * @param n Non-negative value
+     * @return n!
+     * @throws ArithmeticException If n is negative
+     * @see #productOfRange(int, int)
+     */
+    public static BigInteger factorial(int n) {
+        if (n < 0) {
+            throw new ArithmeticException("Factorial of negative number.");
+        }
+        int[] primes = n < 3 ? new int[0] : oddPrimesBelow(n + 1);
+        return new BigInteger(shiftLeftMagnitude(oddFactorial(n, primes), n - Integer.bitCount(n)), false);
+    }
+
+    /**
+     * Computes the binomial coefficient n choose k. When k is small next to n this is the
+     * product of the k integers up to n divided by k!. Otherwise the exponent of each prime
+     * is the number of borrows when subtracting k from n in that prime's base (Kummer's
+     * theorem), and the coefficient is multiplied out from its prime factorization.
+     *
+     * @param n Non-negative value
+     * @param k Number of elements chosen
+     * @return n! / (k! (n - k)!), or zero if k is negative or above n
+     * @throws ArithmeticException If n is negative
+     */
+    public static BigInteger binomial(int n, int k) {
+        if (n < 0) {
+            throw new ArithmeticException("Binomial of negative number.");
+        }
+        if (k < 0 || k > n) {
+            return ZERO;
+        }
+        k = Math.min(k, n - k);
+        if (k == 0) {
+            return ONE;
+        }
+        if ((long) k * 64 < n) {
+            return productOfRange(n - k + 1, n).divide(factorial(k));
+        }
+        FactorList factors = new FactorList();
+        for (int p : oddPrimesBelow(n + 1)) {
+            int exponent = 0;
+            int borrow = 0;
+            for (long q = n, r = k; q > 0; q /= p, r /= p) {
+                borrow = r % p + borrow > q % p ? 1 : 0;
+                exponent += borrow;
+            }
+            for (int i = 0; i < exponent; i++) {
+                factors.add(p);
+            }
+        }
+        int twos = Integer.bitCount(k) + Integer.bitCount(n - k) - Integer.bitCount(n);
+        return new BigInteger(shiftLeftMagnitude(factors.product(), twos), false);
+    }
+
+    /**
+     * Multiplies all integers from one value to another. The integers are packed into
+     * words and multiplied by binary splitting, so each product is of two halves of
+     * similar size and the large ones use the fast multiply tiers. Ranges starting at
+     * one or two are computed as factorials.
+     *
+     * @param from First factor
+     * @param to   Last factor
+     * @return from * (from + 1) * ... * to, or one if from is above to
+     */
+    public static BigInteger productOfRange(int from, int to) {
+        if (from > to) {
+            return ONE;
+        }
+        if (from <= 0 && to >= 0) {
+            return ZERO;
+        }
+        if (to < 0) {
+            return new BigInteger(rangeMagnitude(-(long) to, -(long) from), ((long) to - from) % 2 == 0);
+        }
+        return new BigInteger(rangeMagnitude(from, to), false);
+    }
+
+    /**
+     * Multiplies this BigInteger by a power of two by shifting its words.
+     *
+     * @param n Shift distance in bits; a negative distance shifts right instead
+     * @return this * 2^n, rounded toward negative infinity if n is negative
+     * @throws ArithmeticException If n is negative and too large to negate
+     */
+    public BigInteger shiftLeft(int n) {
+        if (n < 0) {
+            return shiftRight(negateShift(n));
+        }
+        return n == 0 ? this : new BigInteger(shiftLeftMagnitude(mag, n), negative);
+    }
+
+    /**
+     * Divides this BigInteger by a power of two by shifting its words. As with an
+     * arithmetic shift of the two's complement form, the quotient is rounded toward
+     * negative infinity, so shifting -1 right always gives -1.
+     *
+     * @param n Shift distance in bits; a negative distance shifts left instead
+     * @return this / 2^n rounded toward negative infinity, or this * 2^-n if n is negative
+     * @throws ArithmeticException If n is negative and too large to negate
+     */
+    public BigInteger shiftRight(int n) {
+        if (n < 0) {
+            return shiftLeft(negateShift(n));
+        }
+        if (n == 0 || mag.length == 0) {
+            return this;
+        }
+        int[] shifted = shiftRightMagnitude(mag, n);
+        if (negative && lowestSetBit(mag) < n) {
+            // Bits were shifted out of a negative value, so rounding down adds one to the magnitude
+            shifted = addMagnitude(shifted, ONE.mag);
+        }
+        return new BigInteger(shifted, negative);
+    }
+
+    /**
+     * Computes the bitwise AND of the two's complement forms of this BigInteger and another.
+     *
+     * @param other Other BigInteger
+     * @return this &amp; other, negative only if both are
+     */
+    public BigInteger and(BigInteger other) {
+        int length = Math.max(mag.length, other.mag.length) + 1;
+        int[] words = twosComplement(length);
+        int[] otherWords = other.twosComplement(length);
+        for (int i = 0; i < length; i++) {
+            words[i] &= otherWords[i];
+        }
+        return fromTwosComplement(words);
+    }
+
+    /**
+     * Computes the bitwise OR of the two's complement forms of this BigInteger and another.
+     *
+     * @param other Other BigInteger
+     * @return this | other, negative if either is
+     */
+    public BigInteger or(BigInteger other) {
+        int length = Math.max(mag.length, other.mag.length) + 1;
+        int[] words = twosComplement(length);
+        int[] otherWords = other.twosComplement(length);
+        for (int i = 0; i < length; i++) {
+            words[i] |= otherWords[i];
+        }
+        return fromTwosComplement(words);
+    }
+
+    /**
+     * Computes the bitwise exclusive OR of the two's complement forms of this BigInteger and another.
+     *
+     * @param other Other BigInteger
+     * @return this ^ other, negative if exactly one of them is
+     */
+    public BigInteger xor(BigInteger other) {
+        int length = Math.max(mag.length, other.mag.length) + 1;
+        int[] words = twosComplement(length);
+        int[] otherWords = other.twosComplement(length);
+        for (int i = 0; i < length; i++) {
+            words[i] ^= otherWords[i];
+        }
+        return fromTwosComplement(words);
+    }
+
+    /**
+     * Clears the bits of this BigInteger that are set in another, in two's complement form.
+     *
+     * @param other Mask of the bits to clear
+     * @return this &amp; ~other
+     */
+    public BigInteger andNot(BigInteger other) {
+        int length = Math.max(mag.length, other.mag.length) + 1;
+        int[] words = twosComplement(length);
+        int[] otherWords = other.twosComplement(length);
+        for (int i = 0; i < length; i++) {
+            words[i] &= ~otherWords[i];
+        }
+        return fromTwosComplement(words);
+    }
+
+    /**
+     * Computes the bitwise complement of the two's complement form of this BigInteger.
+     *
+     * @return ~this, which equals -this - 1
+     */
+    public BigInteger not() {
+        return negative
+                ? new BigInteger(subtractMagnitude(mag, ONE.mag), false)
+                : new BigInteger(addMagnitude(mag, ONE.mag), true);
+    }
+
+    /**
+     * Computes the integer square root of this BigInteger.
+     *
+     * @return The largest integer whose square does not exceed this BigInteger
+     * @throws ArithmeticException If this BigInteger is negative
+     */
+    public BigInteger sqrt() {
+        return sqrtAndRemainder()[0];
+    }
+
+    /**
+     * Computes the integer square root of this BigInteger together with the remainder.
+     * The root of the upper half of the bits, shifted back, is already correct to half
+     * the bits of the root, and one Newton step x = (x + n / x) / 2 at full size doubles
+     * that. Each level of the recursion works on half as many bits, so the total cost is
+     * about twice that of the last division and squaring.
+     *
+     * @return Array of the root s followed by the remainder this - s^2
+     * @throws ArithmeticException If this BigInteger is negative
+     */
+    public BigInteger[] sqrtAndRemainder() {
+        if (negative) {
+            throw new ArithmeticException("Square root of negative number.");
+        }
+        int[][] parts = sqrtMagnitude(mag);
+        return new BigInteger[]{new BigInteger(parts[0], false), new BigInteger(parts[1], false)};
+    }
+
+    /**
+     * Computes the integer n-th root of this BigInteger, rounded toward zero.
+     * Like sqrt(), the root is refined from the root of the upper bits by one Newton step
+     * x = ((n - 1) x + this / x^(n - 1)) / n at each level.
+     *
+     * @param n Degree of the root, positive
+     * @return The integer with the largest absolute value whose n-th power does not exceed
+     *         this BigInteger in absolute value, with the sign of this BigInteger
+     * @throws ArithmeticException If n is not positive, or n is even and this BigInteger is negative
+     */
+    public BigInteger nthRoot(int n) {
+        if (n <= 0) {
+            throw new ArithmeticException("Root not positive.");
+        }
+        if (negative && (n & 1) == 0) {
+            throw new ArithmeticException("Even root of negative number.");
+        }
+        if (n == 1 || mag.length == 0) {
+            return this;
+        }
+        int[] root = n == 2 ? sqrtMagnitude(mag)[0] : rootMagnitude(mag, n);
+        return new BigInteger(root, negative);
+    }
+
+    /**
+     * Checks if this BigInteger is a perfect power, that is a^k for integers a and k >= 2.
+     * Zero, one and minus one count as perfect powers, and negative values must be odd powers.
+     * <p>
+     * Writing the value as 2^t * m with m odd, it is a k-th power exactly when k divides t
+     * and m is a k-th power, so only prime k need testing. Each candidate k is first
+     * screened cheaply: modulo small numbers for squares, by the unique odd k-th root modulo
+     * 2^64 when the root would fit in 64 bits, and by k-th power residues modulo primes
+     * q = 1 (mod k) otherwise. Only candidates that pass get a full root and power.
+     *
+     * @return True if this BigInteger is a perfect power
+     */
+    public boolean isPerfectPower() {
+        if (mag.length == 0 || (mag.length == 1 && mag[0] == 1)) {
+            return true;
+        }
+        int twos = lowestSetBit(mag);
+        int[] odd = shiftRightMagnitude(mag, twos);
+        int oddBits = bitLength(odd);
+        if (oddBits == 1) {
+            // A power of two needs a prime factor of its exponent, an odd one when negative
+            return negative ? (twos >>> Integer.numberOfTrailingZeros(twos)) > 1 : twos >= 2;
+        }
+        int limit = twos == 0 ? oddBits : Math.min(oddBits, twos);
+        boolean[] composite = new boolean[limit + 1];
+        for (int k = 2; k <= limit; k++) {
+            if (composite[k]) {
+                continue;
+            }
+            for (long multiple = (long) k * k; multiple <= limit; multiple += k) {
+                composite[(int) multiple] = true;
+            }
+            if ((k != 2 || !negative) && twos % k == 0 && isPower(odd, k)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Computes the square root of a magnitude and the remainder, as in sqrtAndRemainder().
+     *
+     * @param n Magnitude
+     * @return Array of the root magnitude s followed by the remainder magnitude n - s^2
+     */
+    private static int[][] sqrtMagnitude(int[] n) {
+        int bits = bitLength(n);
+        if (bits <= 62) {
+            long value = unsignedLong(n);
+            long root = (long) Math.sqrt((double) value);
+            while (root * root > value) {
+                root--;
+            }
+            while ((root + 1) * (root + 1) <= value) {
+                root++;
+            }
+            return new int[][]{magnitudeOf(root), magnitudeOf(value - root * root)};
+        }
+        // The root of n / 4^k, shifted back, is below the root of n by less than 2^k. A Newton
+        // step from below squares that error relative to the root, so with 4^k under the
+        // root the step lands at most a little above it, and never below it.
+        int k = (bits - 1) / 4 - 1;
+        int[] root = shiftLeftMagnitude(sqrtMagnitude(shiftRightMagnitude(n, 2 * k))[0], k);
+        root = shiftRightMagnitude(addMagnitude(root, divideMagnitude(n, root)[0]), 1);
+        int[] square = squareMagnitude(root);
+        while (iterativeCompare(square, n) > 0) {
+            // (s - 1)^2 = s^2 - (2s - 1)
+            square = subtractMagnitude(square, subtractMagnitude(shiftLeftMagnitude(root, 1), ONE.mag));
+            root = subtractMagnitude(root, ONE.mag);
+        }
+        return new int[][]{root, subtractMagnitude(n, square)};
+    }
+
+    /**
+     * Computes the integer k-th root of a non-zero magnitude for k >= 3.
+     *
+     * @param n Non-zero magnitude
+     * @param k Degree of the root
+     * @return The largest magnitude whose k-th power does not exceed n
+     */
+    private static int[] rootMagnitude(int[] n, int k) {
+        int rootBits = (bitLength(n) - 1) / k + 1;
+        if (rootBits <= 40) {
+            // log2(n) / k is accurate to well within 2^-40, so 2 to that power is within one of the root
+            int[] root = magnitudeOf((long) Math.pow(2, log2(n) / k));
+            while (iterativeCompare(powerMagnitude(root, k), n) > 0) {
+                root = subtractMagnitude(root, ONE.mag);
+            }
+            int[] next = addMagnitude(root, ONE.mag);
+            // A candidate of b bits has a k-th power of at least (b - 1) k + 1 bits, so huge k never get powered
+            while ((long) (bitLength(next) - 1) * k < bitLength(n) && iterativeCompare(powerMagnitude(next, k), n) <= 0) {
+                root = next;
+                next = addMagnitude(root, ONE.mag);
+            }
+            return root;
+        }
+        // As in sqrtMagnitude(): the root of the upper bits is below the root by less than 2^j,
+        // and the Newton step error (k - 1) e^2 / 2s stays below one for this j.
+        int j = (rootBits - (32 - Integer.numberOfLeadingZeros(k)) - 1) / 2 - 1;
+        int[] root = shiftLeftMagnitude(rootMagnitude(shiftRightMagnitude(n, k * j), k), j);
+        int[] sum = addMagnitude(multiplyMagnitude(root, magnitudeOf(k - 1)),
+                divideMagnitude(n, powerMagnitude(root, k - 1))[0]);
+        root = divideMagnitude(sum, magnitudeOf(k))[0];
+        while (iterativeCompare(powerMagnitude(root, k), n) > 0) {
+            root = subtractMagnitude(root, ONE.mag);
+        }
+        return root;
+    }
+
+    /**
+     * Checks if an odd magnitude above one is a p-th power for a prime p.
+     *
+     * @param odd Odd magnitude above one
+     * @param p   Prime exponent
+     * @return True if odd = r^p for some integer r
+     */
+    private static boolean isPower(int[] odd, int p) {
+        int bits = bitLength(odd);
+        if (p == 2) {
+            // Odd squares are 1 mod 8, and squares are quadratic residues modulo 63 * 65 * 11
+            int residue = remainderMagnitude(odd, 45045);
+            if ((odd[0] & 7) != 1 || !isResidue(residue % 63, 63, 2)
+                    || !isResidue(residue % 65, 65, 2) || !isResidue(residue % 11, 11, 2)) {
+                return false;
+            }
+            return sqrtMagnitude(odd)[1].length == 0;
+        }
+        int rootBits = (bits - 1) / p + 1;
+        if (rootBits <= 64) {
+            // Odd p-th powers modulo 2^64 have a unique odd p-th root, so r is the only candidate
+            long inverse = p;
+            for (int i = 0; i < 5; i++) {
+                inverse *= 2 - p * inverse;
+            }
+            long r = 1;
+            for (long base = unsignedLong(lowerWords(odd, 2)), e = inverse; e != 0; e >>>= 1) {
+                if ((e & 1) != 0) {
+                    r *= base;
+                }
+                base *= base;
+            }
+            double logR = Math.log((r >>> 1) * 2.0 + (r & 1)) / Math.log(2);
+            if (Math.abs(p * logR - log2(odd)) > 0.5) {
+                return false;
+            }
+            return Arrays.equals(powerMagnitude(magnitudeOf(r), p), odd);
+        }
+        // Modulo a prime q = 1 (mod p), only one residue in p is a p-th power
+        int checked = 0;
+        for (long q = 2L * p + 1; q < Integer.MAX_VALUE && checked < 3; q += 2L * p) {
+            if (!isSmallPrime((int) q)) {
+                continue;
+            }
+            int residue = remainderMagnitude(odd, (int) q);
+            if (residue != 0 && powerModulo(residue, (q - 1) / p, (int) q) != 1) {
+                return false;
+            }
+            checked++;
+        }
+        return Arrays.equals(powerMagnitude(rootMagnitude(odd, p), p), odd);
+    }
+
+    /**
+     * Raises a magnitude to a positive int power.
+     *
+     * @param base     Magnitude
+     * @param exponent Positive exponent
+     * @return base^exponent
+     */
+    private static int[] powerMagnitude(int[] base, int exponent) {
+        return slidingWindowPower(base, new int[]{exponent}, PLAIN_ARITHMETIC);
+    }
+
+    /**
+     * Computes the base 2 logarithm of a non-zero magnitude from its top 62 bits.
+     *
+     * @param mag Non-zero magnitude
+     * @return log2(mag), with a relative error of a few units in the last place
+     */
+    private static double log2(int[] mag) {
+        int bits = bitLength(mag);
+        int shift = Math.max(bits - 62, 0);
+        return shift + Math.log((double) unsignedLong(shiftRightMagnitude(mag, shift))) / Math.log(2);
+    }
+
+    /**
+     * Reads a magnitude of at most two words as an unsigned 64-bit value.
+     *
+     * @param mag Magnitude of at most two words
+     * @return The value, read as unsigned
+     */
+    private static long unsignedLong(int[] mag) {
+        long value = mag.length == 0 ? 0 : mag[0] & LONG_MASK;
+        if (mag.length > 1) {
+            value |= (long) mag[1] << 32;
+        }
+        return value;
+    }
+
+    /**
+     * Computes a magnitude modulo a positive int.
+     *
+     * @param mag     Magnitude
+     * @param divisor Positive divisor
+     * @return mag mod divisor
+     */
+    private static int remainderMagnitude(int[] mag, int divisor) {
+        long remainder = 0;
+        for (int i = mag.length - 1; i >= 0; i--) {
+            remainder = ((remainder << 32) | (mag[i] & LONG_MASK)) % divisor;
+        }
+        return (int) remainder;
+    }
+
+    /**
+     * Computes a power of a value modulo a modulus of one word.
+     *
+     * @param base     Value below the modulus
+     * @param exponent Non-negative exponent
+     * @param modulus  Positive modulus below 2^32, so products fit in 64 unsigned bits
+     * @return base^exponent mod modulus
+     */
+    private static long powerModulo(long base, long exponent, long modulus) {
+        long result = 1 % modulus;
+        for (; exponent != 0; exponent >>>= 1) {
+            if ((exponent & 1) != 0) {
+                result = Long.remainderUnsigned(result * base, modulus);
+            }
+            base = Long.remainderUnsigned(base * base, modulus);
+        }
+        return result;
+    }
+
+    /**
+     * Checks if a value is a p-th power modulo a small modulus, by trying every residue.
+     *
+     * @param value   Value below the modulus
+     * @param modulus Small positive modulus
+     * @param p       Exponent
+     * @return True if some x has x^p = value (mod modulus)
+     */
+    private static boolean isResidue(int value, int modulus, int p) {
+        for (int x = 0; x < modulus; x++) {
+            if (powerModulo(x, p, modulus) == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if a positive int is prime by trial division.
+     *
+     * @param value Value to check
+     * @return True if prime
+     */
+    private static boolean isSmallPrime(int value) {
+        if (value < 2) {
+            return false;
+        }
+        if (value % 2 == 0) {
+            return value == 2;
+        }
+        for (int divisor = 3; divisor <= value / divisor; divisor += 2) {
+            if (value % divisor == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Lists the odd primes below a limit with the sieve of Eratosthenes.
+     *
+     * @param limit Exclusive upper bound
+     * @return The odd primes below the limit, in increasing order
+     */
+    private static int[] oddPrimesBelow(int limit) {
+        boolean[] composite = new boolean[limit];
+        int[] primes = new int[limit / 2];
+        int count = 0;
+        for (int i = 3; i < limit; i += 2) {
+            if (!composite[i]) {
+                primes[count++] = i;
+                for (long j = (long) i * i; j < limit; j += 2L * i) {
+                    composite[(int) j] = true;
+                }
+            }
+        }
+        return Arrays.copyOf(primes, count);
+    }
+
+    /**
+     * Computes a magnitude modulo each of the leading SMALL_PRIMES. Primes are grouped
+     * into products that fit in an int, so each pass over the words serves several primes.
+     *
+     * @param mag   Magnitude
+     * @param count Number of leading SMALL_PRIMES
+     * @return mag mod SMALL_PRIMES[i] for each i below count
+     */
+    private static int[] smallPrimeResidues(int[] mag, int count) {
+        int[] residues = new int[count];
+        for (int i = 0; i < count; ) {
+            long product = SMALL_PRIMES[i];
+            int end = i + 1;
+            while (end < count && product * SMALL_PRIMES[end] <= Integer.MAX_VALUE) {
+                product *= SMALL_PRIMES[end++];
+            }
+            int residue = remainderMagnitude(mag, (int) product);
+            for (; i < end; i++) {
+                residues[i] = residue % SMALL_PRIMES[i];
+            }
+        }
+        return residues;
+    }
+
+    /**
+     * Checks if a value of one word is prime. Strong Miller-Rabin tests to the bases
+     * 2, 7 and 61 have no common pseudoprime below 4759123141, so the answer is exact.
+     *
+     * @param n Value below 2^32
+     * @return True if n is prime
+     */
+    private static boolean isPrimeWord(long n) {
+        if (n < 4) {
+            return n >= 2;
+        }
+        if ((n & 1) == 0) {
+            return false;
+        }
+        int s = Long.numberOfTrailingZeros(n - 1);
+        long d = (n - 1) >>> s;
+        for (long base : new long[]{2, 7, 61}) {
+            if (base == n) {
+                return true;
+            }
+            long x = powerModulo(base, d, n);
+            if (x == 1) {
+                continue;
+            }
+            for (int i = 1; i < s && x != n - 1; i++) {
+                x = Long.remainderUnsigned(x * x, n);
+            }
+            if (x != n - 1) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks if a magnitude is probably prime, as described for isProbablePrime(int).
+     *
+     * @param n             Magnitude
+     * @param certainty     Positive certainty
+     * @param trialDivision False if n is already known to have no factor among SMALL_PRIMES
+     * @return False if n is certainly composite, true if it is probably prime
+     */
+    private static boolean isProbablePrime(int[] n, int certainty, boolean trialDivision) {
+        if (n.length < 2) {
+            return n.length == 1 && isPrimeWord(n[0] & LONG_MASK);
+        }
+        if ((n[0] & 1) == 0) {
+            return false;
+        }
+        if (trialDivision) {
+            for (int residue : smallPrimeResidues(n, TRIAL_DIVISION_PRIMES)) {
+                if (residue == 0) {
+                    return false;
+                }
+            }
+        }
+        PrimalityTest test = new PrimalityTest(n);
+        if (!test.passesMillerRabin(TWO.mag) || !test.passesStrongLucas()) {
+            return false;
+        }
+        if (n.length == 2) {
+            return true;
+        }
+        // Damgard, Landrock and Pomerance bound the error of random bases for random candidates
+        int bits = bitLength(n);
+        int rounds = bits < 100 ? 50 : bits < 256 ? 27 : bits < 512 ? 15 : bits < 768 ? 8 : bits < 1024 ? 4 : 2;
+        rounds = Math.min(rounds, (certainty + 1) / 2);
+        Random random = ThreadLocalRandom.current();
+        for (int i = 1; i < rounds; i++) {
+            if (!test.passesMillerRabin(test.randomBase(random))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Computes the Jacobi symbol (a/n) of an odd int and an odd magnitude above |a|.
+     *
+     * @param a Odd int
+     * @param n Odd magnitude above |a|
+     * @return 1 or -1, or 0 if a and n share a factor
+     */
+    private static int jacobiSymbol(int a, int[] n) {
+        int result = 1;
+        if (a < 0) {
+            a = -a;
+            if ((n[0] & 3) == 3) {
+                result = -result;
+            }
+        }
+        if ((a & 3) == 3 && (n[0] & 3) == 3) {
+            result = -result;
+        }
+        return result * jacobiSymbol(remainderMagnitude(n, a), a);
+    }
+
+    /**
+     * Computes the Jacobi symbol (a/n) by quadratic reciprocity.
+     *
+     * @param a Non-negative value
+     * @param n Odd positive value
+     * @return 1 or -1, or 0 if a and n share a factor
+     */
+    private static int jacobiSymbol(int a, int n) {
+        int result = 1;
+        while (a != 0) {
+            while ((a & 1) == 0) {
+                a >>= 1;
+                if ((n & 7) == 3 || (n & 7) == 5) {
+                    result = -result;
+                }
+            }
+            int swap = a;
+            a = n;
+            n = swap;
+            if ((a & 3) == 3 && (n & 3) == 3) {
+                result = -result;
+            }
+            a %= n;
+        }
+        return n == 1 ? result : 0;
+    }
+
+    /**
+     * The Baillie-PSW tests of an odd candidate of at least two words, sharing the
+     * modular arithmetic and the constants derived from the candidate.
+     */
+    private static final class PrimalityTest {
+
+        /**
+         * Candidate.
+         */
+        private final int[] n;
+        /**
+         * Arithmetic modulo the candidate.
+         */
+        private final ModularArithmetic arithmetic;
+        /**
+         * 1 in the arithmetic's representation.
+         */
+        private final int[] one;
+        /**
+         * n - 1 in the arithmetic's representation.
+         */
+        private final int[] minusOne;
+
+        PrimalityTest(int[] n) {
+            this.n = n;
+            this.arithmetic = modularArithmetic(n);
+            this.one = arithmetic.enter(ONE.mag);
+            this.minusOne = arithmetic.enter(subtractMagnitude(n, ONE.mag));
+        }
+
+        /**
+         * Runs a strong Miller-Rabin test: with n - 1 = d * 2^s and d odd, a prime n has
+         * base^d = 1 or base^(d * 2^r) = -1 for some r below s.
+         *
+         * @param base Base between 2 and n - 2
+         * @return False if the base proves n composite
+         */
+        boolean passesMillerRabin(int[] base) {
+            int[] nMinusOne = subtractMagnitude(n, ONE.mag);
+            int s = lowestSetBit(nMinusOne);
+            int[] d = shiftRightMagnitude(nMinusOne, s);
+            int[] x = base.length == 1 && base[0] == 2
+                    ? twoToThe(d)
+                    : slidingWindowPower(arithmetic.enter(base), d, arithmetic);
+            if (Arrays.equals(x, one) || Arrays.equals(x, minusOne)) {
+                return true;
+            }
+            for (int r = 1; r < s; r++) {
+                x = arithmetic.square(x);
+                if (Arrays.equals(x, minusOne)) {
+                    return true;
+                }
+                if (Arrays.equals(x, one)) {
+                    return false;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Raises two to a power by left-to-right binary exponentiation. Multiplying by
+         * two is a modular doubling, so only the squarings cost a multiplication.
+         *
+         * @param exponent Non-zero exponent magnitude
+         * @return 2^exponent in the arithmetic's representation
+         */
+        private int[] twoToThe(int[] exponent) {
+            int[] x = arithmetic.add(one, one);
+            for (int bit = bitLength(exponent) - 2; bit >= 0; bit--) {
+                x = arithmetic.square(x);
+                if (testBit(exponent, bit)) {
+                    x = arithmetic.add(x, x);
+                }
+            }
+            return x;
+        }
+
+        /**
+         * Runs a strong Lucas test with Selfridge's parameters: D is the first of 5, -7, 9,
+         * -11, ... with Jacobi symbol (D/n) = -1, P = 1 and Q = (1 - D) / 4. With
+         * n + 1 = d * 2^s and d odd, a prime n has U_d = 0 or V_(d * 2^r) = 0 for some r
+         * below s. The sequences are doubled along the bits of d, halving modulo n where
+         * the addition formulas divide by two.
+         *
+         * @return False if the test proves n composite
+         */
+        boolean passesStrongLucas() {
+            int d = 5;
+            for (int jacobi = jacobiSymbol(d, n); jacobi != -1; jacobi = jacobiSymbol(d, n)) {
+                if (jacobi == 0) {
+                    return false;
+                }
+                // Squares have no D with (D/n) = -1, so the search would not end
+                if (d == 13 && isPower(n, 2)) {
+                    return false;
+                }
+                d = d > 0 ? -d - 2 : 2 - d;
+            }
+            int[] dValue = signed(d);
+            int[] q = signed((1 - d) / 4);
+            int[] k = addMagnitude(n, ONE.mag);
+            int s = lowestSetBit(k);
+            k = shiftRightMagnitude(k, s);
+
+            int[] u = one;
+            int[] v = one;
+            int[] qk = q;
+            for (int bit = bitLength(k) - 2; bit >= 0; bit--) {
+                u = arithmetic.multiply(u, v);
+                v = arithmetic.subtract(arithmetic.square(v), arithmetic.add(qk, qk));
+                qk = arithmetic.square(qk);
+                if (testBit(k, bit)) {
+                    int[] next = arithmetic.half(arithmetic.add(u, v));
+                    v = arithmetic.half(arithmetic.add(arithmetic.multiply(dValue, u), v));
+                    u = next;
+                    qk = arithmetic.multiply(qk, q);
+                }
+            }
+            if (ModularArithmetic.isZero(u) || ModularArithmetic.isZero(v)) {
+                return true;
+            }
+            for (int r = 1; r < s; r++) {
+                v = arithmetic.subtract(arithmetic.square(v), arithmetic.add(qk, qk));
+                if (ModularArithmetic.isZero(v)) {
+                    return true;
+                }
+                qk = arithmetic.square(qk);
+            }
+            return false;
+        }
+
+        /**
+         * Brings a small signed value into the arithmetic's representation.
+         *
+         * @param value Value with |value| below n
+         * @return value mod n in the arithmetic's representation
+         */
+        private int[] signed(int value) {
+            int[] magnitude = arithmetic.enter(magnitudeOf(Math.abs(value)));
+            return value < 0 ? arithmetic.subtract(arithmetic.fit(new int[0]), magnitude) : magnitude;
+        }
+
+        /**
+         * Draws a random Miller-Rabin base below 2^(bitLength(n) - 1), which keeps it below n - 1.
+         *
+         * @param random Source of random bits
+         * @return Base between 2 and n - 2
+         */
+        int[] randomBase(Random random) {
+            int bits = bitLength(n) - 1;
+            int[] base = new int[(bits + 31) / 32];
+            for (int i = 0; i < base.length; i++) {
+                base[i] = random.nextInt();
+            }
+            if ((bits & 31) != 0) {
+                base[base.length - 1] &= (1 << (bits & 31)) - 1;
+            }
+            base = stripLeadingZeros(base);
+            if (base.length == 0 || (base.length == 1 && (base[0] & LONG_MASK) < 2)) {
+                return new int[]{base.length == 0 ? 2 : base[0] + 2};
+            }
+            return base;
+        }
+    }
+
+    /**
+     * The windows of odd candidates searched by nextProbablePrime(), numbered from the
+     * start. Window w holds the candidates start + 2 * (w * windowLength + i) for i
+     * below windowLength.
+     */
+    private static final class PrimeSearch {
+
+        /**
+         * First candidate, odd and above every sieving prime.
+         */
+        private final int[] start;
+        /**
+         * start mod SMALL_PRIMES[i] for each i.
+         */
+        private final int[] residues;
+        /**
+         * Number of candidates in each window, a multiple of 64.
+         */
+        private final int windowLength;
+        /**
+         * Lowest window found to hold a prime so far, or Integer.MAX_VALUE.
+         */
+        private final AtomicInteger found = new AtomicInteger(Integer.MAX_VALUE);
+
+        PrimeSearch(int[] start) {
+            this.start = start;
+            this.residues = smallPrimeResidues(start, SMALL_PRIMES.length);
+            // Primes near start are about ln(start) apart, so a window of bitLength / 2 odd
+            // candidates, spanning 0.7 ln(start), holds one about half the time
+            this.windowLength = Math.max(64, (bitLength(start) / 2 + 63) & -64);
+        }
+
+        /**
+         * Sieves a window and tests its survivors in order. Gives up early once a lower
+         * window is known to hold a prime.
+         *
+         * @param window Window number
+         * @return The first probable prime of the window, or null if there is none or a
+         *         lower window holds one
+         */
+        int[] window(int window) {
+            long offset = 2L * windowLength * window;
+            long[] composite = new long[windowLength / 64];
+            for (int i = 0; i < SMALL_PRIMES.length; i++) {
+                int p = SMALL_PRIMES[i];
+                // The candidate start + offset + 2j is divisible by p from j = -residue / 2 (mod p)
+                long residue = (residues[i] + offset) % p;
+                for (long j = (p - residue) * ((p + 1) / 2) % p; j < windowLength; j += p) {
+                    composite[(int) (j >>> 6)] |= 1L << j;
+                }
+            }
+            for (int j = 0; j < windowLength; j++) {
+                if ((composite[j >>> 6] & 1L << j) != 0) {
+                    continue;
+                }
+                if (found.get() < window) {
+                    return null;
+                }
+                int[] candidate = addMagnitude(start, magnitudeOf(offset + 2L * j));
+                if (isProbablePrime(candidate, PRIME_CERTAINTY, false)) {
+                    found.accumulateAndGet(window, Math::min);
+                    return candidate;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * A run of consecutive windows of nextProbablePrime(), split in halves that are
+     * searched in parallel until each task holds one window.
+     */
+    private static final class PrimeSearchTask extends RecursiveTask<int[]> {
+
+        /**
+         * Serialization version; RecursiveTask is Serializable.
+         */
+        private static final long serialVersionUID = 1L;
+        /**
+         * Search the windows belong to.
+         */
+        private final PrimeSearch search;
+        /**
+         * First window of the run.
+         */
+        private final int first;
+        /**
+         * Number of windows in the run.
+         */
+        private final int count;
+
+        PrimeSearchTask(PrimeSearch search, int first, int count) {
+            this.search = search;
+            this.first = first;
+            this.count = count;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (count == 1) {
+                return search.window(first);
+            }
+            PrimeSearchTask low = new PrimeSearchTask(search, first, count / 2);
+            PrimeSearchTask high = new PrimeSearchTask(search, first + count / 2, count - count / 2);
+            invokeAll(low, high);
+            int[] prime = low.join();
+            return prime != null ? prime : high.join();
+        }
+    }
+
+    /**
+     * Computes the odd part of n! as the square of the odd part of (n/2)! times the
+     * odd part of swing(n).
+     *
+     * @param n      Non-negative value
+     * @param primes Odd primes up to at least n, in increasing order
+     * @return n! / 2^(n - bitCount(n))
+     */
+    private static int[] oddFactorial(int n, int[] primes) {
+        if (n <= 20) {
+            long factorial = 1;
+            for (int i = 2; i <= n; i++) {
+                factorial *= i;
+            }
+            return magnitudeOf(factorial >>> Long.numberOfTrailingZeros(factorial));
+        }
+        return multiplyMagnitude(squareMagnitude(oddFactorial(n / 2, primes)), oddSwing(n, primes));
+    }
+
+    /**
+     * Computes the odd part of swing(n) = n! / (n/2)!^2. The exponent of a prime p in
+     * swing(n) is the number of odd values among n / p, n / p^2, ..., so primes above n/2
+     * appear once, primes between n/3 and n/2 not at all, and only primes up to sqrt(n)
+     * can appear more than once.
+     *
+     * @param n      Value of at least one
+     * @param primes Odd primes up to at least n, in increasing order
+     * @return The odd part of swing(n)
+     */
+    private static int[] oddSwing(int n, int[] primes) {
+        FactorList factors = new FactorList();
+        for (int i = 0; i < primes.length && primes[i] <= n; i++) {
+            int p = primes[i];
+            for (int q = n / p; q > 0; q /= p) {
+                if ((q & 1) != 0) {
+                    factors.add(p);
+                }
+            }
+        }
+        return factors.product();
+    }
+
+    /**
+     * Multiplies all integers in a positive range, as factorials when the range starts low enough.
+     *
+     * @param from First factor, at least one
+     * @param to   Last factor, at least from and at most 2^31
+     * @return from * (from + 1) * ... * to
+     */
+    private static int[] rangeMagnitude(long from, long to) {
+        if (from <= 2 && to <= Integer.MAX_VALUE) {
+            return factorial((int) to).mag;
+        }
+        FactorList factors = new FactorList();
+        for (long factor = from; factor <= to; factor++) {
+            factors.add(factor);
+        }
+        return factors.product();
+    }
+
+    /**
+     * Multiplies a run of word-sized factors by binary splitting. Runs of at least
+     * PARALLEL_THRESHOLD factors, whose products reach about as many words, are split
+     * into fork-join tasks on the common pool.
+     *
+     * @param words Factors, each read as an unsigned word
+     * @param from  Index of the first factor
+     * @param to    Index after the last factor
+     * @return The product of the factors
+     */
+    private static int[] productMagnitude(int[] words, int from, int to) {
+        if (to - from >= PARALLEL_THRESHOLD && ForkJoinPool.getCommonPoolParallelism() > 1) {
+            return ForkJoinPool.commonPool().invoke(new ProductTask(words, from, to));
+        }
+        return productOfWords(words, from, to);
+    }
+
+    /**
+     * Multiplies a run of word-sized factors by binary splitting on the calling thread.
+     * Short runs are multiplied one word at a time; longer ones are split in halves whose
+     * products have about the same length.
+     *
+     * @param words Factors, each read as an unsigned word
+     * @param from  Index of the first factor
+     * @param to    Index after the last factor
+     * @return The product of the factors
+     */
+    private static int[] productOfWords(int[] words, int from, int to) {
+        if (to - from > PRODUCT_LEAF_SIZE) {
+            int middle = (from + to) >>> 1;
+            return multiplyMagnitude(productOfWords(words, from, middle), productOfWords(words, middle, to));
+        }
+        int[] product = new int[to - from + 1];
+        product[0] = 1;
+        int length = 1;
+        for (int i = from; i < to; i++) {
+            long factor = words[i] & LONG_MASK;
+            long carry = 0;
+            for (int j = 0; j < length; j++) {
+                long word = (product[j] & LONG_MASK) * factor + carry;
+                product[j] = (int) word;
+                carry = word >>> 32;
+            }
+            if (carry != 0) {
+                product[length++] = (int) carry;
+            }
+        }
+        return Arrays.copyOf(product, length);
+    }
+
+    /**
+     * Factors of a product, packed so that each word holds as many consecutive factors
+     * as fit in 32 bits.
+     */
+    private static final class FactorList {
+
+        /**
+         * Packed factors.
+         */
+        private int[] words = new int[16];
+        /**
+         * Number of packed factors in words.
+         */
+        private int size;
+        /**
+         * Product of the factors added since the last full word.
+         */
+        private long packed = 1;
+
+        /**
+         * Adds a factor.
+         *
+         * @param factor Factor between 1 and 2^32 - 1
+         */
+        void add(long factor) {
+            if (packed > LONG_MASK / factor) {
+                append();
+            }
+            packed *= factor;
+        }
+
+        /**
+         * Multiplies all factors added.
+         *
+         * @return The product, one if no factor was added
+         */
+        int[] product() {
+            if (packed != 1) {
+                append();
+            }
+            return size == 0 ? ONE.mag : productMagnitude(words, 0, size);
+        }
+
+        /**
+         * Moves the partial word into the packed factors.
+         */
+        private void append() {
+            if (size == words.length) {
+                words = Arrays.copyOf(words, 2 * size);
+            }
+            words[size++] = (int) packed;
+            packed = 1;
+        }
+    }
+
+    /**
+     * A run of factors of productMagnitude(), split in halves that are multiplied in
+     * parallel while the run is at least PARALLEL_THRESHOLD factors long.
+     */
+    private static final class ProductTask extends RecursiveTask<int[]> {
+
+        /**
+         * Serialization version; RecursiveTask is Serializable.
+         */
+        private static final long serialVersionUID = 1L;
+        /**
+         * Factors, each read as an unsigned word.
+         */
+        private final int[] words;
+        /**
+         * Index of the first factor.
+         */
+        private final int from;
+        /**
+         * Index after the last factor.
+         */
+        private final int to;
+
+        ProductTask(int[] words, int from, int to) {
+            this.words = words;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (to - from < PARALLEL_THRESHOLD) {
+                return productOfWords(words, from, to);
+            }
+            int middle = (from + to) >>> 1;
+            ProductTask low = new ProductTask(words, from, middle);
+            ProductTask high = new ProductTask(words, middle, to);
+            invokeAll(low, high);
+            return multiplyMagnitude(low.join(), high.join());
+        }
+    }
+
+    /**
+     * Computes the greatest common divisor of two magnitudes.
+     *
+     * @param x First magnitude
+     * @param y Second magnitude
+     * @return gcd(x, y)
+     */
+    private static int[] gcdMagnitude(int[] x, int[] y) {
+        GcdReduction reduction = new GcdReduction(x, y, false);
+        reduction.reduce();
+        if (reduction.a.length == 0 || reduction.b.length == 0) {
+            return reduction.a.length == 0 ? reduction.b : reduction.a;
+        }
+        return magnitudeOf(binaryGcd(unsignedLong(reduction.a), unsignedLong(reduction.b)));
+    }
+
+    /**
+     * Computes the greatest common divisor of two magnitudes together with a cofactor of the first.
+     *
+     * @param x First magnitude
+     * @param y Second magnitude
+     * @return Array of g = gcd(x, y) and a c with c * x = g (mod y)
+     */
+    private static BigInteger[] gcdAndCofactor(int[] x, int[] y) {
+        GcdReduction reduction = new GcdReduction(x, y, true);
+        reduction.reduce();
+        // The reduced pair is M^-1 (x, y), so a = m11 x - m01 y and b = m00 y - m10 x
+        if (reduction.b.length == 0) {
+            return new BigInteger[]{new BigInteger(reduction.a, false), new BigInteger(reduction.m11, false)};
+        }
+        return new BigInteger[]{new BigInteger(reduction.b, false), new BigInteger(reduction.m10, true)};
+    }
+
+    /**
+     * Computes the greatest common divisor of two non-zero 64-bit values with Stein's binary
+     * algorithm, which needs only shifts and subtractions.
+     *
+     * @param x First value, read as unsigned
+     * @param y Second value, read as unsigned
+     * @return gcd(x, y), read as unsigned
+     */
+    private static long binaryGcd(long x, long y) {
+        int shift = Long.numberOfTrailingZeros(x | y);
+        x >>>= Long.numberOfTrailingZeros(x);
+        do {
+            y >>>= Long.numberOfTrailingZeros(y);
+            if (Long.compareUnsigned(x, y) > 0) {
+                long swap = x;
+                x = y;
+                y = swap;
+            }
+            y -= x;
+        } while (y != 0);
+        return x << shift;
+    }
+
+    /**
+     * Reduces a pair of values below 2^62 by Euclidean steps, in the form of Moller's
+     * half-GCD: each step subtracts from the larger value as many multiples of the smaller
+     * as keep it at least 2^32, and the reduction stops once the values are within 2^32
+     * of each other. Both values must be at least 2^32 for any step to be taken.
+     * <p>
+     * The values are the leading bits of a larger pair. Because both reduced values stay
+     * at least 2^32 while the matrix entries stay below 2^30, applying the matrix to the
+     * full pair gives the same leading bits up to a small error and never a negative value.
+     *
+     * @param a First value
+     * @param b Second value
+     * @return Matrix {m00, m01, m10, m11} of the steps taken, or null if no step was possible
+     */
+    private static long[] halfGcdWord(long a, long b) {
+        final long limit = 1L << 32;
+        if (a < limit || b < limit) {
+            return null;
+        }
+        long m00 = 1;
+        long m01 = 0;
+        long m10 = 0;
+        long m11 = 1;
+        boolean reduced = false;
+        while (true) {
+            if (a >= b) {
+                if (a - b < limit) {
+                    break;
+                }
+                long q = (a - limit) / b;
+                a -= q * b;
+                m01 += q * m00;
+                m11 += q * m10;
+            } else {
+                if (b - a < limit) {
+                    break;
+                }
+                long q = (b - limit) / a;
+                b -= q * a;
+                m00 += q * m01;
+                m10 += q * m11;
+            }
+            reduced = true;
+        }
+        return reduced ? new long[]{m00, m01, m10, m11} : null;
+    }
+
+    /**
+     * Reduces a pair of magnitudes by Euclidean steps with Moller's recursive half-GCD.
+     * With n the bit length of the larger value and s = n / 2 + 1, both values are kept at
+     * least 2^s and reduced until they are within 2^s of each other, which leaves them at
+     * about half their length. The first half of the steps is found recursively from the
+     * upper half of the bits, the second from the upper half of what remains.
+     * <p>
+     * The recursion relies on the bound that makes halfGcdWord() safe: when a pair is reduced
+     * from its leading bits only, the full reduced pair is at least 2^(s - 1) times the
+     * weight of those bits, so it stays positive and the steps remain valid for it.
+     *
+     * @param a First value
+     * @param b Second value
+     * @return The reduced pair with its matrix, or null if no step was possible
+     */
+    private static GcdReduction halfGcd(int[] a, int[] b) {
+        GcdReduction reduction = new GcdReduction(a, b, true);
+        int n = reduction.size();
+        int s = n / 2 + 1;
+        if (n >= 32 * HALF_GCD_THRESHOLD) {
+            int p = n / 2;
+            GcdReduction upper = halfGcd(shiftRightMagnitude(a, p), shiftRightMagnitude(b, p));
+            if (upper != null) {
+                reduction.adjust(upper, p);
+            }
+            while (reduction.size() > 3 * n / 4 + 1) {
+                if (!reduction.step(s)) {
+                    return reduction.reduced ? reduction : null;
+                }
+            }
+            int size = reduction.size();
+            if (size > s + 2) {
+                p = 2 * s - size + 1;
+                upper = halfGcd(shiftRightMagnitude(reduction.a, p), shiftRightMagnitude(reduction.b, p));
+                if (upper != null) {
+                    reduction.adjust(upper, p);
+                }
+            }
+        }
+        boolean stepped;
+        do {
+            stepped = reduction.step(s);
+        } while (stepped);
+        return reduction.reduced ? reduction : null;
+    }
+
+    /**
+     * A pair of magnitudes being reduced by Euclidean steps, with the matrix of the steps
+     * taken so far. Every step subtracts a multiple of one value from the other, so the
+     * matrix M has non-negative entries and determinant 1 and maps the reduced pair back
+     * to the original one: (a0, b0) = M (a, b).
+     */
+    private static final class GcdReduction {
+
+        /**
+         * First value.
+         */
+        private int[] a;
+        /**
+         * Second value.
+         */
+        private int[] b;
+        /**
+         * Upper left matrix entry, or null if the matrix is not tracked.
+         */
+        private int[] m00;
+        /**
+         * Upper right matrix entry, or null if the matrix is not tracked.
+         */
+        private int[] m01;
+        /**
+         * Lower left matrix entry, or null if the matrix is not tracked.
+         */
+        private int[] m10;
+        /**
+         * Lower right matrix entry, or null if the matrix is not tracked.
+         */
+        private int[] m11;
+        /**
+         * True once any step has been taken.
+         */
+        private boolean reduced;
+
+        GcdReduction(int[] a, int[] b, boolean trackMatrix) {
+            this.a = a;
+            this.b = b;
+            if (trackMatrix) {
+                m00 = ONE.mag;
+                m01 = ZERO.mag;
+                m10 = ZERO.mag;
+                m11 = ONE.mag;
+            }
+        }
+
+        /**
+         * Gets the bit length of the larger value.
+         *
+         * @return Bit length
+         */
+        int size() {
+            return Math.max(bitLength(a), bitLength(b));
+        }
+
+        /**
+         * Reduces the pair until one value is zero, or, if the matrix is not tracked,
+         * until both fit in 64 bits for binary GCD to finish.
+         */
+        void reduce() {
+            while (a.length != 0 && b.length != 0) {
+                int n = size();
+                if (n <= 64 && m00 == null) {
+                    return;
+                }
+                if (n >= 32 * HALF_GCD_THRESHOLD) {
+                    int p = n / 2;
+                    GcdReduction upper = halfGcd(shiftRightMagnitude(a, p), shiftRightMagnitude(b, p));
+                    if (upper != null) {
+                        adjust(upper, p);
+                        continue;
+                    }
+                } else if (n > 64 && wordStep(n - 62)) {
+                    continue;
+                }
+                divisionStep();
+            }
+        }
+
+        /**
+         * Takes a step of the half-GCD, keeping both values at least 2^s. The steps that
+         * the leading 62 bits determine are taken at once while the values are well above
+         * 2^s; close to it, or when the leading bits do not decide a step, one subtraction
+         * and one division are done on the full values.
+         *
+         * @param s Bit length the values must keep
+         * @return False if no step was possible because a value, or the difference of
+         *         the values, is below 2^s
+         */
+        boolean step(int s) {
+            int n = size();
+            if (n >= s + 32 && wordStep(Math.max(n - 62, 0))) {
+                return true;
+            }
+            if (bitLength(a) <= s || bitLength(b) <= s) {
+                return false;
+            }
+            int comparison = iterativeCompare(a, b);
+            int[] difference = comparison > 0 ? subtractMagnitude(a, b) : subtractMagnitude(b, a);
+            if (bitLength(difference) <= s) {
+                return false;
+            }
+            if (comparison > 0) {
+                reduceA(ONE.mag, difference);
+            } else {
+                reduceB(ONE.mag, difference);
+            }
+            boolean aLarger = iterativeCompare(a, b) >= 0;
+            int[] smaller = aLarger ? b : a;
+            int[][] division = divideMagnitude(aLarger ? a : b, smaller);
+            if (bitLength(division[1]) <= s) {
+                division[0] = subtractMagnitude(division[0], ONE.mag);
+                division[1] = addMagnitude(division[1], smaller);
+            }
+            if (division[0].length != 0) {
+                if (aLarger) {
+                    reduceA(division[0], division[1]);
+                } else {
+                    reduceB(division[0], division[1]);
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Takes the steps that halfGcdWord() finds for the 62 bits of the pair from the
+         * given position up, in one pass over the words. The new values are at least
+         * 2^(shift + 31).
+         *
+         * @param shift Position of the lowest bit used, with the larger value below 2^(shift + 62)
+         * @return False if the leading bits did not determine any step
+         */
+        boolean wordStep(int shift) {
+            long[] w = halfGcdWord(bitsAt(a, shift), bitsAt(b, shift));
+            if (w == null) {
+                return false;
+            }
+            int[] reducedA = combine(w[3], a, -w[1], b);
+            b = combine(w[0], b, -w[2], a);
+            a = reducedA;
+            if (m00 != null) {
+                int[] t00 = combine(w[0], m00, w[2], m01);
+                m01 = combine(w[1], m00, w[3], m01);
+                m00 = t00;
+                int[] t10 = combine(w[0], m10, w[2], m11);
+                m11 = combine(w[1], m10, w[3], m11);
+                m10 = t10;
+            }
+            reduced = true;
+            return true;
+        }
+
+        /**
+         * Reduces the larger value modulo the smaller, non-zero one.
+         */
+        void divisionStep() {
+            if (iterativeCompare(a, b) >= 0) {
+                int[][] division = divideMagnitude(a, b);
+                reduceA(division[0], division[1]);
+            } else {
+                int[][] division = divideMagnitude(b, a);
+                reduceB(division[0], division[1]);
+            }
+        }
+
+        /**
+         * Applies the reduction found for the pair shifted right by p bits to the full pair.
+         * The bits of the new values from p up are mostly those of the reduced upper pair,
+         * so the matrix only has to be applied to the low p bits.
+         *
+         * @param upper Reduction of the pair shifted right by p bits
+         * @param p     Number of low bits left out of the upper pair
+         */
+        void adjust(GcdReduction upper, int p) {
+            BigInteger lowA = new BigInteger(lowBits(a, p), false);
+            BigInteger lowB = new BigInteger(lowBits(b, p), false);
+            a = new BigInteger(shiftLeftMagnitude(upper.a, p), false)
+                    .add(lowA.multiply(new BigInteger(upper.m11, false)))
+                    .subtract(lowB.multiply(new BigInteger(upper.m01, false))).mag;
+            b = new BigInteger(shiftLeftMagnitude(upper.b, p), false)
+                    .add(lowB.multiply(new BigInteger(upper.m00, false)))
+                    .subtract(lowA.multiply(new BigInteger(upper.m10, false))).mag;
+            if (m00 != null && !reduced) {
+                m00 = upper.m00;
+                m01 = upper.m01;
+                m10 = upper.m10;
+                m11 = upper.m11;
+            } else if (m00 != null) {
+                int[] t00 = addMagnitude(multiplyMagnitude(m00, upper.m00), multiplyMagnitude(m01, upper.m10));
+                m01 = addMagnitude(multiplyMagnitude(m00, upper.m01), multiplyMagnitude(m01, upper.m11));
+                m00 = t00;
+                int[] t10 = addMagnitude(multiplyMagnitude(m10, upper.m00), multiplyMagnitude(m11, upper.m10));
+                m11 = addMagnitude(multiplyMagnitude(m10, upper.m01), multiplyMagnitude(m11, upper.m11));
+                m10 = t10;
+            }
+            reduced = true;
+        }
+
+        /**
+         * Replaces a by a - q * b and records the step.
+         *
+         * @param q         Multiplier
+         * @param remainder a - q * b
+         */
+        private void reduceA(int[] q, int[] remainder) {
+            a = remainder;
+            if (m00 != null) {
+                m01 = addMagnitude(m01, multiplyMagnitude(q, m00));
+                m11 = addMagnitude(m11, multiplyMagnitude(q, m10));
+            }
+            reduced = true;
+        }
+
+        /**
+         * Replaces b by b - q * a and records the step.
+         *
+         * @param q         Multiplier
+         * @param remainder b - q * a
+         */
+        private void reduceB(int[] q, int[] remainder) {
+            b = remainder;
+            if (m00 != null) {
+                m00 = addMagnitude(m00, multiplyMagnitude(q, m01));
+                m10 = addMagnitude(m10, multiplyMagnitude(q, m11));
+            }
+            reduced = true;
+        }
+    }
+
+    /**
+     * Computes p * x + q * y for small coefficients, in one pass over the words, where the
+     * result is known not to be negative.
+     *
+     * @param p Coefficient of x, below 2^31 in absolute value
+     * @param x First magnitude
+     * @param q Coefficient of y, below 2^31 in absolute value
+     * @param y Second magnitude
+     * @return p * x + q * y
+     */
+    private static int[] combine(long p, int[] x, long q, int[] y) {
+        int[] result = new int[Math.max(x.length, y.length) + 1];
+        long carry = 0;
+        for (int i = 0; i < result.length; i++) {
+            long sum = p * wordAt(x, i) + q * wordAt(y, i) + carry;
+            result[i] = (int) sum;
+            carry = sum >> 32;
+        }
+        return stripLeadingZeros(result);
+    }
+
+    /**
+     * Gets a word of a magnitude, reading zero past its end.
+     *
+     * @param mag   Magnitude
+     * @param index Word index
+     * @return The word as an unsigned value
+     */
+    private static long wordAt(int[] mag, int index) {
+        return index < mag.length ? mag[index] & LONG_MASK : 0;
+    }
+
+    /**
+     * Reads 64 bits of a magnitude from a bit position up.
+     *
+     * @param mag      Magnitude
+     * @param position Position of the lowest bit to read
+     * @return (mag / 2^position) mod 2^64, read as unsigned
+     */
+    private static long bitsAt(int[] mag, int position) {
+        int word = position >>> 5;
+        int bit = position & 31;
+        long low = wordAt(mag, word) | wordAt(mag, word + 1) << 32;
+        return bit == 0 ? low : low >>> bit | wordAt(mag, word + 2) << (64 - bit);
+    }
+
+    /**
+     * Gets the low bits of a magnitude.
+     *
+     * @param mag  Magnitude
+     * @param bits Number of bits to keep
+     * @return mag mod 2^bits
+     */
+    private static int[] lowBits(int[] mag, int bits) {
+        int words = bits >>> 5;
+        if (words >= mag.length) {
+            return mag;
+        }
+        int[] result = Arrays.copyOf(mag, words + 1);
+        result[words] &= (1 << (bits & 31)) - 1;
+        return stripLeadingZeros(result);
+    }
+
+    /**
+     * Raises a value to a power by left-to-right sliding-window exponentiation.
+     * Odd powers of the base up to the window width are precomputed, so each
+     * window of exponent bits costs one multiplication instead of one per set bit.
+     *
+     * @param base       Base, in the representation used by the arithmetic
+     * @param exponent   Non-zero exponent magnitude
+     * @param arithmetic Multiplication and squaring to use
+     * @return base^exponent, in the representation used by the arithmetic
+     */
+    private static int[] slidingWindowPower(int[] base, int[] exponent, PowerArithmetic arithmetic) {
+        int bits = bitLength(exponent);
+        int width = 1;
+        while (bits > WINDOW_THRESHOLDS[width - 1]) {
+            width++;
+        }
+
+        int[][] oddPowers = new int[1 << (width - 1)][];
+        oddPowers[0] = base;
+        if (oddPowers.length > 1) {
+            int[] baseSquared = arithmetic.square(base);
+            for (int i = 1; i < oddPowers.length; i++) {
+                oddPowers[i] = arithmetic.multiply(oddPowers[i - 1], baseSquared);
+            }
+        }
+
+        int[] result = null;
+        int bit = bits - 1;
+        while (bit >= 0) {
+            if (!testBit(exponent, bit)) {
+                result = arithmetic.square(result);
+                bit--;
+                continue;
+            }
+            int low = Math.max(bit - width + 1, 0);
+            while (!testBit(exponent, low)) {
+                low++;
+            }
+            int window = 0;
+            for (int i = bit; i >= low; i--) {
+                window = (window << 1) | (testBit(exponent, i) ? 1 : 0);
+            }
+            if (result == null) {
+                result = oddPowers[window >>> 1];
+            } else {
+                for (int i = bit; i >= low; i--) {
+                    result = arithmetic.square(result);
+                }
+                result = arithmetic.multiply(result, oddPowers[window >>> 1]);
+            }
+            bit = low - 1;
+        }
+        return result;
+    }
+
+    /**
+     * Multiplication and squaring used by slidingWindowPower, so the same
+     * exponentiation loop serves plain, Montgomery and Barrett arithmetic.
+     */
+    private interface PowerArithmetic {
+
+        /**
+         * Multiplies two values.
+         *
+         * @param a First value
+         * @param b Second value
+         * @return a * b
+         */
+        int[] multiply(int[] a, int[] b);
+
+        /**
+         * Squares a value.
+         *
+         * @param a Value
+         * @return a * a
+         */
+        int[] square(int[] a);
+    }
+
+    /**
+     * Plain magnitude arithmetic, used by power().
+     */
+    private static final PowerArithmetic PLAIN_ARITHMETIC = new PowerArithmetic() {
+        @Override
+        public int[] multiply(int[] a, int[] b) {
+            return multiplyMagnitude(a, b);
+        }
+
+        @Override
+        public int[] square(int[] a) {
+            return squareMagnitude(a);
+        }
+    };
+
+    /**
+     * Chooses the arithmetic for a modulus: Montgomery reduction for odd moduli below
+     * MONTGOMERY_THRESHOLD words, Barrett reduction otherwise.
+     *
+     * @param modulus Modulus above one
+     * @return Arithmetic modulo the modulus
+     */
+    private static ModularArithmetic modularArithmetic(int[] modulus) {
+        return (modulus[0] & 1) != 0 && modulus.length < MONTGOMERY_THRESHOLD
+                ? new MontgomeryArithmetic(modulus)
+                : new BarrettArithmetic(modulus);
+    }
+
+    /**
+     * Arithmetic modulo a fixed modulus, used by modPow() and the primality tests.
+     */
+    private abstract static class ModularArithmetic implements PowerArithmetic {
+
+        /**
+         * Modulus.
+         */
+        final int[] modulus;
+
+        ModularArithmetic(int[] modulus) {
+            this.modulus = modulus;
+        }
+
+        /**
+         * Converts a magnitude below the modulus into this arithmetic's representation.
+         *
+         * @param value Magnitude below the modulus
+         * @return The value in this arithmetic's representation
+         */
+        abstract int[] enter(int[] value);
+
+        /**
+         * Converts a value in this arithmetic's representation back into a magnitude.
+         *
+         * @param value Value in this arithmetic's representation
+         * @return Magnitude below the modulus
+         */
+        abstract int[] leave(int[] value);
+
+        /**
+         * Brings a magnitude below the modulus into the array shape this arithmetic's
+         * representation uses.
+         *
+         * @param value Magnitude below the modulus
+         * @return The same value, padded or trimmed as the representation requires
+         */
+        abstract int[] fit(int[] value);
+
+        /**
+         * Adds two values. The representations are linear, so this is plain modular addition.
+         *
+         * @param a First value
+         * @param b Second value
+         * @return a + b
+         */
+        int[] add(int[] a, int[] b) {
+            int[] sum = addMagnitude(stripLeadingZeros(a), stripLeadingZeros(b));
+            return fit(iterativeCompare(sum, modulus) >= 0 ? subtractMagnitude(sum, modulus) : sum);
+        }
+
+        /**
+         * Subtracts one value from another.
+         *
+         * @param a Value to subtract from
+         * @param b Value to subtract
+         * @return a - b
+         */
+        int[] subtract(int[] a, int[] b) {
+            a = stripLeadingZeros(a);
+            b = stripLeadingZeros(b);
+            return fit(iterativeCompare(a, b) >= 0
+                    ? subtractMagnitude(a, b)
+                    : subtractMagnitude(addMagnitude(a, modulus), b));
+        }
+
+        /**
+         * Halves a value modulo an odd modulus, adding the modulus first if the value is odd.
+         *
+         * @param a Value
+         * @return a / 2
+         */
+        int[] half(int[] a) {
+            a = stripLeadingZeros(a);
+            return fit(shiftRightMagnitude(a.length > 0 && (a[0] & 1) != 0 ? addMagnitude(a, modulus) : a, 1));
+        }
+
+        /**
+         * Checks if a value is zero, which every representation keeps as zero.
+         *
+         * @param a Value
+         * @return True if a = 0
+         */
+        static boolean isZero(int[] a) {
+            for (int word : a) {
+                if (word != 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Montgomery multiplication modulo an odd modulus of n words. Values are held
+     * as x * 2^(32n) mod modulus in arrays of exactly n words, and each product is
+     * reduced word by word without any division.
+     */
+    private static final class MontgomeryArithmetic extends ModularArithmetic {
+
+        /**
+         * -1/modulus modulo 2^32.
+         */
+        private final int inverse;
+
+        MontgomeryArithmetic(int[] modulus) {
+            super(modulus);
+            this.inverse = negativeInverse(modulus[0]);
+        }
+
+        @Override
+        int[] enter(int[] value) {
+            int[] shifted = new int[value.length + modulus.length];
+            System.arraycopy(value, 0, shifted, modulus.length, value.length);
+            return Arrays.copyOf(divideMagnitude(stripLeadingZeros(shifted), modulus)[1], modulus.length);
+        }
+
+        @Override
+        int[] leave(int[] value) {
+            int[] one = new int[modulus.length];
+            one[0] = 1;
+            return stripLeadingZeros(multiply(value, one));
+        }
+
+        @Override
+        int[] fit(int[] value) {
+            return Arrays.copyOf(value, modulus.length);
+        }
+
+        @Override
+        public int[] square(int[] a) {
+            return multiply(a, a);
+        }
+
+        /**
+         * Computes a * b / 2^(32n) modulo the modulus.
+         *
+         * @param a First value, n words below the modulus
+         * @param b Second value, n words below the modulus
+         * @return The product in Montgomery form, n words
+         */
+        @Override
+        public int[] multiply(int[] a, int[] b) {
+            int[] t = new int[modulus.length + 2];
+            montgomeryMultiply(a, b, modulus, inverse, t);
+            return Arrays.copyOf(t, modulus.length);
+        }
+    }
+
+    /**
+     * Computes a * b / 2^(32n) modulo an odd modulus of n words (coarsely integrated
+     * operand scanning). Each word of a is multiplied in and one low word is cleared by
+     * adding a multiple of the modulus, so the running sum never exceeds n + 2 words.
+     *
+     * @param a       First value, n words below the modulus
+     * @param b       Second value, n words below the modulus
+     * @param modulus Odd modulus of n words
+     * @param inverse -1/modulus modulo 2^32
+     * @param t       Buffer of at least n + 2 words, distinct from a and b, receiving the
+     *                product in its low n words and zeros above
+     */
+    static void montgomeryMultiply(int[] a, int[] b, int[] modulus, int inverse, int[] t) {
+        int n = modulus.length;
+        Arrays.fill(t, 0, n + 2, 0);
+        for (int i = 0; i < n; i++) {
+            long ai = a[i] & LONG_MASK;
+            long carry = 0;
+            for (int j = 0; j < n; j++) {
+                long sum = (t[j] & LONG_MASK) + ai * (b[j] & LONG_MASK) + carry;
+                t[j] = (int) sum;
+                carry = sum >>> 32;
+            }
+            long sum = (t[n] & LONG_MASK) + carry;
+            t[n] = (int) sum;
+            t[n + 1] = (int) (sum >>> 32);
+
+            long reducer = (t[0] * inverse) & LONG_MASK;
+            sum = (t[0] & LONG_MASK) + reducer * (modulus[0] & LONG_MASK);
+            carry = sum >>> 32;
+            for (int j = 1; j < n; j++) {
+                sum = (t[j] & LONG_MASK) + reducer * (modulus[j] & LONG_MASK) + carry;
+                t[j - 1] = (int) sum;
+                carry = sum >>> 32;
+            }
+            sum = (t[n] & LONG_MASK) + carry;
+            t[n - 1] = (int) sum;
+            t[n] = t[n + 1] + (int) (sum >>> 32);
+        }
+        if (t[n] != 0 || compareFixed(t, modulus, n) >= 0) {
+            subtractMagnitudes(t, n, modulus, n, t);
+        }
+        t[n] = 0;
+        t[n + 1] = 0;
+    }
+
+    /**
+     * Raises a value in Montgomery form to a power modulo an odd modulus.
+     *
+     * @param base     Value in Montgomery form, n words below the modulus
+     * @param exponent Non-zero exponent magnitude
+     * @param modulus  Odd modulus of n words
+     * @return base^exponent in Montgomery form, n words
+     */
+    static int[] montgomeryPower(int[] base, int[] exponent, int[] modulus) {
+        return slidingWindowPower(base, exponent, new MontgomeryArithmetic(modulus));
+    }
+
+    /**
+     * Barrett reduction modulo any modulus of k words. Products are reduced with two
+     * multiplications by the precomputed reciprocal floor(2^(64k) / modulus), so the
+     * cost follows the fast multiply tiers.
+     */
+    private static final class BarrettArithmetic extends ModularArithmetic {
+
+        /**
+         * floor(2^(64k) / modulus).
+         */
+        private final int[] reciprocal;
+
+        BarrettArithmetic(int[] modulus) {
+            super(modulus);
+            int[] power = new int[2 * modulus.length + 1];
+            power[2 * modulus.length] = 1;
+            this.reciprocal = divideMagnitude(power, modulus)[0];
+        }
+
+        @Override
+        int[] enter(int[] value) {
+            return value;
+        }
+
+        @Override
+        int[] leave(int[] value) {
+            return value;
+        }
+
+        @Override
+        int[] fit(int[] value) {
+            return value;
+        }
+
+        @Override
+        public int[] multiply(int[] a, int[] b) {
+            return reduce(multiplyMagnitude(a, b));
+        }
+
+        @Override
+        public int[] square(int[] a) {
+            return reduce(squareMagnitude(a));
+        }
+
+        /**
+         * Reduces a product of two values below the modulus.
+         *
+         * @param value Magnitude below modulus^2
+         * @return value mod modulus
+         */
+        private int[] reduce(int[] value) {
+            int k = modulus.length;
+            int[] estimate = upperWords(multiplyMagnitude(upperWords(value, k - 1), reciprocal), k + 1);
+            int[] result = subtractMagnitude(value, multiplyMagnitude(estimate, modulus));
+            while (iterativeCompare(result, modulus) >= 0) {
+                result = subtractMagnitude(result, modulus);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Compares two fixed-length word arrays, which may have leading zero words.
+     *
+     * @param x      First array
+     * @param y      Second array
+     * @param length Number of words to compare
+     * @return Positive if x > y, negative if x < y, zero if equal
+     */
+    private static int compareFixed(int[] x, int[] y, int length) {
+        for (int i = length - 1; i >= 0; i--) {
+            if (x[i] != y[i]) {
+                return (x[i] & LONG_MASK) > (y[i] & LONG_MASK) ? 1 : -1;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Computes -1/value modulo 2^32 by Newton iteration.
+     *
+     * @param value Odd word
+     * @return The negated inverse
+     */
+    static int negativeInverse(int value) {
+        int inverse = value;
+        for (int i = 0; i < 5; i++) {
+            inverse *= 2 - value * inverse;
+        }
+        return -inverse;
+    }
+
+    /**
+     * Gets the number of significant bits of a magnitude.
+     *
+     * @param mag Magnitude
+     * @return Bit length, zero for zero
+     */
+    private static int bitLength(int[] mag) {
+        if (mag.length == 0) {
+            return 0;
+        }
+        return 32 * mag.length - Integer.numberOfLeadingZeros(mag[mag.length - 1]);
+    }
+
+    /**
+     * Tests one bit of a magnitude.
+     *
+     * @param mag Magnitude
+     * @param bit Bit index, zero being the least significant
+     * @return True if the bit is set
+     */
+    private static boolean testBit(int[] mag, int bit) {
+        int word = bit >>> 5;
+        return word < mag.length && (mag[word] & (1 << (bit & 31))) != 0;
+    }
+
+    /**
+     * Gets the index of the lowest set bit of a non-zero magnitude.
+     *
+     * @param mag Non-zero magnitude
+     * @return Number of trailing zero bits
+     */
+    private static int lowestSetBit(int[] mag) {
+        int word = 0;
+        while (mag[word] == 0) {
+            word++;
+        }
+        return 32 * word + Integer.numberOfTrailingZeros(mag[word]);
+    }
+
+    /**
+     * Shifts a magnitude left by any number of bits into a single new array.
+     *
+     * @param mag  Magnitude to shift
+     * @param bits Non-negative bit count
+     * @return mag * 2^bits
+     */
+    private static int[] shiftLeftMagnitude(int[] mag, int bits) {
+        if (mag.length == 0 || bits == 0) {
+            return mag;
+        }
+        int words = bits >>> 5;
+        int shift = bits & 31;
+        if (shift == 0) {
+            int[] result = new int[mag.length + words];
+            System.arraycopy(mag, 0, result, words, mag.length);
+            return result;
+        }
+        int top = mag[mag.length - 1] >>> (32 - shift);
+        int[] result = new int[mag.length + words + (top == 0 ? 0 : 1)];
+        int carry = 0;
+        for (int i = 0; i < mag.length; i++) {
+            result[words + i] = (mag[i] << shift) | carry;
+            carry = mag[i] >>> (32 - shift);
+        }
+        if (top != 0) {
+            result[words + mag.length] = top;
+        }
+        return result;
+    }
+
+    /**
+     * Shifts a magnitude right by any number of bits into a single new array,
+     * discarding the bits shifted out.
+     *
+     * @param mag  Magnitude to shift
+     * @param bits Non-negative bit count
+     * @return mag / 2^bits, rounded down
+     */
+    private static int[] shiftRightMagnitude(int[] mag, int bits) {
+        if (mag.length == 0 || bits == 0) {
+            return mag;
+        }
+        int words = bits >>> 5;
+        int shift = bits & 31;
+        if (words >= mag.length) {
+            return new int[0];
+        }
+        int length = mag.length - words;
+        if (shift == 0) {
+            return Arrays.copyOfRange(mag, words, mag.length);
+        }
+        if (mag[mag.length - 1] >>> shift == 0) {
+            length--;
+        }
+        int[] result = new int[length];
+        for (int i = 0; i < length; i++) {
+            int next = words + i + 1 < mag.length ? mag[words + i + 1] : 0;
+            result[i] = (mag[words + i] >>> shift) | (next << (32 - shift));
+        }
+        return result;
+    }
+
+    /**
+     * Checks if a magnitude is a power of two.
+     * Most magnitudes are rejected by their top word alone.
+     *
+     * @param mag Magnitude
+     * @return k if mag is 2^k, otherwise -1
+     */
+    private static int powerOfTwo(int[] mag) {
+        if (mag.length == 0 || Integer.bitCount(mag[mag.length - 1]) != 1) {
+            return -1;
+        }
+        for (int i = 0; i < mag.length - 1; i++) {
+            if (mag[i] != 0) {
+                return -1;
+            }
+        }
+        return 32 * (mag.length - 1) + Integer.numberOfTrailingZeros(mag[mag.length - 1]);
+    }
+
+    /**
+     * Negates a negative shift distance so it can be applied the other way.
+     *
+     * @param n Negative shift distance
+     * @return -n
+     * @throws ArithmeticException If n is Integer.MIN_VALUE, whose negation does not fit in an int
+     */
+    private static int negateShift(int n) {
+        if (n == Integer.MIN_VALUE) {
+            throw new ArithmeticException("Shift distance too large.");
+        }
+        return -n;
+    }
+
+    /**
+     * Gets the low words of the two's complement form of this BigInteger, sign-extended
+     * to the requested length.
+     *
+     * @param length Number of words, more than the magnitude length so the sign bit fits
+     * @return New array of two's complement words, least significant first
+     */
+    private int[] twosComplement(int length) {
+        int[] words = Arrays.copyOf(mag, length);
+        if (negative) {
+            negateWords(words);
+        }
+        return words;
+    }
+
+    /**
+     * Converts two's complement words into a BigInteger. The array is modified.
+     *
+     * @param words Two's complement words, least significant first, with the sign in the top bit
+     * @return The value of the words
+     */
+    private static BigInteger fromTwosComplement(int[] words) {
+        boolean negative = words.length > 0 && words[words.length - 1] < 0;
+        if (negative) {
+            negateWords(words);
+        }
+        return new BigInteger(stripLeadingZeros(words), negative);
+    }
+
+    /**
+     * Negates fixed-length two's complement words in place, as ~words + 1.
+     *
+     * @param words Words to negate, least significant first
+     */
+    private static void negateWords(int[] words) {
+        boolean carry = true;
+        for (int i = 0; i < words.length; i++) {
+            words[i] = ~words[i];
+            if (carry) {
+                words[i]++;
+                carry = words[i] == 0;
+            }
+        }
+    }
+
+    /**
+     * Subtracts a smaller magnitude from a larger one.
+     * Only the words below the highest differing word are visited, and the result
+     * is sized from that word so it rarely needs trimming afterwards.
+     *
+     * @param larger  Larger magnitude
+     * @param smaller Smaller magnitude
+     * @return larger - smaller
+     */
+    private static int[] subtractMagnitude(int[] larger, int[] smaller) {
+        int length = larger.length;
+        while (length > 0 && length <= smaller.length && larger[length - 1] == smaller[length - 1]) {
+            length--;
+        }
+        int[] result = new int[length];
+        subtractMagnitudes(larger, length, smaller, Math.min(length, smaller.length), result);
+        return stripLeadingZeros(result);
+    }
+
+    /**
+     * Subtracts y from x word by word with borrow propagation, writing into a preallocated buffer.
+     * Requires x >= y and xLen >= yLen. The buffer may be x itself.
+     *
+     * @param x      Minuend words, least significant first
+     * @param xLen   Number of words of x to use
+     * @param y      Subtrahend words, least significant first
+     * @param yLen   Number of words of y to use
+     * @param result Buffer of at least xLen words receiving x - y
+     * @return Borrow out of the top word, zero when x >= y
+     */
+    static int subtractMagnitudes(int[] x, int xLen, int[] y, int yLen, int[] result) {
+        long difference = 0;
+        int i = 0;
+        for (; i < yLen; i++) {
+            difference = (x[i] & LONG_MASK) - (y[i] & LONG_MASK) + (difference >> 32);
+            result[i] = (int) difference;
+        }
+        for (; i < xLen && difference < 0; i++) {
+            difference = (x[i] & LONG_MASK) - 1;
+            result[i] = (int) difference;
+        }
+        if (result != x) {
+            System.arraycopy(x, i, result, i, xLen - i);
+        }
+        return difference < 0 ? 1 : 0;
+    }
+
+    /**
+     * Divides one magnitude by another, choosing the algorithm by operand length.
+     *
+     * @param dividend Dividend magnitude
+     * @param divisor  Non-zero divisor magnitude
+     * @return Array of the quotient magnitude followed by the remainder magnitude
+     */
+    private static int[][] divideMagnitude(int[] dividend, int[] divisor) {
+        if (divisor.length < BURNIKEL_ZIEGLER_THRESHOLD
+                || dividend.length - divisor.length < BURNIKEL_ZIEGLER_OFFSET) {
+            return divideBasecase(dividend, divisor);
+        }
+        return divideBurnikelZiegler(dividend, divisor);
+    }
+
+    /**
+     * Divides one magnitude by another in quadratic time.
+     *
+     * @param dividend Dividend magnitude
+     * @param divisor  Non-zero divisor magnitude
+     * @return Array of the quotient magnitude followed by the remainder magnitude
+     */
+    private static int[][] divideBasecase(int[] dividend, int[] divisor) {
+        if (iterativeCompare(dividend, divisor) < 0) {
+            return new int[][]{new int[0], dividend};
+        }
+        if (divisor.length == 1) {
+            return divideByWord(dividend, divisor[0]);
+        }
+        return divideKnuth(dividend, divisor);
+    }
+
+    /**
+     * Divides a magnitude by a single word.
+     *
+     * @param dividend Dividend magnitude
+     * @param divisor  Non-zero divisor word, read as unsigned
+     * @return Array of the quotient magnitude followed by the remainder magnitude
+     */
+    private static int[][] divideByWord(int[] dividend, int divisor) {
+        long divisorValue = divisor & LONG_MASK;
+        int[] quotient = new int[dividend.length];
+        long remainder = 0;
+        for (int i = dividend.length - 1; i >= 0; i--) {
+            long current = (remainder << 32) | (dividend[i] & LONG_MASK);
+            if (current >= 0) {
+                quotient[i] = (int) (current / divisorValue);
+                remainder = current % divisorValue;
+            } else {
+                quotient[i] = (int) Long.divideUnsigned(current, divisorValue);
+                remainder = Long.remainderUnsigned(current, divisorValue);
+            }
+        }
+        int[] remainderMag = remainder == 0 ? new int[0] : new int[]{(int) remainder};
+        return new int[][]{stripLeadingZeros(quotient), remainderMag};
+    }
+
+    /**
+     * Divides one magnitude by another with Knuth's Algorithm D
+     * (The Art of Computer Programming, volume 2, section 4.3.1).
+     *
+     * @param dividend Dividend magnitude
+     * @param divisor  Divisor magnitude of at least two words
+     * @return Array of the quotient magnitude followed by the remainder magnitude
+     */
+    private static int[][] divideKnuth(int[] dividend, int[] divisor) {
+        int n = divisor.length;
+        int m = dividend.length - n;
+        // Normalize so the top divisor word has its high bit set, which keeps
+        // each quotient word estimate at most two above the true value.
+        int shift = Integer.numberOfLeadingZeros(divisor[n - 1]);
+        int[] v = shiftLeftBits(divisor, shift, 0);
+        int[] u = shiftLeftBits(dividend, shift, 1);
+        long vTop = v[n - 1] & LONG_MASK;
+        long vNext = v[n - 2] & LONG_MASK;
+        int[] quotient = new int[m + 1];
+
+        for (int j = m; j >= 0; j--) {
+            long numerator = ((u[j + n] & LONG_MASK) << 32) | (u[j + n - 1] & LONG_MASK);
+            long estimate;
+            long rest;
+            if ((u[j + n] & LONG_MASK) >= vTop) {
+                estimate = LONG_MASK;
+                rest = numerator - estimate * vTop;
+            } else if (numerator >= 0) {
+                estimate = numerator / vTop;
+                rest = numerator % vTop;
+            } else {
+                estimate = Long.divideUnsigned(numerator, vTop);
+                rest = Long.remainderUnsigned(numerator, vTop);
+            }
+            while (rest <= LONG_MASK && Long.compareUnsigned(estimate * vNext,
+                    (rest << 32) | (u[j + n - 2] & LONG_MASK)) > 0) {
+                estimate--;
+                rest += vTop;
+            }
+
+            // Multiply and subtract the estimate times the divisor.
+            long borrow = 0;
+            for (int i = 0; i < n; i++) {
+                long product = estimate * (v[i] & LONG_MASK);
+                long difference = (u[i + j] & LONG_MASK) - borrow - (product & LONG_MASK);
+                u[i + j] = (int) difference;
+                borrow = (product >>> 32) - (difference >> 32);
+            }
+            long top = (u[j + n] & LONG_MASK) - borrow;
+            u[j + n] = (int) top;
+
+            // The estimate was one too large; add the divisor back.
+            if (top < 0) {
+                estimate--;
+                long carry = 0;
+                for (int i = 0; i < n; i++) {
+                    long sum = (u[i + j] & LONG_MASK) + (v[i] & LONG_MASK) + carry;
+                    u[i + j] = (int) sum;
+                    carry = sum >>> 32;
+                }
+                u[j + n] += (int) carry;
+            }
+            quotient[j] = (int) estimate;
+        }
+
+        int[] remainder = shiftRightBits(Arrays.copyOf(u, n), shift);
+        return new int[][]{stripLeadingZeros(quotient), remainder};
+    }
+
+    /**
+     * Divides one magnitude by another with the recursive algorithm of Burnikel and Ziegler,
+     * which reduces division to multiplications so that it scales with multiply().
+     * Follows RecursiveDivRem and UnbalancedDivision from Brent and Zimmermann,
+     * Modern Computer Arithmetic, section 1.4.
+     *
+     * @param dividend Dividend magnitude
+     * @param divisor  Divisor magnitude
+     * @return Array of the quotient magnitude followed by the remainder magnitude
+     */
+    private static int[][] divideBurnikelZiegler(int[] dividend, int[] divisor) {
+        int shift = Integer.numberOfLeadingZeros(divisor[divisor.length - 1]);
+        BigInteger b = new BigInteger(shiftLeftBits(divisor, shift, 0), false);
+        BigInteger a = new BigInteger(stripLeadingZeros(shiftLeftBits(dividend, shift, 1)), false);
+        int n = b.mag.length;
+        int m = a.mag.length - n;
+
+        BigInteger quotient = ZERO;
+        while (m > n) {
+            BigInteger[] step = recursiveDivideAndRemainder(
+                    new BigInteger(upperWords(a.mag, m - n), false), b);
+            quotient = shiftLeftWords(quotient, n).add(step[0]);
+            a = shiftLeftWords(step[1], m - n).add(new BigInteger(lowerWords(a.mag, m - n), false));
+            m -= n;
+        }
+        BigInteger[] last = recursiveDivideAndRemainder(a, b);
+        quotient = shiftLeftWords(quotient, Math.max(m, 0)).add(last[0]);
+        return new int[][]{quotient.mag, shiftRightBits(last[1].mag, shift)};
+    }
+
+    /**
+     * Recursive step of Burnikel-Ziegler division. The divisor must be normalized,
+     * and the dividend must have at most twice as many words as the divisor.
+     *
+     * @param a Non-negative dividend
+     * @param b Normalized divisor
+     * @return Array of the quotient followed by the remainder
+     */
+    private static BigInteger[] recursiveDivideAndRemainder(BigInteger a, BigInteger b) {
+        int n = b.mag.length;
+        int m = a.mag.length - n;
+        if (m < 2 || n < BURNIKEL_ZIEGLER_THRESHOLD) {
+            int[][] result = divideBasecase(a.mag, b.mag);
+            return new BigInteger[]{new BigInteger(result[0], false), new BigInteger(result[1], false)};
+        }
+        if (n > m + 1) {
+            // The quotient is much shorter than the divisor, so its leading words decide it:
+            // dividing the top 2m + 1 words by the top m + 1 words overestimates it by at most 2.
+            // Without this the recursion below ends in m full-length base case divisions.
+            int dropped = n - m - 1;
+            BigInteger q = recursiveDivideAndRemainder(new BigInteger(upperWords(a.mag, dropped), false),
+                    new BigInteger(upperWords(b.mag, dropped), false))[0];
+            BigInteger remainder = a.subtract(q.multiply(b));
+            while (remainder.negative) {
+                q = q.subtract(ONE);
+                remainder = remainder.add(b);
+            }
+            return new BigInteger[]{q, remainder};
+        }
+        int k = m / 2;
+        BigInteger b1 = new BigInteger(upperWords(b.mag, k), false);
+        BigInteger b0 = new BigInteger(lowerWords(b.mag, k), false);
+
+        BigInteger[] high = recursiveDivideAndRemainder(new BigInteger(upperWords(a.mag, 2 * k), false), b1);
+        BigInteger q1 = high[0];
+        BigInteger partial = shiftLeftWords(high[1], 2 * k)
+                .add(new BigInteger(lowerWords(a.mag, 2 * k), false))
+                .subtract(shiftLeftWords(q1.multiply(b0), k));
+        BigInteger shiftedB = shiftLeftWords(b, k);
+        while (partial.negative) {
+            q1 = q1.subtract(ONE);
+            partial = partial.add(shiftedB);
+        }
+
+        BigInteger[] low = recursiveDivideAndRemainder(new BigInteger(upperWords(partial.mag, k), false), b1);
+        BigInteger q0 = low[0];
+        BigInteger remainder = shiftLeftWords(low[1], k)
+                .add(new BigInteger(lowerWords(partial.mag, k), false))
+                .subtract(q0.multiply(b0));
+        while (remainder.negative) {
+            q0 = q0.subtract(ONE);
+            remainder = remainder.add(b);
+        }
+        return new BigInteger[]{shiftLeftWords(q1, k).add(q0), remainder};
+    }
+
+    /**
+     * Shifts a magnitude left by a number of bits below 32 into a new buffer.
+     *
+     * @param mag        Magnitude to shift
+     * @param bits       Bit count, between 0 and 31
+     * @param extraWords Number of words to add above the shifted value
+     * @return Shifted magnitude of length mag.length + extraWords
+     */
+    private static int[] shiftLeftBits(int[] mag, int bits, int extraWords) {
+        int[] result = new int[mag.length + extraWords];
+        if (bits == 0) {
+            System.arraycopy(mag, 0, result, 0, mag.length);
+            return result;
+        }
+        int carry = 0;
+        for (int i = 0; i < mag.length; i++) {
+            result[i] = (mag[i] << bits) | carry;
+            carry = mag[i] >>> (32 - bits);
+        }
+        if (extraWords > 0) {
+            result[mag.length] = carry;
+        }
+        return result;
+    }
+
+    /**
+     * Shifts a magnitude right by a number of bits below 32.
+     *
+     * @param mag  Magnitude to shift
+     * @param bits Bit count, between 0 and 31
+     * @return Shifted magnitude without leading zero words
+     */
+    private static int[] shiftRightBits(int[] mag, int bits) {
+        if (bits == 0) {
+            return stripLeadingZeros(mag);
+        }
+        int[] result = new int[mag.length];
+        for (int i = 0; i < mag.length; i++) {
+            int next = i + 1 < mag.length ? mag[i + 1] : 0;
+            result[i] = (mag[i] >>> bits) | (next << (32 - bits));
+        }
+        return stripLeadingZeros(result);
+    }
+
+    /**
+     * Multiplies a BigInteger by a power of 2^32.
+     *
+     * @param value BigInteger to shift
+     * @param words Number of zero words to insert at the bottom
+     * @return value * 2^(32 * words)
+     */
+    private static BigInteger shiftLeftWords(BigInteger value, int words) {
+        if (value.mag.length == 0 || words == 0) {
+            return value;
+        }
+        int[] result = new int[value.mag.length + words];
+        System.arraycopy(value.mag, 0, result, words, value.mag.length);
+        return new BigInteger(result, value.negative);
+    }
+
+    /**
+     * Adds two magnitudes.
+     * The result buffer only gets an extra word when the top words can carry out.
+     *
+     * @param magOne Magnitude from this BigInteger
+     * @param magTwo Magnitude from other BigInteger
+     * @return magOne + magTwo
+     */
+    private static int[] addMagnitude(int[] magOne, int[] magTwo) {
+        if (magOne.length < magTwo.length) {
+            int[] swap = magOne;
+            magOne = magTwo;
+            magTwo = swap;
+        }
+        if (magTwo.length == 0) {
+            return magOne;
+        }
+        int length = magOne.length;
+        long top = magOne[length - 1] & LONG_MASK;
+        if (magTwo.length == length) {
+            top += magTwo[length - 1] & LONG_MASK;
+        }
+        if (top + 1 >= (1L << 32)) {
+            int[] result = new int[length + 1];
+            result[length] = addMagnitudes(magOne, length, magTwo, magTwo.length, result);
+            return stripLeadingZeros(result);
+        }
+        int[] result = new int[length];
+        addMagnitudes(magOne, length, magTwo, magTwo.length, result);
+        return result;
+    }
+
+    /**
+     * Adds y to x word by word with carry propagation, writing into a preallocated buffer.
+     * Requires xLen >= yLen. The buffer may be x itself.
+     *
+     * @param x      Words of the longer operand, least significant first
+     * @param xLen   Number of words of x to use
+     * @param y      Words of the shorter operand, least significant first
+     * @param yLen   Number of words of y to use
+     * @param result Buffer of at least xLen words receiving the low words of x + y
+     * @return Carry out of the top word
+     */
+    static int addMagnitudes(int[] x, int xLen, int[] y, int yLen, int[] result) {
+        long sum = 0;
+        int i = 0;
+        for (; i < yLen; i++) {
+            sum = (x[i] & LONG_MASK) + (y[i] & LONG_MASK) + (sum >>> 32);
+            result[i] = (int) sum;
+        }
+        for (; i < xLen && (sum >>> 32) != 0; i++) {
+            sum = (x[i] & LONG_MASK) + 1;
+            result[i] = (int) sum;
+        }
+        if (result != x) {
+            System.arraycopy(x, i, result, i, xLen - i);
+        }
+        return (int) (sum >>> 32);
+    }
+
+    /**
+     * Multiplies two magnitudes, choosing the algorithm by operand length.
+     *
+     * @param magOne Magnitude from this BigInteger
+     * @param magTwo Magnitude from other BigInteger
+     * @return magOne * magTwo
+     */
+    private static int[] multiplyMagnitude(int[] magOne, int[] magTwo) {
+        if (magOne.length == 0 || magTwo.length == 0) {
+            return new int[0];
+        }
+        if (magOne.length < KARATSUBA_THRESHOLD || magTwo.length < KARATSUBA_THRESHOLD) {
+            return multiplySchoolbook(magOne, magTwo);
+        }
+        if (magOne.length < TOOM_COOK_THRESHOLD || magTwo.length < TOOM_COOK_THRESHOLD) {
+            return multiplyKaratsuba(magOne, magTwo);
+        }
+        if (magOne.length >= NTT_THRESHOLD && magTwo.length >= NTT_THRESHOLD) {
+            int length = NumberTheoreticTransform.transformLength(magOne.length, magTwo.length);
+            if (length > 0) {
+                return stripLeadingZeros(NumberTheoreticTransform.multiply(
+                        NumberTheoreticTransform.forward(magOne, length),
+                        NumberTheoreticTransform.forward(magTwo, length),
+                        magOne.length + magTwo.length));
+            }
+        }
+        return multiplyToomCook3(magOne, magTwo);
+    }
+
+    /**
+     * Squares a magnitude, choosing the algorithm by operand length.
+     *
+     * @param mag Magnitude to square
+     * @return mag * mag
+     */
+    private static int[] squareMagnitude(int[] mag) {
+        if (mag.length == 0) {
+            return new int[0];
+        }
+        if (mag.length < KARATSUBA_SQUARE_THRESHOLD) {
+            return squareSchoolbook(mag);
+        }
+        if (mag.length < TOOM_COOK_SQUARE_THRESHOLD) {
+            return squareKaratsuba(mag);
+        }
+        if (mag.length >= NTT_THRESHOLD) {
+            int length = NumberTheoreticTransform.transformLength(mag.length, mag.length);
+            if (length > 0) {
+                NumberTheoreticTransform.Transform transform = NumberTheoreticTransform.forward(mag, length);
+                return stripLeadingZeros(NumberTheoreticTransform.multiply(transform, transform, 2 * mag.length));
+            }
+        }
+        return squareToomCook3(mag);
+    }
+
+    /**
+     * Multiplies two magnitudes word by word.
+     *
+     * @param magOne Magnitude from this BigInteger
+     * @param magTwo Magnitude from other BigInteger
+     * @return magOne * magTwo
+     */
+    private static int[] multiplySchoolbook(int[] magOne, int[] magTwo) {
+        int[] result = new int[magOne.length + magTwo.length];
+        for (int i = 0; i < magOne.length; i++) {
+            long num1 = magOne[i] & LONG_MASK;
+            long carry = 0;
+            for (int j = 0; j < magTwo.length; j++) {
+                long product = num1 * (magTwo[j] & LONG_MASK) + (result[i + j] & LONG_MASK) + carry;
+                result[i + j] = (int) product;
+                carry = product >>> 32;
+            }
+            result[i + magTwo.length] = (int) carry;
+        }
+        return stripLeadingZeros(result);
+    }
+
+    /**
+     * Squares a magnitude word by word.
+     * Each cross product is computed once and doubled, so this does about half
+     * the word multiplications of multiplySchoolbook.
+     *
+     * @param mag Magnitude to square
+     * @return mag * mag
+     */
+    private static int[] squareSchoolbook(int[] mag) {
+        int length = mag.length;
+        int[] result = new int[2 * length];
+        for (int i = 0; i < length; i++) {
+            long num1 = mag[i] & LONG_MASK;
+            long carry = 0;
+            for (int j = i + 1; j < length; j++) {
+                long product = num1 * (mag[j] & LONG_MASK) + (result[i + j] & LONG_MASK) + carry;
+                result[i + j] = (int) product;
+                carry = product >>> 32;
+            }
+            result[i + length] = (int) carry;
+        }
+        for (int i = result.length - 1; i > 0; i--) {
+            result[i] = (result[i] << 1) | (result[i - 1] >>> 31);
+        }
+        result[0] <<= 1;
+        long carry = 0;
+        for (int i = 0; i < length; i++) {
+            long word = mag[i] & LONG_MASK;
+            long square = word * word;
+            long sum = (result[2 * i] & LONG_MASK) + (square & LONG_MASK) + carry;
+            result[2 * i] = (int) sum;
+            sum = (result[2 * i + 1] & LONG_MASK) + (square >>> 32) + (sum >>> 32);
+            result[2 * i + 1] = (int) sum;
+            carry = sum >>> 32;
+        }
+        return stripLeadingZeros(result);
+    }
+
+    /**
+     * Multiplies two magnitudes with Karatsuba's algorithm, which needs three
+     * half-size products instead of four.
+     *
+     * @param magOne Magnitude from this BigInteger
+     * @param magTwo Magnitude from other BigInteger
+     * @return magOne * magTwo
+     */
+    private static int[] multiplyKaratsuba(int[] magOne, int[] magTwo) {
+        int half = (Math.max(magOne.length, magTwo.length) + 1) / 2;
+        int[] lowOne = lowerWords(magOne, half);
+        int[] highOne = upperWords(magOne, half);
+        int[] lowTwo = lowerWords(magTwo, half);
+        int[] highTwo = upperWords(magTwo, half);
+
+        int[] high = multiplyMagnitude(highOne, highTwo);
+        int[] low = multiplyMagnitude(lowOne, lowTwo);
+        int[] middle = multiplyMagnitude(addMagnitude(highOne, lowOne), addMagnitude(highTwo, lowTwo));
+        middle = subtractMagnitude(subtractMagnitude(middle, high), low);
+
+        int[] result = new int[magOne.length + magTwo.length];
+        addShifted(result, low, 0);
+        addShifted(result, middle, half);
+        addShifted(result, high, 2 * half);
+        return stripLeadingZeros(result);
+    }
+
+    /**
+     * Squares a magnitude with Karatsuba's algorithm.
+     *
+     * @param mag Magnitude to square
+     * @return mag * mag
+     */
+    private static int[] squareKaratsuba(int[] mag) {
+        int half = (mag.length + 1) / 2;
+        int[] lowPart = lowerWords(mag, half);
+        int[] highPart = upperWords(mag, half);
+
+        int[] high = squareMagnitude(highPart);
+        int[] low = squareMagnitude(lowPart);
+        int[] middle = squareMagnitude(addMagnitude(highPart, lowPart));
+        middle = subtractMagnitude(subtractMagnitude(middle, high), low);
+
+        int[] result = new int[2 * mag.length];
+        addShifted(result, low, 0);
+        addShifted(result, middle, half);
+        addShifted(result, high, 2 * half);
+        return stripLeadingZeros(result);
+    }
+
+    /**
+     * Multiplies two magnitudes with Toom-Cook 3, which needs five third-size products.
+     * Uses Bodrato's evaluation at 0, 1, -1, 2 and infinity and his interpolation sequence.
+     *
+     * @param magOne Magnitude from this BigInteger
+     * @param magTwo Magnitude from other BigInteger
+     * @return magOne * magTwo
+     */
+    private static int[] multiplyToomCook3(int[] magOne, int[] magTwo) {
+        int k = (Math.max(magOne.length, magTwo.length) + 2) / 3;
+        BigInteger[] a = toomEvaluate(magOne, k);
+        BigInteger[] b = toomEvaluate(magTwo, k);
+        return toomInterpolate(a[0].multiply(b[0]), a[1].multiply(b[1]), a[2].multiply(b[2]),
+                a[3].multiply(b[3]), a[4].multiply(b[4]), k, magOne.length + magTwo.length);
+    }
+
+    /**
+     * Squares a magnitude with Toom-Cook 3.
+     *
+     * @param mag Magnitude to square
+     * @return mag * mag
+     */
+    private static int[] squareToomCook3(int[] mag) {
+        int k = (mag.length + 2) / 3;
+        BigInteger[] a = toomEvaluate(mag, k);
+        return toomInterpolate(a[0].multiply(a[0]), a[1].multiply(a[1]), a[2].multiply(a[2]),
+                a[3].multiply(a[3]), a[4].multiply(a[4]), k, 2 * mag.length);
+    }
+
+    /**
+     * Splits a magnitude into three k-word slices a0 + a1 x + a2 x^2 and evaluates
+     * that polynomial at the Toom-Cook 3 points.
+     *
+     * @param mag Magnitude to evaluate
+     * @param k   Slice length in words
+     * @return Values at 0, 1, -1, 2 and infinity, in that order
+     */
+    private static BigInteger[] toomEvaluate(int[] mag, int k) {
+        BigInteger a0 = toomSlice(mag, k, 0);
+        BigInteger a1 = toomSlice(mag, k, 1);
+        BigInteger a2 = toomSlice(mag, k, 2);
+
+        BigInteger evenPart = a2.add(a0);
+        BigInteger atMinusOne = evenPart.subtract(a1);
+        BigInteger atOne = evenPart.add(a1);
+        BigInteger atTwo = atOne.add(a2);
+        atTwo = atTwo.add(atTwo).subtract(a0);
+        return new BigInteger[]{a0, atOne, atMinusOne, atTwo, a2};
+    }
+
+    /**
+     * Recovers the Toom-Cook 3 product from its five point values.
+     *
+     * @param v0           Value at 0
+     * @param v1           Value at 1
+     * @param vm1          Value at -1
+     * @param v2           Value at 2
+     * @param vinf         Value at infinity
+     * @param k            Slice length in words
+     * @param resultLength Upper bound on the product length in words
+     * @return The product magnitude
+     */
+    private static int[] toomInterpolate(BigInteger v0, BigInteger v1, BigInteger vm1,
+                                         BigInteger v2, BigInteger vinf, int k, int resultLength) {
+        BigInteger t2 = exactDivideBy3(v2.subtract(vm1));
+        BigInteger tm1 = exactHalf(v1.subtract(vm1));
+        BigInteger t1 = v1.subtract(v0);
+        t2 = exactHalf(t2.subtract(t1));
+        t1 = t1.subtract(tm1).subtract(vinf);
+        t2 = t2.subtract(vinf.add(vinf));
+        tm1 = tm1.subtract(t2);
+
+        int[] result = new int[resultLength];
+        addShifted(result, v0.mag, 0);
+        addShifted(result, tm1.mag, k);
+        addShifted(result, t1.mag, 2 * k);
+        addShifted(result, t2.mag, 3 * k);
+        addShifted(result, vinf.mag, 4 * k);
+        return stripLeadingZeros(result);
+    }
 
     /**
-     * Stores this BigInteger's number as a String.
+     * Gets one k-word slice of a magnitude for Toom-Cook 3.
+     *
+     * @param mag   Magnitude to slice
+     * @param k     Slice length in words
+     * @param index Slice index, 0 being the least significant
+     * @return The slice as a non-negative BigInteger
      */
-    private final String numericString;
+    private static BigInteger toomSlice(int[] mag, int k, int index) {
+        int from = Math.min(mag.length, index * k);
+        int to = index == 2 ? mag.length : Math.min(mag.length, from + k);
+        return new BigInteger(stripLeadingZeros(Arrays.copyOfRange(mag, from, to)), false);
+    }
+
     /**
-     * True if negative. False if positive.
+     * Divides a BigInteger known to be a multiple of 3 by 3.
+     *
+     * @param value Multiple of 3
+     * @return value / 3
      */
-    private boolean negative = false;
+    private static BigInteger exactDivideBy3(BigInteger value) {
+        int[] result = new int[value.mag.length];
+        long remainder = 0;
+        for (int i = result.length - 1; i >= 0; i--) {
+            long dividend = (remainder << 32) | (value.mag[i] & LONG_MASK);
+            result[i] = (int) (dividend / 3);
+            remainder = dividend % 3;
+        }
+        return new BigInteger(stripLeadingZeros(result), value.negative);
+    }
 
     /**
-     * Initializes a BigInteger with a value of zero.
+     * Divides an even BigInteger by 2.
+     *
+     * @param value Even value
+     * @return value / 2
      */
-    public BigInteger() {
-        this(0);
+    private static BigInteger exactHalf(BigInteger value) {
+        int[] result = new int[value.mag.length];
+        for (int i = 0; i < result.length - 1; i++) {
+            result[i] = (value.mag[i] >>> 1) | (value.mag[i + 1] << 31);
+        }
+        if (result.length > 0) {
+            result[result.length - 1] = value.mag[result.length - 1] >>> 1;
+        }
+        return new BigInteger(stripLeadingZeros(result), value.negative);
     }
 
     /**
-     * Initializes a BigInteger with a specified String value.
+     * Gets the low words of a magnitude.
      *
-     * @param value Initial value.
+     * @param mag   Magnitude
+     * @param count Number of words to keep
+     * @return mag mod 2^(32 * count)
      */
-    public BigInteger(String value) {
-        if (value.startsWith("-")) {
-            value = value.substring(1);
-            negative = true;
+    private static int[] lowerWords(int[] mag, int count) {
+        return count >= mag.length ? mag : stripLeadingZeros(Arrays.copyOf(mag, count));
+    }
+
+    /**
+     * Gets the high words of a magnitude.
+     *
+     * @param mag   Magnitude
+     * @param count Number of low words to drop
+     * @return mag / 2^(32 * count)
+     */
+    private static int[] upperWords(int[] mag, int count) {
+        return count >= mag.length ? new int[0] : Arrays.copyOfRange(mag, count, mag.length);
+    }
+
+    /**
+     * Adds a magnitude into a buffer at a word offset, propagating the carry upward.
+     * The buffer must be large enough to hold the sum.
+     *
+     * @param target Buffer to add into
+     * @param value  Magnitude to add
+     * @param offset Word offset at which value is added
+     */
+    private static void addShifted(int[] target, int[] value, int offset) {
+        long carry = 0;
+        int i = 0;
+        for (; i < value.length; i++) {
+            long sum = (target[offset + i] & LONG_MASK) + (value[i] & LONG_MASK) + carry;
+            target[offset + i] = (int) sum;
+            carry = sum >>> 32;
         }
-        this.numericString = trim(value);
-        if(!numericString.matches("[0-9]+")) {
-            throw new NumberFormatException("Not an integer.");
+        for (int j = offset + i; carry != 0; j++) {
+            long sum = (target[j] & LONG_MASK) + carry;
+            target[j] = (int) sum;
+            carry = sum >>> 32;
         }
     }
 
     /**
-     * Initializes a BigInteger with a specified value.
+     * Removes the leading zero words off a magnitude.
      *
-     * @param value Initial value.
+     * @param input Magnitude words, least significant first
+     * @return The magnitude without leading zero words
      */
-    public BigInteger(int value) {
-        this(value + "");
+    static int[] stripLeadingZeros(int[] input) {
+        int length = input.length;
+        while (length > 0 && input[length - 1] == 0) {
+            length--;
+        }
+        return length == input.length ? input : Arrays.copyOf(input, length);
     }
 
     /**
-     * Makes a negative version of this BigInteger
+     * Converts a String of decimal digits into a magnitude.
+     * Long strings are split in two, converted separately and recombined as
+     * high * 10^d + low, using cached powers of ten and the fast multiply tiers.
      *
-     * @return  -(this) as a BigInteger
+     * @param digits Decimal digits without a sign
+     * @return Magnitude words, least significant first
      */
-    public BigInteger makeNegative() {
-        if(!negative) {
-            return new BigInteger("-" + numericString);
-        } else {
-            return new BigInteger(numericString);
+    private static int[] parseMagnitude(String digits) {
+        return parseMagnitude(digits, 0, digits.length());
+    }
+
+    /**
+     * Converts a range of a String of decimal digits into a magnitude.
+     *
+     * @param digits Decimal digits without a sign
+     * @param from   Index of the first digit
+     * @param to     Index after the last digit
+     * @return Magnitude words, least significant first
+     */
+    private static int[] parseMagnitude(String digits, int from, int to) {
+        int length = to - from;
+        if (length <= DECIMAL_CONVERSION_THRESHOLD * DECIMAL_CHUNK_DIGITS) {
+            return parseMagnitudeBasecase(digits, from, to);
+        }
+        int k = 0;
+        while ((long) DECIMAL_CHUNK_DIGITS << (k + 1) < length) {
+            k++;
+        }
+        int split = to - (DECIMAL_CHUNK_DIGITS << k);
+        int[] high = parseMagnitude(digits, from, split);
+        int[] low = parseMagnitude(digits, split, to);
+        if (high.length == 0) {
+            return low;
         }
+        int[] scaled = multiplyMagnitude(high, decimalPower(k));
+        return low.length == 0 ? scaled : addMagnitude(scaled, low);
     }
 
     /**
-     * Adds this BigInteger to another.
+     * Converts a range of a String of decimal digits into a magnitude in quadratic time.
      *
-     * @param other Another BigInteger to add to
-     * @return Addition result
+     * @param digits Decimal digits without a sign
+     * @param from   Index of the first digit
+     * @param to     Index after the last digit
+     * @return Magnitude words, least significant first
      */
-    public BigInteger add(BigInteger other) {
-        int maxLen = Math.max(numericString.length(), other.numericString.length());
-        String paddedNumericStringOne = pad(numericString, maxLen);
-        String paddedNumericStringTwo = pad(other.numericString, maxLen);
+    private static int[] parseMagnitudeBasecase(String digits, int from, int to) {
+        int length = to - from;
+        // Each decimal digit needs at most log2(10) < 3402/1024 bits.
+        int[] result = new int[(int) ((((long) length * 3402) >>> 10) / 32) + 1];
+        int used = 0;
+        int position = from;
+        int chunkLength = length % DECIMAL_CHUNK_DIGITS;
+        if (chunkLength == 0) {
+            chunkLength = DECIMAL_CHUNK_DIGITS;
+        }
+        while (position < to) {
+            int chunk = 0;
+            for (int i = position; i < position + chunkLength; i++) {
+                char c = digits.charAt(i);
+                if (c < '0' || c > '9') {
+                    throw new NumberFormatException("Not an integer.");
+                }
+                chunk = chunk * 10 + (c - '0');
+            }
+            long carry = chunk;
+            for (int i = 0; i < used; i++) {
+                long product = (result[i] & LONG_MASK) * DECIMAL_CHUNK + carry;
+                result[i] = (int) product;
+                carry = product >>> 32;
+            }
+            if (carry != 0) {
+                result[used++] = (int) carry;
+            }
+            position += chunkLength;
+            chunkLength = DECIMAL_CHUNK_DIGITS;
+        }
+        return stripLeadingZeros(result);
+    }
+
+    /**
+     * A divisor with its precomputed reciprocal, for dividing many values by the same number.
+     * Each division then costs two multiplications (Barrett reduction) instead of a full
+     * division. The reciprocal itself is found by Newton iteration, which also only multiplies.
+     */
+    private static final class Reciprocal {
+
+        /**
+         * Bits the divisor is shifted left by so that its top bit is set.
+         */
+        private final int shift;
+        /**
+         * The normalized divisor.
+         */
+        private final int[] divisor;
+        /**
+         * floor(2^(64n) / divisor), where n is the divisor length in words.
+         */
+        private final int[] reciprocal;
+
+        Reciprocal(int[] divisor) {
+            this.shift = Integer.numberOfLeadingZeros(divisor[divisor.length - 1]);
+            this.divisor = shiftLeftMagnitude(divisor, shift);
+            this.reciprocal = reciprocal(this.divisor);
+        }
+
+        /**
+         * Divides a magnitude below the square of the divisor.
+         *
+         * @param dividend Magnitude below divisor^2
+         * @return Array of the quotient magnitude followed by the remainder magnitude
+         */
+        int[][] divide(int[] dividend) {
+            int n = divisor.length;
+            int[] scaled = shiftLeftMagnitude(dividend, shift);
+            int[] quotient = upperWords(multiplyMagnitude(upperWords(scaled, n - 1), reciprocal), n + 1);
+            int[] remainder = subtractMagnitude(scaled, multiplyMagnitude(quotient, divisor));
+            while (iterativeCompare(remainder, divisor) >= 0) {
+                remainder = subtractMagnitude(remainder, divisor);
+                quotient = addMagnitude(quotient, new int[]{1});
+            }
+            return new int[][]{quotient, shiftRightMagnitude(remainder, shift)};
+        }
 
-        if (!negative && !other.negative) {
-            return iterativeAdd(paddedNumericStringOne, paddedNumericStringTwo);
-        } else if (!negative && other.negative) {
-            return iterativeSubtract(paddedNumericStringOne, paddedNumericStringTwo);
-        } else if (negative && !other.negative) {
-            return iterativeSubtract(paddedNumericStringOne, paddedNumericStringTwo).makeNegative();
-        } else { // (negative && other.negative)
-            return iterativeAdd(paddedNumericStringOne, paddedNumericStringTwo).makeNegative();
+        /**
+         * Computes floor(2^(64n) / d) for an n-word magnitude d with its top bit set.
+         * The reciprocal of the top half of d gives half the precision, and one Newton
+         * step x + x(2^(64n) - dx) / 2^(64n) doubles it, leaving an error of a few units
+         * that the final correction removes.
+         *
+         * @param d Normalized magnitude
+         * @return The reciprocal, n + 1 words at most
+         */
+        private static int[] reciprocal(int[] d) {
+            int n = d.length;
+            int[] power = new int[2 * n + 1];
+            power[2 * n] = 1;
+            if (n <= BURNIKEL_ZIEGLER_THRESHOLD) {
+                return divideMagnitude(power, d)[0];
+            }
+            int low = n / 2;
+            BigInteger divisor = new BigInteger(d, false);
+            BigInteger x = shiftLeftWords(new BigInteger(reciprocal(upperWords(d, low)), false), low);
+            BigInteger error = new BigInteger(power, false).subtract(divisor.multiply(x));
+            BigInteger product = x.multiply(error);
+            BigInteger step = new BigInteger(upperWords(product.mag, 2 * n), product.negative);
+            x = x.add(step);
+            error = error.subtract(divisor.multiply(step));
+            while (error.negative) {
+                x = x.subtract(ONE);
+                error = error.add(divisor);
+            }
+            while (!error.smallerThan(divisor)) {
+                x = x.add(ONE);
+                error = error.subtract(divisor);
+            }
+            return x.mag;
         }
     }
 
     /**
-     * Subtracts another BigInteger from this one.
+     * Gets 10^(9 * 2^k) as a magnitude, computing and caching it on first use.
      *
-     * @param other Another BigInteger to subtract
-     * @return Subtraction result
+     * @param k Index of the power
+     * @return The power of ten, which callers must not modify
      */
-    public BigInteger subtract(BigInteger other) {
-        int maxLen = Math.max(numericString.length(), other.numericString.length());
-        String paddedNumericStringOne = pad(numericString, maxLen);
-        String paddedNumericStringTwo = pad(other.numericString, maxLen);
-
-        BigInteger thisForCompare = new BigInteger(paddedNumericStringOne);
-        BigInteger otherForCompare = new BigInteger(paddedNumericStringTwo);
-
-        if(this.negative && other.negative) {
-            return thisForCompare.subtract(otherForCompare).makeNegative();
-        } else if(this.negative && !other.negative) {
-            return thisForCompare.add(otherForCompare).makeNegative();
-        } else if(!this.negative && other.negative) {
-            return thisForCompare.add(otherForCompare);
-        } else {
-            return iterativeSubtract(paddedNumericStringOne, paddedNumericStringTwo);
+    private static int[] decimalPower(int k) {
+        int[][] powers = decimalPowers;
+        if (k < powers.length) {
+            return powers[k];
+        }
+        synchronized (BigInteger.class) {
+            powers = decimalPowers;
+            if (k >= powers.length) {
+                int[][] grown = Arrays.copyOf(powers, k + 1);
+                for (int i = powers.length; i <= k; i++) {
+                    grown[i] = squareMagnitude(grown[i - 1]);
+                }
+                decimalPowers = grown;
+                powers = grown;
+            }
+            return powers[k];
         }
     }
 
     /**
-     * Multiplies this BigInteger with another.
+     * Gets 10^(9 * 2^k) prepared for repeated division, computing and caching it on first use.
      *
-     * @param other Another BigInteger to multiply with
-     * @return Multiplication result
+     * @param k Index of the power
+     * @return The power of ten with its reciprocal
      */
-    public BigInteger multiply(BigInteger other) {
-        int maxLen = Math.max(numericString.length(), other.numericString.length());
-        String paddedNumericStringOne = pad(numericString, maxLen);
-        String paddedNumericStringTwo = pad(other.numericString, maxLen);
+    private static Reciprocal decimalReciprocal(int k) {
+        Reciprocal[] reciprocals = decimalReciprocals;
+        if (k < reciprocals.length && reciprocals[k] != null) {
+            return reciprocals[k];
+        }
+        Reciprocal reciprocal = new Reciprocal(decimalPower(k));
+        synchronized (BigInteger.class) {
+            reciprocals = decimalReciprocals;
+            if (k >= reciprocals.length) {
+                reciprocals = Arrays.copyOf(reciprocals, k + 1);
+            } else if (reciprocals[k] != null) {
+                return reciprocals[k];
+            } else {
+                reciprocals = reciprocals.clone();
+            }
+            reciprocals[k] = reciprocal;
+            decimalReciprocals = reciprocals;
+            return reciprocal;
+        }
+    }
 
-        BigInteger result = iterativeMultiply(paddedNumericStringOne,paddedNumericStringTwo);
-        if(this.negative != other.negative ) {
-            result = result.makeNegative();
+    /**
+     * Converts a magnitude into a String of decimal digits.
+     *
+     * @param mag Magnitude words, least significant first
+     * @return Decimal digits without a sign
+     */
+    private static String toDecimalString(int[] mag) {
+        if (mag.length == 0) {
+            return "0";
         }
-        return result;
+        StringBuilder builder = new StringBuilder((int) (mag.length * 9.64) + 1);
+        appendDecimal(builder, mag, decimalLevel(mag), 0);
+        return builder.toString();
     }
 
     /**
-     * Gives an ESTIMATE for this / other
+     * Finds the level k of a non-zero magnitude for decimal conversion.
      *
-     * @param other BigInt to divide by
-     * @return Division estimate
+     * @param mag Non-zero magnitude words, least significant first
+     * @return The smallest k with mag below 10^(9 * 2^(k + 1))
      */
-    public BigInteger divide(BigInteger other) {
-        BigInteger result = divisonEstimate(numericString, other.numericString);
-        if(this.negative != other.negative ) {
-            result = result.makeNegative();
+    private static int decimalLevel(int[] mag) {
+        int k = 0;
+        while (iterativeCompare(mag, decimalPower(k + 1)) >= 0) {
+            k++;
         }
-        return result;
+        return k;
     }
 
     /**
-     * Brings this BigInteger to the power of the other BigInteger
+     * Divides a magnitude below 10^(9 * 2^(k + 1)) by the cached 10^(9 * 2^k).
      *
-     * @param other BigInt to bring to power
-     * @return Exponent result
+     * @param mag Magnitude words, least significant first
+     * @param k   Index of the power of ten to divide by
+     * @return Array of the quotient magnitude followed by the remainder magnitude
      */
-    public BigInteger power(BigInteger other) {
-        if(other.isZero()) {
-            return new BigInteger("1");
+    private static int[][] divideByDecimalPower(int[] mag, int k) {
+        int[] power = decimalPower(k);
+        return power.length < DECIMAL_RECIPROCAL_THRESHOLD
+                ? divideMagnitude(mag, power)
+                : decimalReciprocal(k).divide(mag);
+    }
+
+    /**
+     * Appends the decimal digits of a magnitude below 10^(9 * 2^(k + 1)). The magnitude is
+     * divided by the cached 10^(9 * 2^k), and quotient and remainder, both below that power,
+     * are converted recursively, the remainder padded to the full width of the power.
+     *
+     * @param builder Builder to append to
+     * @param mag     Magnitude words, least significant first
+     * @param k       Index of the power of ten to divide by
+     * @param width   Exact number of digits to append, padding with leading zeros,
+     *                or 0 to append the digits without padding
+     */
+    private static void appendDecimal(StringBuilder builder, int[] mag, int k, int width) {
+        if (k == 0 || mag.length < DECIMAL_CONVERSION_THRESHOLD) {
+            appendDecimalBasecase(builder, mag, width);
+            return;
         }
-        if(other.largerThanZero()) {
-            BigInteger result = doPower(numericString, other.numericString);
-            if(negative) {
-                if(!other.isEven()) {
-                    result = result.makeNegative();
-                }
-            }
-            return result;
+        if (mag.length < decimalPower(k).length) {
+            // Already below the power, so the quotient would be zero
+            appendDecimal(builder, mag, k - 1, width);
+            return;
+        }
+        int lowWidth = DECIMAL_CHUNK_DIGITS << k;
+        int[][] parts = divideByDecimalPower(mag, k);
+        if (parts[0].length > 0 || width > 0) {
+            appendDecimal(builder, parts[0], k - 1, width == 0 ? 0 : width - lowWidth);
+            appendDecimal(builder, parts[1], k - 1, lowWidth);
         } else {
-            // We don't support decimals so this rounds to zero.
-            return new BigInteger("0");
+            appendDecimal(builder, parts[1], k - 1, 0);
         }
     }
 
     /**
-     * Pads this String with leading zeros until it is as long as len
+     * Writes the decimal digits of a magnitude below 10^(9 * 2^(k + 1)) the way
+     * appendDecimal() appends them, but hands each block of digits to the writer as soon
+     * as it is converted, so the digits of the whole number are never held at once.
      *
-     * @param origin Original string
-     * @param len    Desired length
-     * @return String of desired length
+     * @param writer Writer to write to
+     * @param mag    Magnitude words, least significant first
+     * @param k      Index of the power of ten to divide by
+     * @param width  Exact number of digits to write, padding with leading zeros,
+     *               or 0 to write the digits without padding
+     * @throws IOException If the writer fails
      */
-    private String pad(String origin, int len) {
-        while (origin.length() < len) {
-            origin = "0" + origin;
+    private static void writeDecimal(Writer writer, int[] mag, int k, int width) throws IOException {
+        if (k <= DECIMAL_STREAM_LEVEL) {
+            StringBuilder builder = new StringBuilder(Math.max(width, (int) (mag.length * 9.64) + 1));
+            appendDecimal(builder, mag, k, width);
+            writer.append(builder);
+            return;
+        }
+        if (mag.length < decimalPower(k).length) {
+            writeDecimal(writer, mag, k - 1, width);
+            return;
+        }
+        int lowWidth = DECIMAL_CHUNK_DIGITS << k;
+        int[][] parts = divideByDecimalPower(mag, k);
+        if (parts[0].length > 0 || width > 0) {
+            writeDecimal(writer, parts[0], k - 1, width == 0 ? 0 : width - lowWidth);
+            writeDecimal(writer, parts[1], k - 1, lowWidth);
+        } else {
+            writeDecimal(writer, parts[1], k - 1, 0);
         }
-        return origin;
     }
 
     /**
-     * Performs exponent operation/
+     * Reads decimal digits up to the end of a stream into a magnitude, one block of
+     * 9 * 2^DECIMAL_STREAM_LEVEL digits at a time. Converted blocks are kept on a stack
+     * where, like the digits of a binary counter, two values of the same level are
+     * merged into one of the next level as high * 10^d + low. Every merge is then between
+     * operands of equal size, where the fast multiply tiers apply.
      *
-     * @param numericStringOne Padded numeric String from this BigInteger
-     * @param numericStringTwo Padded numeric String from other BigInteger
-     * @return Result of power operation
+     * @param reader Reader positioned at the first digit
+     * @param buffer Buffer for one block, holding the first filled characters already read
+     * @param filled Number of characters already in the buffer
+     * @return Magnitude words, least significant first
+     * @throws IOException           If the reader fails
+     * @throws NumberFormatException If a character is not a decimal digit or trailing whitespace
      */
-    private BigInteger doPower(String numericStringOne, String numericStringTwo) {
-        BigInteger storedValue = new BigInteger(numericStringOne);
-        BigInteger bigIntegerOne = new BigInteger("1");
-        BigInteger bigIntegerTwo = new BigInteger(numericStringTwo);
-        while (!bigIntegerTwo.toString().equals("0")) {
-            bigIntegerOne = bigIntegerOne.multiply(storedValue);
-            bigIntegerTwo = bigIntegerTwo.subtract(new BigInteger("1"));
+    private static int[] parseMagnitude(Reader reader, char[] buffer, int filled) throws IOException {
+        int[][] values = new int[32][];
+        int[] levels = new int[32];
+        int count = 0;
+        while (true) {
+            filled = digitsBeforeTrailingWhitespace(reader, buffer, fill(reader, buffer, filled));
+            int[] block = parseMagnitude(new String(buffer, 0, filled));
+            if (filled < buffer.length) {
+                // Last block: fold the stack from the top, scaling each value by the digits below it
+                int[] result = block;
+                int[] scale = TEN.power(new BigInteger(filled)).mag;
+                for (int i = count - 1; i >= 0; i--) {
+                    result = addDecimalBlocks(values[i], scale, result);
+                    if (i > 0) {
+                        scale = multiplyMagnitude(scale, decimalPower(DECIMAL_STREAM_LEVEL + levels[i]));
+                    }
+                }
+                return result;
+            }
+            int level = 0;
+            while (count > 0 && levels[count - 1] == level) {
+                block = addDecimalBlocks(values[--count], decimalPower(DECIMAL_STREAM_LEVEL + level), block);
+                values[count] = null;
+                level++;
+            }
+            if (count == values.length) {
+                values = Arrays.copyOf(values, 2 * count);
+                levels = Arrays.copyOf(levels, 2 * count);
+            }
+            values[count] = block;
+            levels[count++] = level;
+            filled = 0;
         }
-        return bigIntegerOne;
     }
 
     /**
-     * Loops over the numeric digits and subtracts them.
+     * Finds where the digits of a block end. Whitespace, such as the line terminator
+     * that ends most text files, may follow the last digit up to the end of the stream.
+     * When it does, the rest of the stream is read and checked, reusing the buffer
+     * past the digits.
      *
-     * @param numericStringOne Padded numeric String from this BigInteger
-     * @param numericStringTwo Padded numeric String from other BigInteger
-     * @return Result of subtraction
+     * @param reader Reader positioned after the block
+     * @param buffer Block of characters read
+     * @param filled Number of characters in the buffer
+     * @return Number of leading characters of the block that are decimal digits
+     * @throws IOException           If the reader fails
+     * @throws NumberFormatException If anything other than whitespace follows the digits
      */
-    private BigInteger iterativeSubtract(String numericStringOne, String numericStringTwo) {
-        BigInteger thisForCompare = new BigInteger(numericStringOne);
-        BigInteger otherForCompare = new BigInteger(numericStringTwo);
-
-        if (otherForCompare.largerThan(thisForCompare)) {
-            return iterativeSubtract(numericStringTwo, numericStringOne).makeNegative();
-        } else if(thisForCompare.equals(otherForCompare)) { // this.equals(other)
-            return new BigInteger("0");
+    private static int digitsBeforeTrailingWhitespace(Reader reader, char[] buffer, int filled) throws IOException {
+        int digits = 0;
+        while (digits < filled && buffer[digits] >= '0' && buffer[digits] <= '9') {
+            digits++;
         }
-
-        String result = "";
-        boolean carried = false;
-        for (int i = numericStringOne.length() - 1; i >= 0; i--) {
-            int num1 = Integer.parseInt(numericStringOne.charAt(i) + "");
-            int num2 = Integer.parseInt(numericStringTwo.charAt(i) + "");
-            if (carried) {
-                num1--;
-                carried = false;
+        for (int read = filled - digits; read >= 0; read = reader.read(buffer, digits, buffer.length - digits)) {
+            for (int i = digits; i < digits + read; i++) {
+                if (!Character.isWhitespace(buffer[i])) {
+                    throw new NumberFormatException("Not an integer.");
+                }
             }
-            if (num1 < num2) {
-                num1 += 10;
-                carried = true;
+            if (digits == filled) {
+                break;
             }
-            int subtractResult = num1 - num2;
-            result = subtractResult + result;
         }
-        return new BigInteger(result);
+        return digits;
     }
 
     /**
-     * Gets division estimate of two numeric Strings
+     * Computes high * power + low for two magnitudes converted from adjacent runs of digits.
      *
-     * @param numericStringOne Padded numeric String from this BigInteger
-     * @param numericStringTwo Padded numeric String from other BigInteger
-     * @return Result of math operation
+     * @param high  Magnitude of the leading digits
+     * @param power Magnitude of 10 to the number of trailing digits
+     * @param low   Magnitude of the trailing digits
+     * @return high * power + low
      */
-    private BigInteger divisonEstimate(String numericStringOne, String numericStringTwo) {
-        // Convert both big integers into scientific-notation-like form
-        // i.e. 21465 = 2.1465 x 10 ^ 4
-        double numericSegmentOne = getDecimalSegment(numericStringOne);
-        int exponentOne = getExponent(numericStringOne);
+    private static int[] addDecimalBlocks(int[] high, int[] power, int[] low) {
+        if (high.length == 0) {
+            return low;
+        }
+        int[] scaled = multiplyMagnitude(high, power);
+        return low.length == 0 ? scaled : addMagnitude(scaled, low);
+    }
 
-        double numericSegmentTwo = getDecimalSegment(numericStringTwo);
-        int exponentTwo = getExponent(numericStringTwo);
+    /**
+     * Reads from a stream until a buffer is full or the stream ends.
+     *
+     * @param reader Reader to read from
+     * @param buffer Buffer to fill
+     * @param filled Number of characters already in the buffer
+     * @return Number of characters in the buffer, below its length only at the end of the stream
+     * @throws IOException If the reader fails
+     */
+    private static int fill(Reader reader, char[] buffer, int filled) throws IOException {
+        while (filled < buffer.length) {
+            int read = reader.read(buffer, filled, buffer.length - filled);
+            if (read < 0) {
+                break;
+            }
+            filled += read;
+        }
+        return filled;
+    }
 
-        double dividedPart = numericSegmentOne / numericSegmentTwo;
-        int exponentPart = exponentOne - exponentTwo;
-        if (exponentPart < 0) {
-            // Other BigInt was bigger than this one, so return zero.
-            return new BigInteger("0");
+    /**
+     * Appends the decimal digits of a magnitude in quadratic time.
+     *
+     * @param builder Builder to append to
+     * @param mag     Magnitude words, least significant first
+     * @param width   Exact number of digits to append, padding with leading zeros,
+     *                or 0 to append the digits without padding
+     */
+    private static void appendDecimalBasecase(StringBuilder builder, int[] mag, int width) {
+        int[] work = mag.clone();
+        int used = work.length;
+        int[] chunks = new int[(int) (mag.length * 32L / 29) + 1];
+        int chunkCount = 0;
+        while (used > 0) {
+            long remainder = 0;
+            for (int i = used - 1; i >= 0; i--) {
+                long dividend = (remainder << 32) | (work[i] & LONG_MASK);
+                work[i] = (int) (dividend / DECIMAL_CHUNK);
+                remainder = dividend % DECIMAL_CHUNK;
+            }
+            chunks[chunkCount++] = (int) remainder;
+            while (used > 0 && work[used - 1] == 0) {
+                used--;
+            }
         }
+        String top = chunkCount == 0 ? (width == 0 ? "0" : "") : Integer.toString(chunks[chunkCount - 1]);
+        int digits = top.length() + Math.max(chunkCount - 1, 0) * DECIMAL_CHUNK_DIGITS;
+        for (int padding = digits; padding < width; padding++) {
+            builder.append('0');
+        }
+        builder.append(top);
+        for (int i = chunkCount - 2; i >= 0; i--) {
+            String chunk = Integer.toString(chunks[i]);
+            for (int padding = chunk.length(); padding < DECIMAL_CHUNK_DIGITS; padding++) {
+                builder.append('0');
+            }
+            builder.append(chunk);
+        }
+    }
 
-        String convertedDividedPart = (dividedPart + "").replace(".", "");
-        while (convertedDividedPart.length() <= exponentPart + 1) {
-            convertedDividedPart += "0";
+    /**
+     * Returns the String representation of this BigInteger.
+     *
+     * @return String representation of this BigInteger.
+     */
+    @Override
+    public String toString() {
+        String string = cachedString();
+        if (string == null) {
+            string = negative ? "-" + toDecimalString(mag) : toDecimalString(mag);
+            decimalString = new SoftReference<>(string);
         }
-        String appliedExponentPart = convertedDividedPart.substring(0, exponentPart + 1);
+        return string;
+    }
 
-        return new BigInteger(appliedExponentPart);
+    /**
+     * Gets the result of an earlier toString() call if it is still cached.
+     *
+     * @return The decimal string, or null if it has not been computed or was collected
+     */
+    private String cachedString() {
+        SoftReference<String> reference = decimalString;
+        return reference == null ? null : reference.get();
     }
 
     /**
-     * Gets the (Y) x 10 ^ X part of a BigInteger
+     * Reads a BigInteger from a stream of decimal digits, in the same format as
+     * the String constructor, up to the end of the stream. Whitespace, such as a final
+     * line terminator, may follow the digits.
+     * The digits are read and converted block by block, so the text is never held
+     * in memory as a whole.
      *
-     * @param numericString Numeric string to get decimal part from
-     * @return Decimal part of numeric string
+     * @param reader Reader positioned at the optional minus sign
+     * @return The value read
+     * @throws IOException           If the reader fails
+     * @throws NumberFormatException If a character other than a leading minus sign or trailing whitespace
+     *                               is not a decimal digit
      */
-    private double getDecimalSegment(String numericString) {
-        numericString = trim(numericString);
-        return Double.parseDouble(numericString.charAt(0) + "." + numericString.substring(1));
+    public static BigInteger parse(Reader reader) throws IOException {
+        char[] buffer = new char[DECIMAL_CHUNK_DIGITS << DECIMAL_STREAM_LEVEL];
+        int filled = fill(reader, buffer, 0);
+        boolean isNegative = filled > 0 && buffer[0] == '-';
+        if (isNegative) {
+            System.arraycopy(buffer, 1, buffer, 0, --filled);
+        }
+        return new BigInteger(parseMagnitude(reader, buffer, filled), isNegative);
     }
 
     /**
-     * Gets the Y x 10 ^ (X) part of a BigInteger
+     * Reads a BigInteger from a stream of ASCII decimal digits up to the end of the stream.
+     * The stream is not closed.
      *
-     * @param numericString Numeric string to get exponent part from
-     * @return Exponent part of numeric string
+     * @param in Stream positioned at the optional minus sign
+     * @return The value read
+     * @throws IOException           If the stream fails
+     * @throws NumberFormatException If a byte other than a leading minus sign or trailing whitespace
+     *                               is not a decimal digit
+     * @see #parse(Reader)
      */
-    private int getExponent(String numericString) {
-        numericString = trim(numericString);
-        return numericString.length() - 1;
+    public static BigInteger parse(InputStream in) throws IOException {
+        return parse(new InputStreamReader(in, StandardCharsets.US_ASCII));
     }
 
     /**
-     * Iterates over String and adds together.
+     * Writes the decimal representation of this BigInteger, the same characters
+     * toString() returns, to a stream.
+     * The digits are produced by the same divide and conquer conversion as toString(),
+     * but handed to the writer block by block instead of being collected into one String.
+     * The writer is neither flushed nor closed.
      *
-     * @param numericStringOne Padded numeric String from this BigInteger
-     * @param numericStringTwo Padded numeric String from other BigInteger
-     * @return Result of math operation
+     * @param writer Writer to write to
+     * @throws IOException If the writer fails
      */
-    private BigInteger iterativeAdd(String numericStringOne, String numericStringTwo) {
-        String result = "";
-        int carryOver = 0;
-        for (int i = numericStringOne.length() - 1; i >= 0; i--) {
-            int num1 = Integer.parseInt(numericStringOne.charAt(i) + "");
-            int num2 = Integer.parseInt(numericStringTwo.charAt(i) + "");
-            int addResult = num1 + num2 + carryOver;
-            carryOver = 0;
-            if (addResult >= 10) {
-                addResult -= 10;
-                carryOver = 1;
-            }
-            result = addResult + result;
+    public void writeDecimal(Writer writer) throws IOException {
+        String string = cachedString();
+        if (string != null) {
+            writer.write(string);
+            return;
+        }
+        if (mag.length == 0) {
+            writer.write('0');
+            return;
         }
-        if (carryOver == 1) {
-            result = "1" + result;
+        if (negative) {
+            writer.write('-');
         }
-        return new BigInteger(result);
+        writeDecimal(writer, mag, decimalLevel(mag), 0);
     }
 
     /**
-     * Iterates over String and multiplies together.
+     * Writes the decimal representation of this BigInteger to a stream as ASCII.
+     * The stream is flushed but not closed.
      *
-     * @param numericStringOne Padded numeric String from this BigInteger
-     * @param numericStringTwo Padded numeric String from other BigInteger
-     * @return Result of math operation
+     * @param out Stream to write to
+     * @throws IOException If the stream fails
+     * @see #writeDecimal(Writer)
      */
-    private BigInteger iterativeMultiply(String numericStringOne, String numericStringTwo) {
-        List<String> partialResults = new ArrayList<>();
-        String baseAdjustment = "";
-        String adjustment = "";
-        for (int i = numericStringOne.length() - 1; i >= 0; i--) {
-            int num1 = Integer.parseInt(numericStringOne.charAt(i) + "");
-            adjustment = baseAdjustment;
-            for (int j = numericStringOne.length() - 1; j >= 0; j--) {
-                int num2 = Integer.parseInt(numericStringTwo.charAt(j) + "");
-                String multiplyResult = num1 * num2 + "";
-                partialResults.add(multiplyResult + adjustment);
-                adjustment += "0";
-            }
-            baseAdjustment += "0";
+    public void writeDecimal(OutputStream out) throws IOException {
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.US_ASCII);
+        writeDecimal(writer);
+        writer.flush();
+    }
+
+    /**
+     * Gets the number of bytes writeTo() and toByteArray() produce for this BigInteger.
+     *
+     * @return Size of the binary encoding in bytes
+     */
+    public int binarySize() {
+        return 4 * (mag.length + 1);
+    }
+
+    /**
+     * Writes this BigInteger in its binary encoding: a little-endian int holding the
+     * magnitude length in words, negated for negative values, followed by the
+     * little-endian magnitude words, least significant first.
+     * The buffer's byte order is left as it was.
+     *
+     * @param buffer Buffer to write to, starting at its position
+     * @throws BufferOverflowException If fewer than binarySize() bytes remain
+     */
+    public void writeTo(ByteBuffer buffer) {
+        if (buffer.remaining() < binarySize()) {
+            throw new BufferOverflowException();
         }
-        BigInteger result = new BigInteger();
-        for (String partialResult : partialResults) {
-            result = result.add(new BigInteger(partialResult));
+        ByteOrder order = buffer.order();
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            buffer.putInt(negative ? -mag.length : mag.length);
+            buffer.asIntBuffer().put(mag);
+            // Through Buffer, as ByteBuffer.position(int) only exists from Java 9
+            ((Buffer) buffer).position(buffer.position() + 4 * mag.length);
+        } finally {
+            buffer.order(order);
         }
-        return result;
     }
 
     /**
-     * Trims the leading zeros off a BigInteger representation
+     * Reads a BigInteger written by writeTo().
+     * The buffer's byte order is left as it was.
      *
-     * @param input BigInteger representation
-     * @return The representation without leading zeros
+     * @param buffer Buffer to read from, starting at its position
+     * @return The BigInteger read
+     * @throws BufferUnderflowException If the buffer ends before the encoding does
      */
-    private String trim(String input) {
-        String trimmedInput = "";
-        boolean foundNonZero = false;
-        for (char c : input.toCharArray()) {
-            if (c != '0') {
-                foundNonZero = true;
-                trimmedInput = trimmedInput + c;
-            } else if (foundNonZero) {
-                trimmedInput = trimmedInput + c;
+    public static BigInteger readFrom(ByteBuffer buffer) {
+        ByteOrder order = buffer.order();
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            if (buffer.remaining() < 4) {
+                throw new BufferUnderflowException();
             }
+            int header = buffer.getInt(buffer.position());
+            long length = Math.abs((long) header);
+            if (buffer.remaining() - 4 < 4 * length) {
+                throw new BufferUnderflowException();
+            }
+            int[] words = new int[(int) length];
+            ((Buffer) buffer).position(buffer.position() + 4);
+            buffer.asIntBuffer().get(words);
+            ((Buffer) buffer).position(buffer.position() + 4 * words.length);
+            return new BigInteger(stripLeadingZeros(words), header < 0);
+        } finally {
+            buffer.order(order);
         }
-        if (trimmedInput.isEmpty()) {
-            return "0";
-        }
-        return trimmedInput;
     }
 
     /**
-     * Returns the String representation of this BigInteger.
+     * Encodes this BigInteger into a new byte array in the format of writeTo().
      *
-     * @return String representation of this BigInteger.
+     * @return The binary encoding
      */
-    @Override
-    public String toString() {
-        if (negative) {
-            return "-" + numericString;
+    public byte[] toByteArray() {
+        byte[] bytes = new byte[binarySize()];
+        writeTo(ByteBuffer.wrap(bytes));
+        return bytes;
+    }
+
+    /**
+     * Decodes a BigInteger from a byte array produced by toByteArray().
+     *
+     * @param bytes The binary encoding
+     * @return The BigInteger decoded
+     * @throws NumberFormatException If the array is not exactly one encoded BigInteger
+     */
+    public static BigInteger fromByteArray(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        try {
+            BigInteger value = readFrom(buffer);
+            if (buffer.hasRemaining()) {
+                throw new NumberFormatException("Not a serialized BigInteger.");
+            }
+            return value;
+        } catch (BufferUnderflowException ex) {
+            throw new NumberFormatException("Not a serialized BigInteger.");
         }
-        return numericString;
     }
 
     /**
      * Generates HashCode. Implemented to satisfy
-     * the contract for equals().
+     * the contract for equals(). Computed on the first call and cached.
      *
      * @return Hashcode for this BigInteger
      */
     @Override
     public int hashCode() {
-        int modification = 0;
-        if (negative) {
-            modification = 3;
+        int h = hash;
+        if (h == 0) {
+            int modification = 0;
+            if (negative) {
+                modification = 3;
+            }
+            h = Arrays.hashCode(mag) + modification;
+            hash = h;
         }
-        return numericString.hashCode() + modification;
+        return h;
     }
 
     /**
@@ -417,36 +4481,57 @@ public class BigInteger {
             return false;
         }
         BigInteger other = (BigInteger) obj;
-        return this.numericString.equals(other.numericString) && this.negative == other.negative;
+        if (this.hash != 0 && other.hash != 0 && this.hash != other.hash) {
+            // Both hashes already known, so unequal values are rejected without a scan
+            return false;
+        }
+        return Arrays.equals(this.mag, other.mag) && this.negative == other.negative;
     }
 
     /**
-     * Compares digits of number.
+     * Compares words of two magnitudes.
      *
-     * @param numericStringOne  This numeric string
-     * @param numericStringTwo  Other numeric string
-     * @return                  True if one > two. False if not.
+     * @param magOne  This magnitude
+     * @param magTwo  Other magnitude
+     * @return        Positive if one > two, negative if one < two, zero if equal.
      */
-    private boolean iterativeCompare(String numericStringOne, String numericStringTwo) {
-        numericStringOne = trim(numericStringOne);
-        numericStringTwo = trim(numericStringTwo);
-        if(numericStringOne.length() > numericStringTwo.length()) {
-            return true;
-        }
-        if(numericStringTwo.length() > numericStringOne.length()) {
-            return false;
+    private static int iterativeCompare(int[] magOne, int[] magTwo) {
+        if(magOne.length != magTwo.length) {
+            return magOne.length > magTwo.length ? 1 : -1;
         }
-        for(int i = 0; i < numericStringOne.length(); i++) {
-            int num1 = Integer.parseInt(numericStringOne.charAt(i) + "");
-            int num2 = Integer.parseInt(numericStringTwo.charAt(i) + "");
-            if(num1 > num2) {
-                return true;
-            }
-            if(num2 > num1) {
-                return false;
+        for(int i = magOne.length - 1; i >= 0; i--) {
+            long num1 = magOne[i] & LONG_MASK;
+            long num2 = magTwo[i] & LONG_MASK;
+            if(num1 != num2) {
+                return num1 > num2 ? 1 : -1;
             }
         }
-        return false;
+        return 0;
+    }
+
+    /**
+     * Compares this BigInteger with another in a single pass.
+     * Differing signs or magnitude lengths decide the order without reading any words.
+     *
+     * @param other Another BigInteger to compare
+     * @return Negative if this is smaller, zero if equal, positive if this is larger
+     */
+    @Override
+    public int compareTo(BigInteger other) {
+        if (negative != other.negative) {
+            return negative ? -1 : 1;
+        }
+        int comparison = iterativeCompare(mag, other.mag);
+        return negative ? -comparison : comparison;
+    }
+
+    /**
+     * Gets the sign of this BigInteger.
+     *
+     * @return -1 if negative, 0 if zero, 1 if positive
+     */
+    public int signum() {
+        return negative ? -1 : (mag.length == 0 ? 0 : 1);
     }
 
     /**
@@ -456,24 +4541,7 @@ public class BigInteger {
      * @return True if larger. False if equal or lesser.
      */
     public boolean largerThan(BigInteger other) {
-        // If equal, then it's not larger than the other.
-        if (this.equals(other)) {
-            return false;
-        }
-        // If this is negative and the other is positive, then it's not larger.
-        if (this.negative && !other.negative) {
-            return false;
-        }
-        // If the other is negative and this is positive, then it's larger
-        if (!this.negative && other.negative) {
-            return true;
-        }
-        // If both are positive, then do iterative compare.
-        if (!this.negative && !other.negative) {
-            return iterativeCompare(this.numericString, other.numericString);
-        }
-        // If both are negative, it's the reversed logic from above.
-        return !iterativeCompare(this.numericString, other.numericString);
+        return compareTo(other) > 0;
     }
 
     /**
@@ -483,10 +4551,7 @@ public class BigInteger {
      * @return True if smaller. False if equal or larger.
      */
     public boolean smallerThan(BigInteger other) {
-        if(this.equals(other)) {
-            return false;
-        }
-        return !largerThan(other);
+        return compareTo(other) < 0;
     }
 
     /**
@@ -504,7 +4569,7 @@ public class BigInteger {
      * @return  True if zero. False if not.
      */
     public boolean isZero() {
-        return trim(numericString).equals("0");
+        return mag.length == 0;
     }
 
     /**
@@ -513,7 +4578,139 @@ public class BigInteger {
      * @return  True if even. False if odd.
      */
     public boolean isEven() {
-        int lastDigit = Integer.parseInt(""+numericString.charAt(numericString.length()-1));
-        return (lastDigit % 2) == 0;
+        return mag.length == 0 || (mag[0] & 1) == 0;
+    }
+
+    /**
+     * Gets the number of bits in the shortest two's complement representation of
+     * this BigInteger, excluding the sign bit. For positive values this is the
+     * position of the highest set bit plus one. Computed on the first call and cached.
+     *
+     * @return Bit length, 0 for zero and -1
+     */
+    public int bitLength() {
+        int length = bitLengthPlusOne - 1;
+        if (length < 0) {
+            length = bitLength(mag);
+            if (negative && lowestSetBit(mag) == length - 1) {
+                // -2^k needs one bit less than 2^k
+                length--;
+            }
+            bitLengthPlusOne = length + 1;
+        }
+        return length;
+    }
+
+    /**
+     * Gets the number of decimal digits of the absolute value of this BigInteger,
+     * which is the length of toString() without the sign. Computed on the first call
+     * and cached.
+     *
+     * @return Number of digits, 1 for zero
+     */
+    public int digitCount() {
+        int count = digitCount;
+        if (count == 0) {
+            String string = cachedString();
+            if (string != null) {
+                count = negative ? string.length() - 1 : string.length();
+            } else if (mag.length == 0) {
+                count = 1;
+            } else {
+                // A value of b bits has between floor((b - 1) log10 2) + 1 and floor(b log10 2) + 1
+                // digits, so at most one comparison with a power of ten decides
+                int bits = bitLength(mag);
+                count = (int) ((bits - 1) * LOG10_2 - 1e-9) + 1;
+                int highest = (int) (bits * LOG10_2 + 1e-9) + 1;
+                while (count < highest && iterativeCompare(mag, TEN.power(new BigInteger(count)).mag) >= 0) {
+                    count++;
+                }
+            }
+            digitCount = count;
+        }
+        return count;
+    }
+
+    /**
+     * Gets the number of bits in the two's complement form of this BigInteger that
+     * differ from its sign bit: the set bits of a positive value, the clear bits of a
+     * negative one.
+     *
+     * @return Number of bits differing from the sign bit
+     */
+    public int bitCount() {
+        int count = 0;
+        for (int word : mag) {
+            count += Integer.bitCount(word);
+        }
+        if (negative) {
+            // -m = ~(m - 1), and m - 1 turns the trailing zeros of m into ones and its lowest one into zero
+            count += lowestSetBit(mag) - 1;
+        }
+        return count;
+    }
+
+    /**
+     * Gets the index of the lowest set bit, which is the same for a value and its negation.
+     *
+     * @return Number of trailing zero bits, or -1 for zero
+     */
+    public int getLowestSetBit() {
+        return mag.length == 0 ? -1 : lowestSetBit(mag);
+    }
+
+    /**
+     * Checks a bit of the two's complement form of this BigInteger.
+     *
+     * @param n Bit index, zero being the least significant
+     * @return True if the bit is set
+     * @throws ArithmeticException If n is negative
+     */
+    public boolean testBit(int n) {
+        if (n < 0) {
+            throw new ArithmeticException("Negative bit address.");
+        }
+        if (!negative) {
+            return testBit(mag, n);
+        }
+        // -m = ~m + 1: the bits of m up to its lowest set bit are kept, those above are inverted
+        int lowest = lowestSetBit(mag);
+        return n <= lowest ? n == lowest : !testBit(mag, n);
+    }
+
+    /**
+     * Sets a bit of the two's complement form of this BigInteger.
+     *
+     * @param n Bit index, zero being the least significant
+     * @return this | 2^n
+     * @throws ArithmeticException If n is negative
+     */
+    public BigInteger setBit(int n) {
+        return testBit(n) ? this : flipBit(n);
+    }
+
+    /**
+     * Clears a bit of the two's complement form of this BigInteger.
+     *
+     * @param n Bit index, zero being the least significant
+     * @return this &amp; ~2^n
+     * @throws ArithmeticException If n is negative
+     */
+    public BigInteger clearBit(int n) {
+        return testBit(n) ? flipBit(n) : this;
+    }
+
+    /**
+     * Inverts a bit of the two's complement form of this BigInteger.
+     *
+     * @param n Bit index, zero being the least significant
+     * @return this ^ 2^n
+     * @throws ArithmeticException If n is negative
+     */
+    public BigInteger flipBit(int n) {
+        if (n < 0) {
+            throw new ArithmeticException("Negative bit address.");
+        }
+        return xor(ONE.shiftLeft(n));
     }
 }
@@ -0,0 +1,308 @@
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * A sum of BigIntegers that many threads can add to at once, modeled after
+ * java.util.concurrent.atomic.LongAdder.
+ * <p>
+ * While threads do not contend, every addition goes to a single base cell. Once a
+ * compare-and-set on it fails, the adder switches to a table of cells and each thread
+ * adds to the cell its probe hash selects, rehashing on collisions and doubling the
+ * table up to the number of processors, so threads mostly update different cells.
+ * Each cell keeps a long partial sum updated by compare-and-set, and only an addition
+ * that would overflow it, or an operand that does not fit in a long, takes the cell's
+ * lock to move the partial sum into the cell's BigInteger accumulator.
+ * <p>
+ * sum() combines the cells and is not an atomic snapshot: additions made while it
+ * runs may or may not be included, but every completed addition is counted exactly once.
+ * <p>
+ * This class is thread-safe.
+ * <p>
+ * For educational purposes only.
+ */
+public class BigIntegerAdder {
+
+    /**
+     * Largest number of cells: the number of processors rounded up to a power of two, at least 2.
+     */
+    private static final int MAX_CELLS =
+            Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() - 1)) << 1;
+    /**
+     * Updater for the partial sum of a cell.
+     */
+    private static final AtomicLongFieldUpdater<Value> VALUE = AtomicLongFieldUpdater.newUpdater(Value.class, "value");
+    /**
+     * Source of the probe seeds of new threads.
+     */
+    private static final AtomicInteger SEEDS = new AtomicInteger();
+    /**
+     * Probe hash of the current thread, selecting its cell. Changed after a collision.
+     */
+    private static final ThreadLocal<int[]> PROBE = ThreadLocal.withInitial(
+            () -> new int[]{mix(SEEDS.getAndAdd(0x9E3779B9))});
+
+    /**
+     * Cell used until the first contention.
+     */
+    private final Cell base = new Cell();
+    /**
+     * Cells selected by probe hash, or null while there is no contention. The length
+     * is a power of two. Replaced, never modified, when the table grows.
+     */
+    private volatile Cell[] cells;
+
+    /**
+     * Creates an adder with a sum of zero.
+     */
+    public BigIntegerAdder() {
+    }
+
+    /**
+     * Adds a value to the sum.
+     *
+     * @param x Value to add
+     */
+    public void add(long x) {
+        Cell[] table = cells;
+        if (table == null) {
+            long v = base.value;
+            long sum = v + x;
+            if (((v ^ sum) & (x ^ sum)) < 0) {
+                base.spill(x, null);
+                return;
+            }
+            if (VALUE.compareAndSet(base, v, sum)) {
+                return;
+            }
+            table = inflate();
+        }
+        int[] probe = PROBE.get();
+        boolean collided = false;
+        while (true) {
+            Cell cell = table[probe[0] & (table.length - 1)];
+            long v = cell.value;
+            long sum = v + x;
+            if (((v ^ sum) & (x ^ sum)) < 0) {
+                cell.spill(x, null);
+                return;
+            }
+            if (VALUE.compareAndSet(cell, v, sum)) {
+                return;
+            }
+            if (collided && table.length < MAX_CELLS) {
+                table = grow(table);
+                collided = false;
+            } else {
+                collided = true;
+            }
+            probe[0] = rehash(probe[0]);
+        }
+    }
+
+    /**
+     * Adds a value to the sum. Values that do not fit in a long are added under the
+     * lock of the current thread's cell.
+     *
+     * @param x Value to add
+     */
+    public void add(BigInteger x) {
+        if (x.fitsInLong()) {
+            add(x.toLong());
+            return;
+        }
+        Cell[] table = cells;
+        Cell cell = table == null ? base : table[PROBE.get()[0] & (table.length - 1)];
+        cell.spill(0, x);
+    }
+
+    /**
+     * Adds one to the sum.
+     */
+    public void increment() {
+        add(1L);
+    }
+
+    /**
+     * Subtracts one from the sum.
+     */
+    public void decrement() {
+        add(-1L);
+    }
+
+    /**
+     * Gets the sum of everything added so far.
+     *
+     * @return The sum
+     */
+    public BigInteger sum() {
+        BigInteger sum = base.current();
+        Cell[] table = cells;
+        if (table != null) {
+            for (Cell cell : table) {
+                sum = sum.add(cell.current());
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Resets the sum to zero. Only meaningful while no thread adds at the same time.
+     */
+    public void reset() {
+        sumThenReset();
+    }
+
+    /**
+     * Gets the sum and resets it to zero. Additions made while this runs are counted
+     * either in the returned sum or in the next one, never in both.
+     *
+     * @return The sum before the reset
+     */
+    public BigInteger sumThenReset() {
+        BigInteger sum = base.drain();
+        Cell[] table = cells;
+        if (table != null) {
+            for (Cell cell : table) {
+                sum = sum.add(cell.drain());
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the current sum in decimal.
+     *
+     * @return String representation of sum()
+     */
+    @Override
+    public String toString() {
+        return sum().toString();
+    }
+
+    /**
+     * Creates the table of cells after the first contention on the base cell.
+     *
+     * @return The table of cells
+     */
+    private synchronized Cell[] inflate() {
+        Cell[] table = cells;
+        if (table == null) {
+            table = new Cell[2];
+            for (int i = 0; i < table.length; i++) {
+                table[i] = new Cell();
+            }
+            cells = table;
+        }
+        return table;
+    }
+
+    /**
+     * Doubles the table of cells, keeping the existing cells and their sums.
+     *
+     * @param table Table in which the current thread collided
+     * @return The current table, grown unless another thread grew it first
+     */
+    private synchronized Cell[] grow(Cell[] table) {
+        Cell[] current = cells;
+        if (current != table || table.length >= MAX_CELLS) {
+            return current;
+        }
+        Cell[] grown = new Cell[table.length * 2];
+        System.arraycopy(table, 0, grown, 0, table.length);
+        for (int i = table.length; i < grown.length; i++) {
+            grown[i] = new Cell();
+        }
+        cells = grown;
+        return grown;
+    }
+
+    /**
+     * Spreads the bits of a seed into a probe hash.
+     *
+     * @param seed Seed
+     * @return Nonzero probe hash
+     */
+    private static int mix(int seed) {
+        int h = seed * 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        return (h ^ (h >>> 16)) | 1;
+    }
+
+    /**
+     * Moves a probe hash to another cell by one xorshift step.
+     *
+     * @param probe Probe hash
+     * @return Next probe hash
+     */
+    private static int rehash(int probe) {
+        probe ^= probe << 13;
+        probe ^= probe >>> 17;
+        return probe ^ (probe << 5);
+    }
+
+    /**
+     * Padding before the partial sum, so that neighboring cells do not share a cache line.
+     */
+    private abstract static class LeftPadding {
+
+        long p0, p1, p2, p3, p4, p5, p6;
+    }
+
+    /**
+     * The partial sum of a cell, between the paddings.
+     */
+    private abstract static class Value extends LeftPadding {
+
+        /**
+         * Partial sum, updated by compare-and-set through VALUE.
+         */
+        volatile long value;
+    }
+
+    /**
+     * One slot of the sum: a long partial sum, padded after it as well, and the
+     * BigInteger accumulator it spills into.
+     */
+    private static final class Cell extends Value {
+
+        long q0, q1, q2, q3, q4, q5, q6;
+        /**
+         * Sum spilled from the partial sum and of operands that do not fit in a long.
+         * Guarded by the cell itself.
+         */
+        private BigInteger spilled = BigInteger.ZERO;
+
+        /**
+         * Moves the partial sum into the accumulator together with an operand, in one
+         * step under the lock, so that sum() never sees the partial sum in neither place.
+         *
+         * @param x     Operand that fits in a long, or 0
+         * @param large Operand that does not, or null
+         */
+        synchronized void spill(long x, BigInteger large) {
+            BigInteger sum = spilled.add(BigInteger.valueOf(VALUE.getAndSet(this, 0))).add(BigInteger.valueOf(x));
+            spilled = large == null ? sum : sum.add(large);
+        }
+
+        /**
+         * Gets the accumulator plus the partial sum.
+         *
+         * @return Sum of this cell
+         */
+        synchronized BigInteger current() {
+            return spilled.add(BigInteger.valueOf(value));
+        }
+
+        /**
+         * Gets the sum of this cell and resets it to zero.
+         *
+         * @return Sum of this cell before the reset
+         */
+        synchronized BigInteger drain() {
+            BigInteger sum = spilled.add(BigInteger.valueOf(VALUE.getAndSet(this, 0)));
+            spilled = BigInteger.ZERO;
+            return sum;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads back a sequence of BigIntegers written by BigIntegerFileWriter.
+ * <p>
+ * The file is read through memory-mapped windows of the channel, so each value
+ * is copied from the page cache straight into its magnitude array.
+ * <p>
+ * This class is not thread-safe.
+ * <p>
+ * For educational purposes only.
+ */
+public class BigIntegerFileReader implements Closeable {
+
+    /**
+     * Channel of the file being read.
+     */
+    private final FileChannel channel;
+    /**
+     * Size of the file in bytes.
+     */
+    private final long size;
+    /**
+     * Size of each mapped window in bytes, unless a single value needs more.
+     */
+    private final int windowSize;
+    /**
+     * Currently mapped window, or null before the first read.
+     */
+    private MappedByteBuffer window;
+    /**
+     * Number of bytes read so far.
+     */
+    private long position;
+
+    /**
+     * Creates a reader positioned at the first value of a file.
+     *
+     * @param path File to read
+     * @throws IOException If the file cannot be opened
+     */
+    public BigIntegerFileReader(Path path) throws IOException {
+        this(path, BigIntegerFileWriter.WINDOW_SIZE);
+    }
+
+    /**
+     * Creates a reader with a custom window size, positioned at the first value of a file.
+     *
+     * @param path       File to read
+     * @param windowSize Size of each mapped window in bytes
+     * @throws IOException If the file cannot be opened
+     */
+    BigIntegerFileReader(Path path, int windowSize) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.size = channel.size();
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * Checks if there are more values to read.
+     *
+     * @return True if read() will return another value
+     */
+    public boolean hasNext() {
+        return position < size;
+    }
+
+    /**
+     * Reads the next BigInteger from the file.
+     *
+     * @return The value read
+     * @throws EOFException If the file has no more values or ends inside one
+     * @throws IOException  If the file cannot be mapped
+     */
+    public BigInteger read() throws IOException {
+        ensureMapped(4);
+        long bytes = 4 + 4 * Math.abs((long) window.getInt(window.position()));
+        ensureMapped(bytes);
+        BigInteger value = BigInteger.readFrom(window);
+        position += bytes;
+        return value;
+    }
+
+    /**
+     * Reads all remaining BigIntegers from the file.
+     *
+     * @return The values read, in order
+     * @throws EOFException If the file ends inside a value
+     * @throws IOException  If the file cannot be mapped
+     */
+    public BigInteger[] readAll() throws IOException {
+        List<BigInteger> values = new ArrayList<>();
+        while (hasNext()) {
+            values.add(read());
+        }
+        return values.toArray(new BigInteger[0]);
+    }
+
+    /**
+     * Closes the file.
+     *
+     * @throws IOException If the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        window = null;
+        channel.close();
+    }
+
+    /**
+     * Makes sure the mapped window holds at least the given number of bytes from the
+     * current position, mapping a new window there if not.
+     *
+     * @param bytes Number of bytes needed
+     * @throws EOFException If the file ends before that many bytes
+     * @throws IOException  If the file cannot be mapped
+     */
+    private void ensureMapped(long bytes) throws IOException {
+        if (window != null && window.remaining() >= bytes) {
+            return;
+        }
+        if (size - position < bytes) {
+            throw new EOFException("End of BigInteger file.");
+        }
+        long length = Math.min(size - position, Math.max(windowSize, bytes));
+        window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+        window.order(ByteOrder.LITTLE_ENDIAN);
+    }
+}
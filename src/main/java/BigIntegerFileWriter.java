@@ -0,0 +1,125 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes a sequence of BigIntegers to a file in the binary encoding of
+ * BigInteger.writeTo(), one record after another.
+ * <p>
+ * The file is written through memory-mapped windows of the channel, so values are
+ * copied straight into the page cache without intermediate buffers or system calls
+ * per value. Each window is forced to the storage device before the next one is
+ * mapped, and the file is cut to the bytes actually written on close().
+ * <p>
+ * This class is not thread-safe.
+ * <p>
+ * For educational purposes only.
+ */
+public class BigIntegerFileWriter implements Closeable {
+
+    /**
+     * Default size of each mapped window in bytes.
+     */
+    static final int WINDOW_SIZE = 64 << 20;
+
+    /**
+     * Channel of the file being written.
+     */
+    private final FileChannel channel;
+    /**
+     * Size of each mapped window in bytes, unless a single value needs more.
+     */
+    private final int windowSize;
+    /**
+     * Currently mapped window, or null before the first write.
+     */
+    private MappedByteBuffer window;
+    /**
+     * Number of bytes written so far.
+     */
+    private long position;
+
+    /**
+     * Creates a writer, replacing the file if it exists.
+     *
+     * @param path File to write
+     * @throws IOException If the file cannot be opened
+     */
+    public BigIntegerFileWriter(Path path) throws IOException {
+        this(path, WINDOW_SIZE);
+    }
+
+    /**
+     * Creates a writer with a custom window size, replacing the file if it exists.
+     *
+     * @param path       File to write
+     * @param windowSize Size of each mapped window in bytes
+     * @throws IOException If the file cannot be opened
+     */
+    BigIntegerFileWriter(Path path, int windowSize) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * Appends one BigInteger to the file.
+     *
+     * @param value Value to write
+     * @throws IOException If the file cannot be extended
+     */
+    public void write(BigInteger value) throws IOException {
+        int size = value.binarySize();
+        if (window == null || window.remaining() < size) {
+            if (window != null) {
+                window.force();
+            }
+            window = channel.map(FileChannel.MapMode.READ_WRITE, position, Math.max(windowSize, size));
+            window.order(ByteOrder.LITTLE_ENDIAN);
+        }
+        value.writeTo(window);
+        position += size;
+    }
+
+    /**
+     * Appends an array of BigIntegers to the file.
+     *
+     * @param values Values to write, in order
+     * @throws IOException If the file cannot be extended
+     */
+    public void writeAll(BigInteger[] values) throws IOException {
+        for (BigInteger value : values) {
+            write(value);
+        }
+    }
+
+    /**
+     * Forces the last window to the storage device, cuts the file to the bytes written
+     * and closes it.
+     * <p>
+     * The order matters: earlier windows were forced when they were replaced, so once
+     * the last one is forced every value is durable, and its reference is dropped before
+     * truncating. Some platforms, Windows among them, refuse to truncate a file over a
+     * region that is still mapped, and a mapping is only released once its buffer is
+     * unreachable. The new length is forced last.
+     *
+     * @throws IOException If the file cannot be forced, truncated or closed
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (window != null) {
+                window.force();
+                window = null;
+            }
+            channel.truncate(position);
+            channel.force(true);
+        } finally {
+            channel.close();
+        }
+    }
+}
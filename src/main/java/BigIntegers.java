@@ -0,0 +1,150 @@
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Bulk operations over arrays of BigIntegers.
+ * <p>
+ * Sums accumulate into a single MutableBigInteger instead of allocating an
+ * intermediate BigInteger per element, and products are built as a balanced
+ * product tree so that the large multiplications happen between operands of
+ * similar size, where the fast multiply tiers apply. The parallel variants split
+ * the work through parallel streams and give the same results.
+ * <p>
+ * For educational purposes only.
+ */
+public final class BigIntegers {
+
+    private BigIntegers() {
+    }
+
+    /**
+     * Adds up an array of BigIntegers.
+     *
+     * @param values Values to add
+     * @return Sum of the values, zero for an empty array
+     */
+    public static BigInteger sum(BigInteger[] values) {
+        MutableBigInteger sum = new MutableBigInteger();
+        for (BigInteger value : values) {
+            sum.addTo(value);
+        }
+        return sum.toBigInteger();
+    }
+
+    /**
+     * Adds up an array of BigIntegers using parallel streams.
+     *
+     * @param values Values to add
+     * @return Sum of the values, zero for an empty array
+     */
+    public static BigInteger sumParallel(BigInteger[] values) {
+        return Arrays.stream(values).parallel()
+                .collect(MutableBigInteger::new, MutableBigInteger::addTo,
+                        (one, two) -> one.addTo(two.toBigInteger()))
+                .toBigInteger();
+    }
+
+    /**
+     * Computes the dot product of two arrays of BigIntegers.
+     *
+     * @param one First vector
+     * @param two Second vector, the same length as the first
+     * @return Sum of one[i] * two[i], zero for empty arrays
+     * @throws IllegalArgumentException If the arrays differ in length
+     */
+    public static BigInteger dot(BigInteger[] one, BigInteger[] two) {
+        checkSameLength(one, two);
+        MutableBigInteger sum = new MutableBigInteger();
+        for (int i = 0; i < one.length; i++) {
+            sum.addTo(one[i].multiply(two[i]));
+        }
+        return sum.toBigInteger();
+    }
+
+    /**
+     * Computes the dot product of two arrays of BigIntegers using parallel streams.
+     *
+     * @param one First vector
+     * @param two Second vector, the same length as the first
+     * @return Sum of one[i] * two[i], zero for empty arrays
+     * @throws IllegalArgumentException If the arrays differ in length
+     */
+    public static BigInteger dotParallel(BigInteger[] one, BigInteger[] two) {
+        checkSameLength(one, two);
+        return IntStream.range(0, one.length).parallel()
+                .collect(MutableBigInteger::new, (sum, i) -> sum.addTo(one[i].multiply(two[i])),
+                        (sum, other) -> sum.addTo(other.toBigInteger()))
+                .toBigInteger();
+    }
+
+    /**
+     * Computes the running sums of an array of BigIntegers.
+     *
+     * @param values Values to add
+     * @return Array whose element i is values[0] + ... + values[i]
+     */
+    public static BigInteger[] prefixSums(BigInteger[] values) {
+        BigInteger[] sums = new BigInteger[values.length];
+        MutableBigInteger sum = new MutableBigInteger();
+        for (int i = 0; i < values.length; i++) {
+            sums[i] = sum.addTo(values[i]).toBigInteger();
+        }
+        return sums;
+    }
+
+    /**
+     * Multiplies an array of BigIntegers together with a balanced product tree.
+     *
+     * @param values Values to multiply
+     * @return Product of the values, one for an empty array
+     */
+    public static BigInteger product(BigInteger[] values) {
+        return values.length == 0 ? BigInteger.ONE : product(values, 0, values.length);
+    }
+
+    /**
+     * Multiplies an array of BigIntegers together using parallel streams. Each of a
+     * few contiguous chunks is multiplied with a product tree, and the stream
+     * combines the chunk products pairwise.
+     *
+     * @param values Values to multiply
+     * @return Product of the values, one for an empty array
+     */
+    public static BigInteger productParallel(BigInteger[] values) {
+        int chunks = Math.min(values.length, 4 * ForkJoinPool.getCommonPoolParallelism());
+        return IntStream.range(0, chunks).parallel()
+                .mapToObj(chunk -> product(values, (int) ((long) values.length * chunk / chunks),
+                        (int) ((long) values.length * (chunk + 1) / chunks)))
+                .reduce(BigInteger.ONE, BigInteger::multiply);
+    }
+
+    /**
+     * Multiplies a non-empty range of an array with a balanced product tree.
+     *
+     * @param values Values to multiply
+     * @param from   Index of the first value
+     * @param to     Index after the last value
+     * @return Product of the values in the range
+     */
+    private static BigInteger product(BigInteger[] values, int from, int to) {
+        if (to - from == 1) {
+            return values[from];
+        }
+        int middle = (from + to) >>> 1;
+        return product(values, from, middle).multiply(product(values, middle, to));
+    }
+
+    /**
+     * Checks that two vectors have the same length.
+     *
+     * @param one First vector
+     * @param two Second vector
+     * @throws IllegalArgumentException If the lengths differ
+     */
+    private static void checkSameLength(BigInteger[] one, BigInteger[] two) {
+        if (one.length != two.length) {
+            throw new IllegalArgumentException("Vectors differ in length.");
+        }
+    }
+}
@@ -0,0 +1,357 @@
+/**
+ * An arithmetic expression over BigIntegers: either a number, or one of the
+ * operators + - * / % ^ applied to two operands.
+ * <p>
+ * Expressions are parsed with the usual precedence: ^ binds tightest and groups to
+ * the right, then unary minus, then * / %, then + -, and parentheses group as written.
+ * Division rounds toward zero and % is the matching remainder, as in BigInteger.divide()
+ * and BigInteger.remainder().
+ * <p>
+ * Two expressions are equal when they have the same structure, so a map keyed by
+ * expressions finds repeated subexpressions. The hash code is computed once when
+ * the node is built.
+ * <p>
+ * This class is immutable.
+ * <p>
+ * For educational purposes only.
+ */
+public final class Expression {
+
+    /**
+     * Operator of this node, or 0 for a number.
+     */
+    private final char operator;
+    /**
+     * Value of a number node, null for an operator node.
+     */
+    private final BigInteger value;
+    /**
+     * Left operand of an operator node, null for a number node.
+     */
+    private final Expression left;
+    /**
+     * Right operand of an operator node, null for a number node.
+     */
+    private final Expression right;
+    /**
+     * Structural hash code.
+     */
+    private final int hash;
+
+    private Expression(char operator, BigInteger value, Expression left, Expression right) {
+        this.operator = operator;
+        this.value = value;
+        this.left = left;
+        this.right = right;
+        this.hash = value != null
+                ? value.hashCode()
+                : (operator * 31 + left.hash) * 31 + right.hash;
+    }
+
+    /**
+     * Creates an expression holding a number.
+     *
+     * @param value The number
+     * @return A number expression
+     */
+    public static Expression number(BigInteger value) {
+        return new Expression((char) 0, value, null, null);
+    }
+
+    /**
+     * Creates an expression applying an operator to two operands.
+     *
+     * @param operator One of + - * / % ^
+     * @param left     Left operand
+     * @param right    Right operand
+     * @return An operator expression
+     * @throws IllegalArgumentException If the operator is not supported
+     */
+    public static Expression of(char operator, Expression left, Expression right) {
+        if ("+-*/%^".indexOf(operator) < 0) {
+            throw new IllegalArgumentException("Not an operation: " + operator);
+        }
+        return new Expression(operator, null, left, right);
+    }
+
+    /**
+     * Parses an expression such as "(2 ^ 100 - 1) % 97 * -3". Whitespace is ignored.
+     *
+     * @param text Expression text
+     * @return The parsed expression
+     * @throws IllegalArgumentException If the text is not a well-formed expression
+     */
+    public static Expression parse(String text) {
+        Parser parser = new Parser(text);
+        Expression expression = parser.sum();
+        if (parser.peek() != 0) {
+            throw parser.unexpected();
+        }
+        return expression;
+    }
+
+    /**
+     * Applies an operator to two values.
+     *
+     * @param operator One of + - * / % ^
+     * @param left     Left operand
+     * @param right    Right operand
+     * @return The result of the operation
+     * @throws IllegalArgumentException If the operator is not supported
+     * @throws ArithmeticException      If the operation is undefined, such as a division by zero
+     */
+    public static BigInteger apply(char operator, BigInteger left, BigInteger right) {
+        switch (operator) {
+            case '+':
+                return left.add(right);
+            case '-':
+                return left.subtract(right);
+            case '*':
+                return left.multiply(right);
+            case '/':
+                return left.divide(right);
+            case '%':
+                return left.remainder(right);
+            case '^':
+                return left.power(right);
+            default:
+                throw new IllegalArgumentException("Not an operation: " + operator);
+        }
+    }
+
+    /**
+     * Checks if this expression is a number.
+     *
+     * @return True for a number, false for an operator node
+     */
+    public boolean isNumber() {
+        return value != null;
+    }
+
+    /**
+     * Gets the value of a number expression.
+     *
+     * @return The number, or null for an operator node
+     */
+    public BigInteger value() {
+        return value;
+    }
+
+    /**
+     * Gets the operator of an operator expression.
+     *
+     * @return One of + - * / % ^, or 0 for a number
+     */
+    public char operator() {
+        return operator;
+    }
+
+    /**
+     * Gets the left operand of an operator expression.
+     *
+     * @return The left operand, or null for a number
+     */
+    public Expression left() {
+        return left;
+    }
+
+    /**
+     * Gets the right operand of an operator expression.
+     *
+     * @return The right operand, or null for a number
+     */
+    public Expression right() {
+        return right;
+    }
+
+    /**
+     * Evaluates this expression on the calling thread.
+     *
+     * @return The value of the expression
+     * @throws ArithmeticException If an operation is undefined, such as a division by zero
+     */
+    public BigInteger evaluate() {
+        if (value != null) {
+            return value;
+        }
+        return apply(operator, left.evaluate(), right.evaluate());
+    }
+
+    /**
+     * Returns the expression fully parenthesized, so that it parses back to an equal expression.
+     *
+     * @return String representation of this expression
+     */
+    @Override
+    public String toString() {
+        if (value != null) {
+            return value.isNegative() ? "(" + value + ")" : value.toString();
+        }
+        return "(" + left + " " + operator + " " + right + ")";
+    }
+
+    /**
+     * Gets the structural hash code of this expression.
+     *
+     * @return Hash code
+     */
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    /**
+     * Compares the structure of this and another expression.
+     *
+     * @param obj Other expression to compare
+     * @return True if both have the same operators and numbers in the same places
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof Expression)) {
+            return false;
+        }
+        Expression other = (Expression) obj;
+        if (hash != other.hash || operator != other.operator) {
+            return false;
+        }
+        if (value != null) {
+            return value.equals(other.value);
+        }
+        return left.equals(other.left) && right.equals(other.right);
+    }
+
+    /**
+     * Recursive descent parser over the characters of one expression.
+     */
+    private static final class Parser {
+
+        /**
+         * Expression text.
+         */
+        private final String text;
+        /**
+         * Index of the next character to read.
+         */
+        private int position;
+
+        Parser(String text) {
+            this.text = text;
+        }
+
+        /**
+         * Parses terms joined by + and -.
+         *
+         * @return The parsed expression
+         */
+        Expression sum() {
+            Expression result = product();
+            for (char c = peek(); c == '+' || c == '-'; c = peek()) {
+                position++;
+                result = new Expression(c, null, result, product());
+            }
+            return result;
+        }
+
+        /**
+         * Parses factors joined by *, / and %.
+         *
+         * @return The parsed expression
+         */
+        private Expression product() {
+            Expression result = negation();
+            for (char c = peek(); c == '*' || c == '/' || c == '%'; c = peek()) {
+                position++;
+                result = new Expression(c, null, result, negation());
+            }
+            return result;
+        }
+
+        /**
+         * Parses a power with any number of leading minus signs. A negated number
+         * becomes a negative number rather than a subtraction from zero.
+         *
+         * @return The parsed expression
+         */
+        private Expression negation() {
+            if (peek() != '-') {
+                return power();
+            }
+            position++;
+            Expression operand = negation();
+            if (operand.value != null) {
+                return number(BigInteger.ZERO.subtract(operand.value));
+            }
+            return new Expression('-', null, number(BigInteger.ZERO), operand);
+        }
+
+        /**
+         * Parses an operand optionally raised to a power. The exponent may itself be
+         * negated or raised to a power, so ^ groups to the right.
+         *
+         * @return The parsed expression
+         */
+        private Expression power() {
+            Expression base = operand();
+            if (peek() != '^') {
+                return base;
+            }
+            position++;
+            return new Expression('^', null, base, negation());
+        }
+
+        /**
+         * Parses a number or a parenthesized expression.
+         *
+         * @return The parsed expression
+         */
+        private Expression operand() {
+            char c = peek();
+            if (c == '(') {
+                position++;
+                Expression inner = sum();
+                if (peek() != ')') {
+                    throw unexpected();
+                }
+                position++;
+                return inner;
+            }
+            if (c < '0' || c > '9') {
+                throw unexpected();
+            }
+            int start = position;
+            while (position < text.length() && text.charAt(position) >= '0' && text.charAt(position) <= '9') {
+                position++;
+            }
+            return number(new BigInteger(text.substring(start, position)));
+        }
+
+        /**
+         * Skips whitespace and gets the next character without consuming it.
+         *
+         * @return The next character, or 0 at the end of the text
+         */
+        char peek() {
+            while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+                position++;
+            }
+            return position < text.length() ? text.charAt(position) : 0;
+        }
+
+        /**
+         * Builds the error for the character at the current position.
+         *
+         * @return Exception describing the unexpected character or end of text
+         */
+        IllegalArgumentException unexpected() {
+            if (position >= text.length()) {
+                return new IllegalArgumentException("Unexpected end of expression.");
+            }
+            return new IllegalArgumentException(
+                    "Unexpected '" + text.charAt(position) + "' at position " + position + ".");
+        }
+    }
+}
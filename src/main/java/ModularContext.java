@@ -0,0 +1,471 @@
+import java.util.Arrays;
+
+/**
+ * Arithmetic modulo a fixed odd modulus, for long runs of operations under the same
+ * modulus such as elliptic curve and polynomial arithmetic.
+ * <p>
+ * Values are held as Residues in Montgomery form: x is stored as x * R mod modulus, with
+ * R = 2^(32n) for a modulus of n words. In that form a product is reduced word by word
+ * while it is formed, without any division, and sums and differences need at most one
+ * correction by the modulus. The reduction constants are computed once, when the context
+ * is created. Converting a value in or out costs one Montgomery multiplication, so values
+ * should stay in Montgomery form until the end of a computation.
+ * <p>
+ * Every operation comes in two forms: one returning a new residue, and an in-place one
+ * that overwrites its first operand and returns it. The in-place add, sub, mul and square
+ * reuse the residue's own buffers and allocate nothing once the residue has been
+ * multiplied in place.
+ * <p>
+ * A context is immutable and thread-safe. Residues are mutable and not thread-safe, and
+ * can only be combined with residues of the same context.
+ * <p>
+ * For educational purposes only.
+ */
+public final class ModularContext {
+
+    /**
+     * Mask to read an int word as an unsigned value.
+     */
+    private static final long LONG_MASK = 0xffffffffL;
+
+    /**
+     * Modulus.
+     */
+    private final BigInteger modulus;
+    /**
+     * Magnitude words of the modulus, n of them.
+     */
+    private final int[] words;
+    /**
+     * -1/modulus modulo 2^32.
+     */
+    private final int inverse;
+    /**
+     * R^2 mod modulus, n words; a Montgomery multiplication by it brings a value into Montgomery form.
+     */
+    private final int[] rSquared;
+
+    /**
+     * Creates a context for an odd modulus and computes its reduction constants.
+     *
+     * @param modulus Positive odd modulus
+     * @throws ArithmeticException If the modulus is not positive or is even
+     */
+    public ModularContext(BigInteger modulus) {
+        if (!modulus.largerThanZero()) {
+            throw new ArithmeticException("Modulus not positive.");
+        }
+        if (modulus.isEven()) {
+            throw new ArithmeticException("Modulus not odd.");
+        }
+        this.modulus = modulus;
+        this.words = modulus.magnitude();
+        this.inverse = BigInteger.negativeInverse(words[0]);
+        this.rSquared = Arrays.copyOf(BigInteger.ONE.shiftLeft(64 * words.length).mod(modulus).magnitude(),
+                words.length);
+    }
+
+    /**
+     * Gets the modulus of this context.
+     *
+     * @return Modulus
+     */
+    public BigInteger modulus() {
+        return modulus;
+    }
+
+    /**
+     * Brings a value into Montgomery form.
+     *
+     * @param value Any value, reduced modulo the modulus first
+     * @return The residue of the value
+     */
+    public Residue residue(BigInteger value) {
+        Residue result = new Residue(this);
+        int[] reduced = Arrays.copyOf(value.mod(modulus).magnitude(), words.length);
+        BigInteger.montgomeryMultiply(reduced, rSquared, words, inverse, result.words);
+        return result;
+    }
+
+    /**
+     * Creates the residue of zero.
+     *
+     * @return A new residue of zero
+     */
+    public Residue zero() {
+        return new Residue(this);
+    }
+
+    /**
+     * Creates the residue of one.
+     *
+     * @return A new residue of one
+     */
+    public Residue one() {
+        return residue(BigInteger.ONE);
+    }
+
+    /**
+     * Adds two residues.
+     *
+     * @param a First residue
+     * @param b Second residue
+     * @return A new residue of a + b
+     * @throws IllegalArgumentException If a residue belongs to another context
+     */
+    public Residue add(Residue a, Residue b) {
+        check(a);
+        check(b);
+        Residue result = new Residue(this);
+        add(a.words, b.words, result.words);
+        return result;
+    }
+
+    /**
+     * Adds a residue to another in place.
+     *
+     * @param a Residue receiving a + b
+     * @param b Residue to add
+     * @return a
+     * @throws IllegalArgumentException If a residue belongs to another context
+     */
+    public Residue addInPlace(Residue a, Residue b) {
+        check(a);
+        check(b);
+        add(a.words, b.words, a.words);
+        return a;
+    }
+
+    /**
+     * Subtracts one residue from another.
+     *
+     * @param a Residue to subtract from
+     * @param b Residue to subtract
+     * @return A new residue of a - b
+     * @throws IllegalArgumentException If a residue belongs to another context
+     */
+    public Residue sub(Residue a, Residue b) {
+        check(a);
+        check(b);
+        Residue result = new Residue(this);
+        subtract(a.words, b.words, result.words);
+        return result;
+    }
+
+    /**
+     * Subtracts a residue from another in place.
+     *
+     * @param a Residue receiving a - b
+     * @param b Residue to subtract
+     * @return a
+     * @throws IllegalArgumentException If a residue belongs to another context
+     */
+    public Residue subInPlace(Residue a, Residue b) {
+        check(a);
+        check(b);
+        subtract(a.words, b.words, a.words);
+        return a;
+    }
+
+    /**
+     * Multiplies two residues.
+     *
+     * @param a First residue
+     * @param b Second residue
+     * @return A new residue of a * b
+     * @throws IllegalArgumentException If a residue belongs to another context
+     */
+    public Residue mul(Residue a, Residue b) {
+        check(a);
+        check(b);
+        Residue result = new Residue(this);
+        BigInteger.montgomeryMultiply(a.words, b.words, words, inverse, result.words);
+        return result;
+    }
+
+    /**
+     * Multiplies a residue by another in place. The product is formed in the residue's
+     * spare buffer, which then becomes its value, so nothing is allocated after the first call.
+     *
+     * @param a Residue receiving a * b
+     * @param b Residue to multiply by, which may be a itself
+     * @return a
+     * @throws IllegalArgumentException If a residue belongs to another context
+     */
+    public Residue mulInPlace(Residue a, Residue b) {
+        check(a);
+        check(b);
+        if (a.spare == null) {
+            a.spare = new int[words.length + 2];
+        }
+        BigInteger.montgomeryMultiply(a.words, b.words, words, inverse, a.spare);
+        int[] product = a.spare;
+        a.spare = a.words;
+        a.words = product;
+        return a;
+    }
+
+    /**
+     * Squares a residue.
+     *
+     * @param a Residue
+     * @return A new residue of a * a
+     * @throws IllegalArgumentException If the residue belongs to another context
+     */
+    public Residue square(Residue a) {
+        return mul(a, a);
+    }
+
+    /**
+     * Squares a residue in place.
+     *
+     * @param a Residue receiving a * a
+     * @return a
+     * @throws IllegalArgumentException If the residue belongs to another context
+     */
+    public Residue squareInPlace(Residue a) {
+        return mulInPlace(a, a);
+    }
+
+    /**
+     * Raises a residue to a power by sliding-window exponentiation in Montgomery form.
+     *
+     * @param a        Residue
+     * @param exponent Exponent; a negative exponent raises the inverse of a instead
+     * @return A new residue of a^exponent
+     * @throws IllegalArgumentException If the residue belongs to another context
+     * @throws ArithmeticException      If the exponent is negative and a is not invertible
+     */
+    public Residue pow(Residue a, BigInteger exponent) {
+        return powInPlace(a.copy(), exponent);
+    }
+
+    /**
+     * Raises a residue to a power in place.
+     *
+     * @param a        Residue receiving a^exponent
+     * @param exponent Exponent; a negative exponent raises the inverse of a instead
+     * @return a
+     * @throws IllegalArgumentException If the residue belongs to another context
+     * @throws ArithmeticException      If the exponent is negative and a is not invertible
+     */
+    public Residue powInPlace(Residue a, BigInteger exponent) {
+        check(a);
+        if (exponent.isNegative()) {
+            inverseInPlace(a);
+        }
+        int[] power = exponent.isZero()
+                ? one().words
+                : BigInteger.montgomeryPower(a.words, exponent.magnitude(), words);
+        System.arraycopy(power, 0, a.words, 0, words.length);
+        return a;
+    }
+
+    /**
+     * Computes the inverse of a residue.
+     *
+     * @param a Residue
+     * @return A new residue of 1 / a
+     * @throws IllegalArgumentException If the residue belongs to another context
+     * @throws ArithmeticException      If a shares a factor with the modulus
+     */
+    public Residue inverse(Residue a) {
+        return inverseInPlace(a.copy());
+    }
+
+    /**
+     * Inverts a residue in place. The Montgomery form x * R is inverted as an ordinary
+     * value, giving 1 / (x * R), and two multiplications by R^2 turn that into R / x.
+     *
+     * @param a Residue receiving 1 / a
+     * @return a
+     * @throws IllegalArgumentException If the residue belongs to another context
+     * @throws ArithmeticException      If a shares a factor with the modulus
+     */
+    public Residue inverseInPlace(Residue a) {
+        check(a);
+        int[] stripped = BigInteger.stripLeadingZeros(Arrays.copyOf(a.words, words.length));
+        int[] inverted = Arrays.copyOf(new BigInteger(stripped, false).modInverse(modulus).magnitude(),
+                words.length + 2);
+        BigInteger.montgomeryMultiply(inverted, rSquared, words, inverse, a.words);
+        System.arraycopy(a.words, 0, inverted, 0, words.length);
+        BigInteger.montgomeryMultiply(inverted, rSquared, words, inverse, a.words);
+        return a;
+    }
+
+    /**
+     * Brings a residue out of Montgomery form.
+     *
+     * @param a Residue
+     * @return The value of a, between zero and modulus - 1
+     * @throws IllegalArgumentException If the residue belongs to another context
+     */
+    public BigInteger toBigInteger(Residue a) {
+        check(a);
+        int[] one = new int[words.length];
+        one[0] = 1;
+        int[] value = new int[words.length + 2];
+        BigInteger.montgomeryMultiply(a.words, one, words, inverse, value);
+        return new BigInteger(BigInteger.stripLeadingZeros(Arrays.copyOf(value, words.length)), false);
+    }
+
+    /**
+     * Adds two values below the modulus, subtracting the modulus once if the sum reaches it.
+     *
+     * @param x      First value, n words
+     * @param y      Second value, n words
+     * @param result Buffer receiving x + y mod modulus in its low n words; may be x or y
+     */
+    private void add(int[] x, int[] y, int[] result) {
+        int n = words.length;
+        int carry = BigInteger.addMagnitudes(x, n, y, n, result);
+        if (carry != 0 || !belowModulus(result)) {
+            BigInteger.subtractMagnitudes(result, n, words, n, result);
+        }
+    }
+
+    /**
+     * Subtracts two values below the modulus, adding the modulus back if the difference is negative.
+     *
+     * @param x      Value to subtract from, n words
+     * @param y      Value to subtract, n words
+     * @param result Buffer receiving x - y mod modulus in its low n words; may be x or y
+     */
+    private void subtract(int[] x, int[] y, int[] result) {
+        int n = words.length;
+        if (BigInteger.subtractMagnitudes(x, n, y, n, result) != 0) {
+            BigInteger.addMagnitudes(result, n, words, n, result);
+        }
+    }
+
+    /**
+     * Checks if the low n words of a value are below the modulus.
+     *
+     * @param value Value of at least n words
+     * @return True if value < modulus
+     */
+    private boolean belowModulus(int[] value) {
+        for (int i = words.length - 1; i >= 0; i--) {
+            if (value[i] != words[i]) {
+                return (value[i] & LONG_MASK) < (words[i] & LONG_MASK);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Makes sure a residue belongs to this context.
+     *
+     * @param a Residue
+     * @throws IllegalArgumentException If the residue belongs to another context
+     */
+    private void check(Residue a) {
+        if (a.context != this) {
+            throw new IllegalArgumentException("Residue of another modulus.");
+        }
+    }
+
+    /**
+     * A value modulo the modulus of a ModularContext, held in Montgomery form.
+     * Residues are created and combined by their context.
+     */
+    public static final class Residue {
+
+        /**
+         * Context this residue belongs to.
+         */
+        private final ModularContext context;
+        /**
+         * Value in Montgomery form in the low n words, with two zero words above for the
+         * carries of a Montgomery multiplication.
+         */
+        private int[] words;
+        /**
+         * Buffer of the same size that in-place multiplications write into, or null until the first one.
+         */
+        private int[] spare;
+
+        private Residue(ModularContext context) {
+            this.context = context;
+            this.words = new int[context.words.length + 2];
+        }
+
+        /**
+         * Gets the context this residue belongs to.
+         *
+         * @return The context
+         */
+        public ModularContext context() {
+            return context;
+        }
+
+        /**
+         * Copies this residue, so it can be changed in place without affecting the original.
+         *
+         * @return A new residue with the same value
+         */
+        public Residue copy() {
+            Residue copy = new Residue(context);
+            System.arraycopy(words, 0, copy.words, 0, words.length);
+            return copy;
+        }
+
+        /**
+         * Brings this residue out of Montgomery form.
+         *
+         * @return The value, between zero and modulus - 1
+         */
+        public BigInteger toBigInteger() {
+            return context.toBigInteger(this);
+        }
+
+        /**
+         * Checks if this residue is zero.
+         *
+         * @return True if the value is zero
+         */
+        public boolean isZero() {
+            for (int word : words) {
+                if (word != 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Compares this residue with another of the same context.
+         *
+         * @param obj Other residue to compare
+         * @return True if both belong to the same context and have the same value
+         */
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Residue)) {
+                return false;
+            }
+            Residue other = (Residue) obj;
+            return context == other.context && Arrays.equals(words, other.words);
+        }
+
+        /**
+         * Gets a hash code of the value in Montgomery form.
+         *
+         * @return Hash code
+         */
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(words);
+        }
+
+        /**
+         * Returns the value in decimal.
+         *
+         * @return String representation of the value, out of Montgomery form
+         */
+        @Override
+        public String toString() {
+            return toBigInteger().toString();
+        }
+    }
+}
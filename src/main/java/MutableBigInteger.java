@@ -0,0 +1,253 @@
+import java.util.Arrays;
+
+/**
+ * A mutable companion to BigInteger for accumulating values in loops.
+ * <p>
+ * Each operation updates this accumulator in place, reusing its own word buffer,
+ * which grows geometrically so that a long series of additions reallocates only
+ * a logarithmic number of times. Call toBigInteger() to take an immutable snapshot.
+ * <p>
+ * This class is not thread-safe.
+ * <p>
+ * For educational purposes only.
+ */
+public class MutableBigInteger {
+
+    /**
+     * Mask to read an int word as an unsigned value.
+     */
+    private static final long LONG_MASK = 0xffffffffL;
+    /**
+     * Initial buffer size in words.
+     */
+    private static final int INITIAL_CAPACITY = 4;
+
+    /**
+     * Magnitude words, least significant first. Words from length upward are always zero.
+     */
+    private int[] value;
+    /**
+     * Number of words in use. The top word in use is never zero, so zero has length 0.
+     */
+    private int length;
+    /**
+     * True if negative. Never true when the value is zero.
+     */
+    private boolean negative;
+
+    /**
+     * Initializes an accumulator with a value of zero.
+     */
+    public MutableBigInteger() {
+        this.value = new int[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Initializes an accumulator with the value of a BigInteger.
+     *
+     * @param initial Initial value
+     */
+    public MutableBigInteger(BigInteger initial) {
+        int[] mag = initial.magnitude();
+        this.value = Arrays.copyOf(mag, Math.max(INITIAL_CAPACITY, mag.length + 1));
+        this.length = mag.length;
+        this.negative = initial.isNegative();
+    }
+
+    /**
+     * Adds a BigInteger to this accumulator.
+     *
+     * @param other Value to add
+     * @return This accumulator
+     */
+    public MutableBigInteger addTo(BigInteger other) {
+        addSigned(other.magnitude(), other.isNegative());
+        return this;
+    }
+
+    /**
+     * Subtracts a BigInteger from this accumulator.
+     *
+     * @param other Value to subtract
+     * @return This accumulator
+     */
+    public MutableBigInteger subtractFrom(BigInteger other) {
+        addSigned(other.magnitude(), !other.isNegative());
+        return this;
+    }
+
+    /**
+     * Multiplies this accumulator by an int.
+     *
+     * @param factor Value to multiply by
+     * @return This accumulator
+     */
+    public MutableBigInteger multiplyBy(int factor) {
+        if (factor == 0 || length == 0) {
+            clear();
+            return this;
+        }
+        long multiplier = Math.abs((long) factor);
+        long carry = 0;
+        for (int i = 0; i < length; i++) {
+            long product = (value[i] & LONG_MASK) * multiplier + carry;
+            value[i] = (int) product;
+            carry = product >>> 32;
+        }
+        if (carry != 0) {
+            ensureCapacity(length + 1);
+            value[length++] = (int) carry;
+        }
+        negative ^= factor < 0;
+        return this;
+    }
+
+    /**
+     * Multiplies this accumulator by a power of two.
+     *
+     * @param bits Non-negative number of bits to shift by
+     * @return This accumulator
+     * @throws IllegalArgumentException If bits is negative
+     */
+    public MutableBigInteger shiftLeft(int bits) {
+        if (bits < 0) {
+            throw new IllegalArgumentException("Negative shift.");
+        }
+        if (length == 0 || bits == 0) {
+            return this;
+        }
+        int words = bits >>> 5;
+        int shift = bits & 31;
+        ensureCapacity(length + words + 1);
+        if (shift == 0) {
+            System.arraycopy(value, 0, value, words, length);
+        } else {
+            value[length + words] = value[length - 1] >>> (32 - shift);
+            for (int i = length - 1; i > 0; i--) {
+                value[i + words] = (value[i] << shift) | (value[i - 1] >>> (32 - shift));
+            }
+            value[words] = value[0] << shift;
+        }
+        Arrays.fill(value, 0, words, 0);
+        length += words + 1;
+        normalize();
+        return this;
+    }
+
+    /**
+     * Checks if this accumulator is zero.
+     *
+     * @return True if zero
+     */
+    public boolean isZero() {
+        return length == 0;
+    }
+
+    /**
+     * Resets this accumulator to zero, keeping its buffer for reuse.
+     *
+     * @return This accumulator
+     */
+    public MutableBigInteger clear() {
+        Arrays.fill(value, 0, length, 0);
+        length = 0;
+        negative = false;
+        return this;
+    }
+
+    /**
+     * Takes an immutable snapshot of this accumulator.
+     *
+     * @return The current value as a BigInteger
+     */
+    public BigInteger toBigInteger() {
+        return new BigInteger(Arrays.copyOf(value, length), negative);
+    }
+
+    /**
+     * Converts the current value to a decimal string.
+     *
+     * @return String representation of the current value
+     */
+    @Override
+    public String toString() {
+        return toBigInteger().toString();
+    }
+
+    /**
+     * Adds a magnitude, taken with the given sign, to this accumulator in place.
+     *
+     * @param mag         Magnitude words without leading zero words
+     * @param magNegative Sign to apply to the magnitude
+     */
+    private void addSigned(int[] mag, boolean magNegative) {
+        if (mag.length == 0) {
+            return;
+        }
+        if (length == 0 || magNegative == negative) {
+            int newLength = Math.max(length, mag.length);
+            ensureCapacity(newLength + 1);
+            // Words above length are zero, so the longer operand can always be value
+            int carry = BigInteger.addMagnitudes(value, newLength, mag, mag.length, value);
+            value[newLength] = carry;
+            length = newLength + carry;
+            negative = magNegative;
+            return;
+        }
+        int comparison = compareMagnitude(mag);
+        if (comparison == 0) {
+            clear();
+        } else if (comparison > 0) {
+            BigInteger.subtractMagnitudes(value, length, mag, mag.length, value);
+            normalize();
+        } else {
+            ensureCapacity(mag.length);
+            BigInteger.subtractMagnitudes(mag, mag.length, value, length, value);
+            length = mag.length;
+            negative = magNegative;
+            normalize();
+        }
+    }
+
+    /**
+     * Compares the magnitude of this accumulator with another magnitude.
+     *
+     * @param mag Magnitude words without leading zero words
+     * @return Positive if this is larger, negative if smaller, zero if equal
+     */
+    private int compareMagnitude(int[] mag) {
+        if (length != mag.length) {
+            return length > mag.length ? 1 : -1;
+        }
+        for (int i = length - 1; i >= 0; i--) {
+            if (value[i] != mag[i]) {
+                return (value[i] & LONG_MASK) > (mag[i] & LONG_MASK) ? 1 : -1;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Drops leading zero words from the length, and the sign if the value became zero.
+     */
+    private void normalize() {
+        while (length > 0 && value[length - 1] == 0) {
+            length--;
+        }
+        if (length == 0) {
+            negative = false;
+        }
+    }
+
+    /**
+     * Grows the buffer to hold at least the given number of words.
+     * Grows by at least half the current size so repeated growth is amortized.
+     *
+     * @param capacity Required number of words
+     */
+    private void ensureCapacity(int capacity) {
+        if (capacity > value.length) {
+            value = Arrays.copyOf(value, Math.max(capacity, value.length + (value.length >> 1)));
+        }
+    }
+}
@@ -0,0 +1,265 @@
+/**
+ * Exact multiplication of large magnitudes through number-theoretic transforms.
+ * <p>
+ * Magnitudes are split into 16-bit coefficients and convolved modulo two
+ * NTT-friendly primes. Every convolution coefficient is below 2^54, which is
+ * smaller than the product of the primes, so the Chinese remainder theorem
+ * recovers it exactly. No floating point is involved.
+ * <p>
+ * For educational purposes only.
+ */
+final class NumberTheoreticTransform {
+
+    /**
+     * First prime, 119 * 2^23 + 1.
+     */
+    private static final int PRIME_ONE = 998244353;
+    /**
+     * Second prime, 7 * 2^26 + 1.
+     */
+    private static final int PRIME_TWO = 469762049;
+    /**
+     * Primitive root shared by both primes.
+     */
+    private static final int PRIMITIVE_ROOT = 3;
+    /**
+     * Inverse of PRIME_ONE modulo PRIME_TWO, used to recombine residues.
+     */
+    private static final long PRIME_ONE_INVERSE = 208783132;
+    /**
+     * Largest supported transform length. Bounded by the 2^23 factor of PRIME_ONE - 1.
+     */
+    private static final int MAX_LENGTH = 1 << 23;
+
+    private NumberTheoreticTransform() {
+    }
+
+    /**
+     * A magnitude transformed for one transform length, held modulo both primes.
+     * Instances are never modified after creation, so they can be shared and cached.
+     */
+    static final class Transform {
+
+        /**
+         * Transform length in coefficients.
+         */
+        final int length;
+        /**
+         * Transformed coefficients modulo PRIME_ONE.
+         */
+        final int[] residuesOne;
+        /**
+         * Transformed coefficients modulo PRIME_TWO.
+         */
+        final int[] residuesTwo;
+
+        private Transform(int length, int[] residuesOne, int[] residuesTwo) {
+            this.length = length;
+            this.residuesOne = residuesOne;
+            this.residuesTwo = residuesTwo;
+        }
+    }
+
+    /**
+     * Gets the transform length needed to multiply magnitudes of the given lengths.
+     *
+     * @param lengthOne Length of the first magnitude in words
+     * @param lengthTwo Length of the second magnitude in words
+     * @return Transform length, or -1 if the product is too large for this tier
+     */
+    static int transformLength(int lengthOne, int lengthTwo) {
+        long coefficients = 2L * lengthOne + 2L * lengthTwo;
+        if (coefficients > MAX_LENGTH) {
+            return -1;
+        }
+        int length = 1;
+        while (length < coefficients) {
+            length <<= 1;
+        }
+        return length;
+    }
+
+    /**
+     * Transforms a magnitude for the given transform length.
+     *
+     * @param mag    Magnitude words, least significant first
+     * @param length Transform length from transformLength()
+     * @return The transformed magnitude
+     */
+    static Transform forward(int[] mag, int length) {
+        int[] residuesOne = new int[length];
+        for (int i = 0; i < mag.length; i++) {
+            residuesOne[2 * i] = mag[i] & 0xffff;
+            residuesOne[2 * i + 1] = mag[i] >>> 16;
+        }
+        int[] residuesTwo = residuesOne.clone();
+        transform(residuesOne, PRIME_ONE, false);
+        transform(residuesTwo, PRIME_TWO, false);
+        return new Transform(length, residuesOne, residuesTwo);
+    }
+
+    /**
+     * Multiplies two transformed magnitudes of the same length.
+     *
+     * @param one       First transformed magnitude
+     * @param two       Second transformed magnitude
+     * @param magLength Upper bound on the product length in words
+     * @return The product magnitude, possibly with leading zero words
+     */
+    static int[] multiply(Transform one, Transform two, int magLength) {
+        int[] productOne = pointwiseMultiply(one.residuesOne, two.residuesOne, PRIME_ONE);
+        int[] productTwo = pointwiseMultiply(one.residuesTwo, two.residuesTwo, PRIME_TWO);
+        transform(productOne, PRIME_ONE, true);
+        transform(productTwo, PRIME_TWO, true);
+        return recombine(productOne, productTwo, magLength);
+    }
+
+    /**
+     * Multiplies the residues of two transforms element by element.
+     * The products carry an extra factor of 1/2^32, which the inverse transform removes.
+     *
+     * @param one     First residues
+     * @param two     Second residues
+     * @param modulus Prime the residues are taken modulo
+     * @return A new array holding the products
+     */
+    private static int[] pointwiseMultiply(int[] one, int[] two, int modulus) {
+        int negativeInverse = BigInteger.negativeInverse(modulus);
+        int[] result = new int[one.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = montgomeryMultiply(one[i], two[i], modulus, negativeInverse);
+        }
+        return result;
+    }
+
+    /**
+     * Recombines the convolution modulo both primes and propagates
+     * the 16-bit coefficient carries into 32-bit words.
+     *
+     * @param residuesOne Convolution modulo PRIME_ONE
+     * @param residuesTwo Convolution modulo PRIME_TWO
+     * @param magLength   Number of words to produce
+     * @return The product magnitude, possibly with leading zero words
+     */
+    private static int[] recombine(int[] residuesOne, int[] residuesTwo, int magLength) {
+        int[] result = new int[magLength];
+        long carry = 0;
+        for (int i = 0; i < 2 * magLength; i++) {
+            long one = residuesOne[i];
+            long difference = residuesTwo[i] - one % PRIME_TWO;
+            if (difference < 0) {
+                difference += PRIME_TWO;
+            }
+            carry += one + PRIME_ONE * (difference * PRIME_ONE_INVERSE % PRIME_TWO);
+            int half = (int) (carry & 0xffff);
+            carry >>>= 16;
+            if ((i & 1) == 0) {
+                result[i >> 1] = half;
+            } else {
+                result[i >> 1] |= half << 16;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Runs an in-place iterative radix-2 transform modulo a prime.
+     * <p>
+     * Twiddle factors are kept in Montgomery form (scaled by 2^32), so each butterfly
+     * needs a Montgomery multiplication instead of a 64-bit division. They are laid out
+     * level by level, with the factors for a butterfly span of h at indices h to 2h - 1.
+     *
+     * @param values  Coefficients, length a power of two
+     * @param modulus Prime to transform modulo
+     * @param inverse True for the inverse transform, which also undoes the 1/2^32
+     *                factor left by pointwiseMultiply and scales by 1/length
+     */
+    private static void transform(int[] values, int modulus, boolean inverse) {
+        int length = values.length;
+        for (int i = 1, j = 0; i < length; i++) {
+            int bit = length >> 1;
+            for (; (j & bit) != 0; bit >>= 1) {
+                j ^= bit;
+            }
+            j ^= bit;
+            if (i < j) {
+                int swap = values[i];
+                values[i] = values[j];
+                values[j] = swap;
+            }
+        }
+
+        int negativeInverse = BigInteger.negativeInverse(modulus);
+        long montgomeryOne = (1L << 32) % modulus;
+        int[] twiddles = new int[Math.max(2, length)];
+        for (int half = 1; half < length; half <<= 1) {
+            long root = power(PRIMITIVE_ROOT, (modulus - 1) / (2 * half), modulus);
+            if (inverse) {
+                root = power(root, modulus - 2, modulus);
+            }
+            long twiddle = montgomeryOne;
+            for (int k = 0; k < half; k++) {
+                twiddles[half + k] = (int) twiddle;
+                twiddle = twiddle * root % modulus;
+            }
+        }
+
+        for (int half = 1; half < length; half <<= 1) {
+            for (int start = 0; start < length; start += 2 * half) {
+                for (int k = 0; k < half; k++) {
+                    int u = values[start + k];
+                    int v = montgomeryMultiply(values[start + k + half], twiddles[half + k],
+                            modulus, negativeInverse);
+                    int sum = u + v;
+                    values[start + k] = sum >= modulus ? sum - modulus : sum;
+                    int difference = u - v;
+                    values[start + k + half] = difference < 0 ? difference + modulus : difference;
+                }
+            }
+        }
+
+        if (inverse) {
+            long scale = power(length, modulus - 2, modulus) * montgomeryOne % modulus * montgomeryOne % modulus;
+            for (int i = 0; i < length; i++) {
+                values[i] = montgomeryMultiply(values[i], (int) scale, modulus, negativeInverse);
+            }
+        }
+    }
+
+    /**
+     * Computes a * b / 2^32 modulo a prime below 2^30 without a division.
+     *
+     * @param a               First factor, below the modulus
+     * @param b               Second factor, below the modulus
+     * @param modulus         Prime modulus
+     * @param negativeInverse -1/modulus modulo 2^32
+     * @return a * b * 2^-32 mod modulus
+     */
+    private static int montgomeryMultiply(int a, int b, int modulus, int negativeInverse) {
+        long product = (long) a * b;
+        int reducer = (int) product * negativeInverse;
+        long reduced = (product + (reducer & 0xffffffffL) * modulus) >>> 32;
+        return (int) (reduced >= modulus ? reduced - modulus : reduced);
+    }
+
+    /**
+     * Raises a value to a power modulo a prime.
+     *
+     * @param base     Base
+     * @param exponent Non-negative exponent
+     * @param modulus  Modulus
+     * @return base^exponent mod modulus
+     */
+    private static long power(long base, long exponent, long modulus) {
+        long result = 1;
+        base %= modulus;
+        while (exponent > 0) {
+            if ((exponent & 1) != 0) {
+                result = result * base % modulus;
+            }
+            base = base * base % modulus;
+            exponent >>= 1;
+        }
+        return result;
+    }
+}
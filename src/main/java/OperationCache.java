@@ -0,0 +1,346 @@
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An opt-in cache of power() and multiply() results for workloads that repeat the
+ * same operations, such as powers of ten or products with a fixed modulus.
+ * <p>
+ * Entries are weighed by the bytes of their operands and result, and the least
+ * recently used entries are evicted once the total exceeds the byte limit given at
+ * construction. The cache is split into independently locked segments chosen by the
+ * key's hash, so threads working on different keys rarely wait for each other. The
+ * limit applies to the cache as a whole: any entry up to the full limit is admitted,
+ * and eviction takes the least recently used entry of each segment in turn, starting
+ * with the segment of the new entry, until the total fits again. Results are computed
+ * outside the locks; two threads missing on the same key at once both compute it and
+ * the first one stored wins.
+ * <p>
+ * Multiplication is commutative, so multiply(a, b) and multiply(b, a) share an entry.
+ * <p>
+ * This class is thread-safe.
+ * <p>
+ * For educational purposes only.
+ */
+public class OperationCache {
+
+    /**
+     * Number of independently locked segments, a power of two.
+     */
+    private static final int SEGMENTS = 16;
+    /**
+     * Estimated bytes an entry costs beyond its magnitude words: the key, the map
+     * entry, and the headers of the BigIntegers and their arrays.
+     */
+    private static final int ENTRY_OVERHEAD = 160;
+
+    /**
+     * Segments holding the entries, each an access-ordered map guarded by its own lock.
+     */
+    private final Segment[] segments;
+    /**
+     * Limit on the total estimated bytes of the cached entries.
+     */
+    private final long maxBytes;
+    /**
+     * Total estimated bytes of the cached entries in all segments.
+     */
+    private final AtomicLong weight = new AtomicLong();
+    /**
+     * Number of lookups that found a cached result.
+     */
+    private final LongAdder hits = new LongAdder();
+    /**
+     * Number of lookups that had to compute the result.
+     */
+    private final LongAdder misses = new LongAdder();
+    /**
+     * Number of entries removed to stay within the byte limit.
+     */
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Creates an empty cache.
+     *
+     * @param maxBytes Limit on the total estimated bytes of the cached entries
+     * @throws IllegalArgumentException If the limit is not positive
+     */
+    public OperationCache(long maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("Cache size not positive.");
+        }
+        this.maxBytes = maxBytes;
+        this.segments = new Segment[SEGMENTS];
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment();
+        }
+    }
+
+    /**
+     * Raises a base to a power, reusing an earlier result for the same operands.
+     *
+     * @param base     Base
+     * @param exponent Exponent
+     * @return base.power(exponent)
+     */
+    public BigInteger power(BigInteger base, BigInteger exponent) {
+        Key key = new Key('^', base, exponent);
+        BigInteger result = lookup(key);
+        if (result == null) {
+            result = base.power(exponent);
+            store(key, result);
+        }
+        return result;
+    }
+
+    /**
+     * Multiplies two values, reusing an earlier result for the same operands in either order.
+     *
+     * @param one First factor
+     * @param two Second factor
+     * @return one.multiply(two)
+     */
+    public BigInteger multiply(BigInteger one, BigInteger two) {
+        Key key = one.compareTo(two) <= 0 ? new Key('*', one, two) : new Key('*', two, one);
+        BigInteger result = lookup(key);
+        if (result == null) {
+            result = one.multiply(two);
+            store(key, result);
+        }
+        return result;
+    }
+
+    /**
+     * Gets the number of calls answered from the cache.
+     *
+     * @return Number of hits
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the number of calls that computed their result.
+     *
+     * @return Number of misses
+     */
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * Gets the number of entries evicted to stay within the byte limit.
+     *
+     * @return Number of evictions
+     */
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Gets the number of cached entries.
+     *
+     * @return Number of entries
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.entries.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Gets the total estimated bytes of the cached entries.
+     *
+     * @return Bytes in use, no more than the limit once concurrent stores have finished evicting
+     */
+    public long weight() {
+        return weight.get();
+    }
+
+    /**
+     * Removes all entries. The counters are kept.
+     */
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.entries.clear();
+                weight.addAndGet(-segment.weight);
+                segment.weight = 0;
+            }
+        }
+    }
+
+    /**
+     * Looks up a result and counts the hit or miss.
+     *
+     * @param key Operation and operands
+     * @return The cached result, or null if there is none
+     */
+    private BigInteger lookup(Key key) {
+        Segment segment = segments[segmentIndex(key)];
+        BigInteger result;
+        synchronized (segment) {
+            result = segment.entries.get(key);
+        }
+        if (result == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return result;
+    }
+
+    /**
+     * Stores a computed result, then evicts least recently used entries until the
+     * cache is within its limit. Results larger than the whole limit are not stored.
+     *
+     * @param key    Operation and operands
+     * @param result Result of the operation
+     */
+    private void store(Key key, BigInteger result) {
+        int index = segmentIndex(key);
+        Segment segment = segments[index];
+        long entryWeight = key.weight() + 4L * result.magnitude().length;
+        if (entryWeight > maxBytes) {
+            return;
+        }
+        synchronized (segment) {
+            if (segment.entries.putIfAbsent(key, result) != null) {
+                return;
+            }
+            segment.weight += entryWeight;
+            weight.addAndGet(entryWeight);
+        }
+        evict(index, key);
+    }
+
+    /**
+     * Evicts entries until the cache is within its limit, taking the least recently
+     * used entry of each segment in turn. Only one segment lock is held at a time.
+     * The entry just stored is kept, since it alone fits the limit.
+     *
+     * @param start Index of the segment to evict from first
+     * @param kept  Key of the entry just stored
+     */
+    private void evict(int start, Key kept) {
+        int idle = 0;
+        for (int i = start; weight.get() > maxBytes && idle < SEGMENTS; i = (i + 1) & (SEGMENTS - 1)) {
+            Segment segment = segments[i];
+            synchronized (segment) {
+                Iterator<Map.Entry<Key, BigInteger>> eldest = segment.entries.entrySet().iterator();
+                Map.Entry<Key, BigInteger> entry = eldest.hasNext() ? eldest.next() : null;
+                if (entry != null && entry.getKey().equals(kept)) {
+                    entry = eldest.hasNext() ? eldest.next() : null;
+                }
+                if (entry == null) {
+                    idle++;
+                    continue;
+                }
+                long entryWeight = entry.getKey().weight() + 4L * entry.getValue().magnitude().length;
+                eldest.remove();
+                segment.weight -= entryWeight;
+                weight.addAndGet(-entryWeight);
+                evictions.increment();
+                idle = 0;
+            }
+        }
+    }
+
+    /**
+     * Picks the segment for a key from its hash code.
+     *
+     * @param key Operation and operands
+     * @return Index of the segment holding the key
+     */
+    private int segmentIndex(Key key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & (SEGMENTS - 1);
+    }
+
+    /**
+     * One part of the cache: an access-ordered map and the bytes of its entries.
+     * All fields are guarded by the segment itself.
+     */
+    private static final class Segment {
+
+        /**
+         * Entries from least to most recently used.
+         */
+        private final LinkedHashMap<Key, BigInteger> entries = new LinkedHashMap<>(16, 0.75f, true);
+        /**
+         * Estimated bytes of this segment's entries.
+         */
+        private long weight;
+    }
+
+    /**
+     * An operation with its operands, compared by value.
+     */
+    private static final class Key {
+
+        /**
+         * Operator, '^' or '*'.
+         */
+        private final char operator;
+        /**
+         * Left operand.
+         */
+        private final BigInteger left;
+        /**
+         * Right operand.
+         */
+        private final BigInteger right;
+        /**
+         * Hash code, computed once.
+         */
+        private final int hash;
+
+        Key(char operator, BigInteger left, BigInteger right) {
+            this.operator = operator;
+            this.left = left;
+            this.right = right;
+            this.hash = (operator * 31 + left.hashCode()) * 31 + right.hashCode();
+        }
+
+        /**
+         * Estimates the bytes this key costs in the cache, including the entry overhead.
+         *
+         * @return Estimated bytes
+         */
+        long weight() {
+            return ENTRY_OVERHEAD + 4L * (left.magnitude().length + right.magnitude().length);
+        }
+
+        /**
+         * Gets the hash code of the operation and operands.
+         *
+         * @return Hash code
+         */
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        /**
+         * Compares the operation and operands of this and another key.
+         *
+         * @param obj Other key to compare
+         * @return True if both keys name the same operation on equal operands
+         */
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return hash == other.hash && operator == other.operator
+                    && left.equals(other.left) && right.equals(other.right);
+        }
+    }
+}
@@ -1,8 +1,28 @@
+import java.io.BufferedWriter;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.Scanner;
 
 public class TestDriver {
 
-    public static void main(String[] args) {
+    /**
+     * Runs the interactive calculator, or with an argument, evaluates a file of
+     * expressions (one per line, "-" for standard input) through BatchEvaluator,
+     * writing results to standard output and the throughput report to standard error.
+     *
+     * @param args Optional file of expressions
+     * @throws IOException If the file cannot be read
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0) {
+            runBatch(args[0]);
+            return;
+        }
         Scanner in = new Scanner(System.in);
         boolean quit = false;
         BigInteger result;
@@ -10,7 +30,7 @@ public class TestDriver {
         System.out.print("Enter an initial number: ");
         result = new BigInteger(in.nextLine());
         while(!quit) {
-            System.out.print("Enter an operation (+, -, /, *, ^, q to quit)");
+            System.out.print("Enter an operation (+, -, /, %, *, ^, q to quit)");
             String operation = in.nextLine();
             if(operation.equals("q")) {
                 quit = true;
@@ -23,19 +43,20 @@ public class TestDriver {
         }
     }
 
+    private static void runBatch(String file) throws IOException {
+        Writer output = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16);
+        BatchEvaluator evaluator = new BatchEvaluator();
+        try (Reader input = new InputStreamReader(
+                file.equals("-") ? System.in : new FileInputStream(file), StandardCharsets.UTF_8)) {
+            evaluator.evaluate(input, output);
+        }
+        System.err.println(evaluator.report());
+    }
+
     private static BigInteger performOperation(BigInteger firstInt, BigInteger secondInt, String operation) {
-        if(operation.equals("+")) {
-            return firstInt.add(secondInt);
-        } else if(operation.equals("-")) {
-            return firstInt.subtract(secondInt);
-        } else if(operation.equals("*")) {
-            return firstInt.multiply(secondInt);
-        } else if(operation.equals("/")) {
-            return firstInt.divide(secondInt);
-        } else if(operation.equals("^")) {
-            return firstInt.power(secondInt);
-        } else {
+        if(operation.length() != 1) {
             throw new IllegalArgumentException("Not an operation: " + operation);
         }
+        return Expression.apply(operation.charAt(0), firstInt, secondInt);
     }
 }
@@ -0,0 +1,132 @@
+import io.cucumber.java.en.Then;
+import io.cucumber.java.en.When;
+import org.junit.Assert;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class BatchEvaluatorStepDefs {
+
+    private BatchEvaluator evaluator;
+    private String output;
+
+    @Then("expression {string} should evaluate to {string}")
+    public void expressionShouldEvaluateTo(String expression, String expected) {
+        Expression parsed = Expression.parse(expression);
+        Assert.assertEquals(expected, parsed.evaluate().toString());
+        Assert.assertEquals(parsed, Expression.parse(parsed.toString()));
+    }
+
+    @Then("expression {string} should fail to parse with {string}")
+    public void expressionShouldFailToParseWith(String expression, String message) {
+        IllegalArgumentException ex = Assert.assertThrows(IllegalArgumentException.class,
+                () -> Expression.parse(expression));
+        Assert.assertEquals(message, ex.getMessage());
+    }
+
+    @Then("expressions {string} and {string} should be equal")
+    public void expressionsShouldBeEqual(String one, String two) {
+        Assert.assertEquals(Expression.parse(one), Expression.parse(two));
+        Assert.assertEquals(Expression.parse(one).hashCode(), Expression.parse(two).hashCode());
+    }
+
+    @Then("expressions {string} and {string} should not be equal")
+    public void expressionsShouldNotBeEqual(String one, String two) {
+        Assert.assertNotEquals(Expression.parse(one), Expression.parse(two));
+    }
+
+    @When("the batch {string} is evaluated")
+    public void theBatchIsEvaluated(String lines) throws IOException {
+        evaluator = new BatchEvaluator();
+        StringWriter writer = new StringWriter();
+        evaluator.evaluate(new StringReader(lines.replace('|', '\n')), writer);
+        output = writer.toString();
+    }
+
+    @Then("the batch output should be {string}")
+    public void theBatchOutputShouldBe(String expected) {
+        Assert.assertEquals(expected.replace('|', '\n') + "\n", output);
+    }
+
+    @Then("the batch should report {long} expressions, {long} failed and {long} shared subexpressions")
+    public void theBatchShouldReport(long expressions, long failures, long shared) {
+        Assert.assertEquals(expressions, evaluator.expressions());
+        Assert.assertEquals(failures, evaluator.failures());
+        Assert.assertEquals(shared, evaluator.shared());
+        Assert.assertTrue(evaluator.report().startsWith(expressions + " expressions"));
+    }
+
+    @Then("a batch of {int} random expressions evaluated in batches of {int} lines should match java.math.BigInteger")
+    public void aBatchOfRandomExpressionsShouldMatch(int count, int batchSize) throws IOException {
+        Random random = new Random(count * 31L + batchSize);
+        // A few shared operands so that repeated subexpressions occur across lines
+        String[] operands = new String[8];
+        for (int i = 0; i < operands.length; i++) {
+            operands[i] = TestValues.randomDigits(random, 1 + random.nextInt(60));
+        }
+        StringBuilder input = new StringBuilder();
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            StringBuilder text = new StringBuilder();
+            java.math.BigInteger reference = randomExpression(random, operands, 4, text);
+            expected.append(reference == null ? "error: Division by zero." : reference);
+            input.append(text).append('\n');
+            expected.append('\n');
+        }
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            BatchEvaluator batch = new BatchEvaluator(pool, batchSize);
+            StringWriter writer = new StringWriter();
+            batch.evaluate(new StringReader(input.toString()), writer);
+            Assert.assertEquals(expected.toString(), writer.toString());
+            Assert.assertEquals(count, batch.expressions());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // Appends a random expression and computes its value, or null if it divides by zero
+    private static java.math.BigInteger randomExpression(Random random, String[] operands, int depth,
+                                                         StringBuilder text) {
+        if (depth == 0 || random.nextInt(4) == 0) {
+            String operand = random.nextBoolean()
+                    ? operands[random.nextInt(operands.length)]
+                    : Integer.toString(random.nextInt(5));
+            text.append('(').append(operand).append(')');
+            return new java.math.BigInteger(operand);
+        }
+        char operator = "+-*/%^".charAt(random.nextInt(6));
+        text.append('(');
+        java.math.BigInteger left = randomExpression(random, operands, depth - 1, text);
+        text.append(' ').append(operator).append(' ');
+        java.math.BigInteger right;
+        if (operator == '^') {
+            int exponent = random.nextInt(4);
+            text.append(exponent);
+            right = java.math.BigInteger.valueOf(exponent);
+        } else {
+            right = randomExpression(random, operands, depth - 1, text);
+        }
+        text.append(')');
+        if (left == null || right == null || (right.signum() == 0 && (operator == '/' || operator == '%'))) {
+            return null;
+        }
+        switch (operator) {
+            case '+':
+                return left.add(right);
+            case '-':
+                return left.subtract(right);
+            case '*':
+                return left.multiply(right);
+            case '/':
+                return left.divide(right);
+            case '%':
+                return left.remainder(right);
+            default:
+                return left.pow(right.intValue());
+        }
+    }
+}
@@ -0,0 +1,128 @@
+import io.cucumber.java.en.Given;
+import io.cucumber.java.en.Then;
+import io.cucumber.java.en.When;
+import org.junit.Assert;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+public class BigIntegerAdderStepDefs {
+
+    private BigIntegerAdder adder;
+    private final ConcurrentLinkedQueue<java.math.BigInteger> added = new ConcurrentLinkedQueue<>();
+    private java.math.BigInteger drained = java.math.BigInteger.ZERO;
+
+    @Given("a new adder")
+    public void aNewAdder() {
+        adder = new BigIntegerAdder();
+    }
+
+    @When("{string} is added to the adder")
+    public void isAddedToTheAdder(String value) {
+        adder.add(new BigInteger(value));
+    }
+
+    @When("the adder is incremented {int} times")
+    public void theAdderIsIncremented(int times) {
+        for (int i = 0; i < times; i++) {
+            adder.increment();
+        }
+    }
+
+    @When("the adder is decremented {int} times")
+    public void theAdderIsDecremented(int times) {
+        for (int i = 0; i < times; i++) {
+            adder.decrement();
+        }
+    }
+
+    @When("{int} threads each add {int} random values to the adder")
+    public void threadsEachAddRandomValues(int threads, int count) throws InterruptedException {
+        joinAll(startAdding(threads, count));
+    }
+
+    @When("{int} threads each add {int} random values to the adder while another thread drains it")
+    public void threadsEachAddRandomValuesWhileDrained(int threads, int count) throws InterruptedException {
+        List<Thread> workers = startAdding(threads, count);
+        Thread drainer = new Thread(() -> {
+            while (workers.stream().anyMatch(Thread::isAlive)) {
+                drained = drained.add(new java.math.BigInteger(adder.sumThenReset().toString()));
+                Thread.yield();
+            }
+        });
+        drainer.start();
+        joinAll(workers);
+        drainer.join();
+    }
+
+    @Then("the adder sum should be {string}")
+    public void theAdderSumShouldBe(String expected) {
+        Assert.assertEquals(expected, adder.sum().toString());
+        Assert.assertEquals(expected, adder.toString());
+    }
+
+    @Then("resetting the adder should return {string}")
+    public void resettingTheAdderShouldReturn(String expected) {
+        Assert.assertEquals(expected, adder.sumThenReset().toString());
+    }
+
+    @Then("the adder sum should match the sum of the values added")
+    public void theAdderSumShouldMatch() {
+        Assert.assertEquals(expectedSum().toString(), adder.sum().toString());
+    }
+
+    @Then("the drained sums and the adder sum should add up to the sum of the values added")
+    public void theDrainedSumsShouldAddUp() {
+        java.math.BigInteger total = drained.add(new java.math.BigInteger(adder.sum().toString()));
+        Assert.assertEquals(expectedSum(), total);
+    }
+
+    private List<Thread> startAdding(int threads, int count) {
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Random random = new Random(t);
+            workers.add(new Thread(() -> {
+                for (int i = 0; i < count; i++) {
+                    // Mostly near the ends of the long range, so that partial sums spill
+                    java.math.BigInteger value;
+                    switch (random.nextInt(4)) {
+                        case 0:
+                            value = java.math.BigInteger.valueOf(random.nextInt(1000) - 500);
+                            break;
+                        case 1:
+                            value = java.math.BigInteger.valueOf(Long.MAX_VALUE - random.nextInt(1000));
+                            break;
+                        case 2:
+                            value = java.math.BigInteger.valueOf(Long.MIN_VALUE + random.nextInt(1000));
+                            break;
+                        default:
+                            value = new java.math.BigInteger(100, random).subtract(java.math.BigInteger.ONE.shiftLeft(99));
+                            break;
+                    }
+                    adder.add(new BigInteger(value.toString()));
+                    added.add(value);
+                }
+            }));
+        }
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        return workers;
+    }
+
+    private static void joinAll(List<Thread> workers) throws InterruptedException {
+        for (Thread worker : workers) {
+            worker.join();
+        }
+    }
+
+    private java.math.BigInteger expectedSum() {
+        java.math.BigInteger sum = java.math.BigInteger.ZERO;
+        for (java.math.BigInteger value : added) {
+            sum = sum.add(value);
+        }
+        return sum;
+    }
+}
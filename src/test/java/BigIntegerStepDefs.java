@@ -3,6 +3,12 @@ import io.cucumber.java.en.When;
 import io.cucumber.java.en.Then;
 import org.junit.Assert;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
 public class BigIntegerStepDefs {
 
     private BigInteger bigInt1;
@@ -11,6 +17,8 @@ public class BigIntegerStepDefs {
     private BigInteger mathResult;
     private String numericString;
     private BigInteger result;
+    private java.math.BigInteger reference1;
+    private java.math.BigInteger reference2;
 
     @Given("big integer 1 equal to {int}")
     public void big_integer1_equal_to(Integer value) {
@@ -22,6 +30,28 @@ public class BigIntegerStepDefs {
         this.bigInt2 = new BigInteger(value);
     }
 
+    @Given("big integer 1 created from long {long}")
+    public void bigInteger1CreatedFromLong(Long value) {
+        this.bigInt1 = BigInteger.valueOf(value);
+    }
+
+    @Given("big integer 2 created from long {long}")
+    public void bigInteger2CreatedFromLong(Long value) {
+        this.bigInt2 = BigInteger.valueOf(value);
+    }
+
+    @Then("creating big integers from long {long} should share one instance")
+    public void creatingBigIntegersFromLongShouldShareOneInstance(Long value) {
+        Assert.assertSame(BigInteger.valueOf(value), BigInteger.valueOf(value));
+    }
+
+    @Then("creating big integers from long {long} should give equal values")
+    public void creatingBigIntegersFromLongShouldGiveEqualValues(Long value) {
+        BigInteger created = BigInteger.valueOf(value);
+        Assert.assertEquals(new BigInteger(Long.toString(value)), created);
+        Assert.assertEquals(new BigInteger(Long.toString(value)).hashCode(), created.hashCode());
+    }
+
     @When("big integer 1 is converted to string")
     public void big_integer1_is_converted_to_string() {
         conversionResult = bigInt1.toString();
@@ -52,11 +82,56 @@ public class BigIntegerStepDefs {
         mathResult = bigInt1.divide(bigInt2);
     }
 
+    @When("big integers are divided with remainder")
+    public void big_integers_are_divided_with_remainder() {
+        mathResult = bigInt1.remainder(bigInt2);
+    }
+
+    @When("big integer 1 is reduced modulo big integer 2")
+    public void big_integer1_is_reduced_modulo_big_integer2() {
+        mathResult = bigInt1.mod(bigInt2);
+    }
+
+    @Then("dividing big integers should fail")
+    public void dividingBigIntegersShouldFail() {
+        try {
+            bigInt1.divide(bigInt2);
+            Assert.fail();
+        } catch (ArithmeticException ex) {
+            // Pass test
+        }
+    }
+
+    @Then("reducing big integer 1 modulo big integer 2 should fail")
+    public void reducingBigInteger1ModuloBigInteger2ShouldFail() {
+        try {
+            bigInt1.mod(bigInt2);
+            Assert.fail();
+        } catch (ArithmeticException ex) {
+            // Pass test
+        }
+    }
+
     @When("big integers are exponentiated")
     public void big_integers_are_exp() {
         mathResult = bigInt1.power(bigInt2);
     }
 
+    @When("big integer 1 is raised to big integer 2 modulo {string}")
+    public void bigInteger1IsRaisedToBigInteger2Modulo(String modulus) {
+        mathResult = bigInt1.modPow(bigInt2, new BigInteger(modulus));
+    }
+
+    @Then("raising big integer 1 to big integer 2 modulo {string} should fail")
+    public void raisingBigInteger1ToBigInteger2ModuloShouldFail(String modulus) {
+        try {
+            bigInt1.modPow(bigInt2, new BigInteger(modulus));
+            Assert.fail();
+        } catch (ArithmeticException ex) {
+            // Pass test
+        }
+    }
+
     @Then("math result should be {string}")
     public void math_result_should_be(String result) {
         Assert.assertEquals(result, mathResult.toString());
@@ -99,6 +174,33 @@ public class BigIntegerStepDefs {
         this.numericString = numericString;
     }
 
+    @Then("big integer 1 should compare to big integer 2 as {int}")
+    public void bigInteger1ShouldCompareToBigInteger2As(int expected) {
+        Assert.assertEquals(expected, Integer.signum(bigInt1.compareTo(bigInt2)));
+        Assert.assertEquals(-expected, Integer.signum(bigInt2.compareTo(bigInt1)));
+    }
+
+    @Then("the sign of big integer 1 should be {int}")
+    public void theSignOfBigInteger1ShouldBe(int expected) {
+        Assert.assertEquals(expected, bigInt1.signum());
+    }
+
+    @Then("sorting {int} random big integers should match the reference order")
+    public void sortingRandomBigIntegersShouldMatchTheReferenceOrder(int count) {
+        Random random = new Random(count);
+        List<BigInteger> values = new ArrayList<>();
+        List<java.math.BigInteger> references = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String digits = TestValues.randomDigits(random, 1 + random.nextInt(40));
+            values.add(new BigInteger(digits));
+            references.add(new java.math.BigInteger(digits));
+        }
+        Collections.sort(values);
+        Collections.sort(references);
+        Assert.assertEquals(references.toString(), values.toString());
+        Assert.assertEquals(Collections.max(references).toString(), Collections.max(values).toString());
+    }
+
     @Then("big integer should be smaller than other")
     public void bigIntegerShouldBeSmallerThanOther() {
         Assert.assertTrue(bigInt1.smallerThan(bigInt2));
@@ -188,4 +290,517 @@ public class BigIntegerStepDefs {
     public void resultShouldBe(String number) {
         Assert.assertEquals(number, result.toString());
     }
+
+    @Given("random big integers with {int} and {int} digits")
+    public void randomBigIntegersWithDigits(int digitsOne, int digitsTwo) {
+        Random random = new Random(digitsOne * 31L + digitsTwo);
+        String valueOne = TestValues.randomDigits(random, digitsOne);
+        String valueTwo = TestValues.randomDigits(random, digitsTwo);
+        this.bigInt1 = new BigInteger(valueOne);
+        this.bigInt2 = new BigInteger(valueTwo);
+        this.reference1 = new java.math.BigInteger(valueOne);
+        this.reference2 = new java.math.BigInteger(valueTwo);
+    }
+
+    @Then("{string} should match the reference implementation")
+    public void operationShouldMatchTheReferenceImplementation(String operation) {
+        String expected;
+        String actual;
+        if (operation.equals("+")) {
+            expected = reference1.add(reference2).toString();
+            actual = bigInt1.add(bigInt2).toString();
+        } else if (operation.equals("-")) {
+            expected = reference1.subtract(reference2).toString();
+            actual = bigInt1.subtract(bigInt2).toString();
+        } else if (operation.equals("*")) {
+            expected = reference1.multiply(reference2).toString();
+            actual = bigInt1.multiply(bigInt2).toString();
+        } else if (operation.equals("/")) {
+            expected = reference1.divide(reference2).toString();
+            actual = bigInt1.divide(bigInt2).toString();
+        } else if (operation.equals("%")) {
+            expected = reference1.remainder(reference2).toString();
+            actual = bigInt1.remainder(bigInt2).toString();
+        } else if (operation.equals("mod")) {
+            expected = reference1.mod(reference2.abs()).toString();
+            actual = bigInt1.mod(bigInt2.largerThanZero() ? bigInt2 : bigInt2.makeNegative()).toString();
+        } else if (operation.equals("divideAndRemainder")) {
+            java.math.BigInteger[] expectedParts = reference1.divideAndRemainder(reference2);
+            BigInteger[] actualParts = bigInt1.divideAndRemainder(bigInt2);
+            expected = expectedParts[0] + " " + expectedParts[1];
+            actual = actualParts[0] + " " + actualParts[1];
+        } else if (operation.equals("parallel *")) {
+            ForkJoinPool pool = new ForkJoinPool(8);
+            expected = reference1.multiply(reference2).toString();
+            actual = bigInt1.multiplyParallel(bigInt2, pool).toString();
+            pool.shutdown();
+        } else if (operation.equals("parallel square")) {
+            expected = reference1.multiply(reference1).toString();
+            actual = bigInt1.multiplyParallel(bigInt1).toString();
+        } else if (operation.equals("square")) {
+            expected = reference1.multiply(reference1).toString();
+            actual = bigInt1.multiply(bigInt1).toString();
+        } else if (operation.equals("modPow")) {
+            // Exponent and modulus both come from big integer 2; the odd and even moduli take different paths
+            java.math.BigInteger evenModulus = reference2.abs().shiftLeft(1);
+            java.math.BigInteger oddModulus = evenModulus.add(java.math.BigInteger.ONE);
+            BigInteger exponent = bigInt2.largerThanZero() ? bigInt2 : bigInt2.makeNegative();
+            BigInteger even = exponent.add(exponent);
+            BigInteger odd = even.add(new BigInteger(1));
+            expected = reference1.modPow(reference2.abs(), evenModulus) + " " + reference1.modPow(reference2.abs(), oddModulus);
+            actual = bigInt1.modPow(exponent, even) + " " + bigInt1.modPow(exponent, odd);
+        } else if (operation.equals("bitLength")) {
+            expected = reference1.bitLength() + " " + reference2.bitLength();
+            actual = bigInt1.bitLength() + " " + bigInt2.bitLength();
+        } else if (operation.equals("digitCount")) {
+            expected = reference1.abs().toString().length() + " " + reference2.abs().toString().length();
+            actual = bigInt1.digitCount() + " " + bigInt2.digitCount();
+        } else if (operation.equals("sqrt")) {
+            // Checks root^2 <= |n| < (root + 1)^2 and the remainder against the reference multiply
+            java.math.BigInteger n = reference1.abs();
+            BigInteger[] parts = new BigInteger(n.toString()).sqrtAndRemainder();
+            java.math.BigInteger root = new java.math.BigInteger(parts[0].toString());
+            java.math.BigInteger next = root.add(java.math.BigInteger.ONE);
+            expected = "true " + n.subtract(root.multiply(root));
+            actual = (next.multiply(next).compareTo(n) > 0) + " " + parts[1];
+        } else if (operation.equals("nthRoot")) {
+            StringBuilder expectedRoots = new StringBuilder();
+            StringBuilder actualRoots = new StringBuilder();
+            BigInteger magnitude = bigInt1.largerThanZero() ? bigInt1 : bigInt1.makeNegative();
+            for (int n : new int[]{3, 5, 7, 64}) {
+                java.math.BigInteger root = new java.math.BigInteger(magnitude.nthRoot(n).toString());
+                java.math.BigInteger next = root.add(java.math.BigInteger.ONE);
+                expectedRoots.append("true true ");
+                actualRoots.append(root.pow(n).compareTo(reference1.abs()) <= 0).append(' ')
+                        .append(next.pow(n).compareTo(reference1.abs()) > 0).append(' ');
+            }
+            expected = expectedRoots.toString();
+            actual = actualRoots.toString();
+        } else if (operation.equals("isPerfectPower")) {
+            BigInteger cube = bigInt2.power(new BigInteger(3));
+            BigInteger seventh = bigInt2.power(new BigInteger(7));
+            expected = "true true false false";
+            actual = cube.isPerfectPower() + " " + seventh.isPerfectPower() + " "
+                    + seventh.add(new BigInteger(2)).isPerfectPower() + " " + seventh.multiply(new BigInteger(2)).isPerfectPower();
+        } else if (operation.equals("gcd")) {
+            expected = reference1.gcd(reference2).toString();
+            actual = bigInt1.gcd(bigInt2).toString();
+        } else if (operation.equals("lcm")) {
+            expected = reference1.multiply(reference2).abs().divide(reference1.gcd(reference2)).toString();
+            actual = bigInt1.lcm(bigInt2).toString();
+        } else if (operation.equals("extendedGcd")) {
+            BigInteger[] parts = bigInt1.extendedGcd(bigInt2);
+            java.math.BigInteger gcd = reference1.gcd(reference2);
+            java.math.BigInteger x = new java.math.BigInteger(parts[1].toString());
+            java.math.BigInteger y = new java.math.BigInteger(parts[2].toString());
+            expected = gcd + " " + gcd + " true";
+            actual = parts[0] + " " + reference1.multiply(x).add(reference2.multiply(y))
+                    + " " + (x.signum() >= 0 && x.compareTo(reference2.abs().divide(gcd)) < 0);
+        } else if (operation.equals("modInverse")) {
+            // The modulus is |big integer 2| with any factor shared with big integer 1 removed
+            java.math.BigInteger modulus = reference2.abs();
+            for (java.math.BigInteger g = modulus.gcd(reference1); !g.equals(java.math.BigInteger.ONE); g = modulus.gcd(reference1)) {
+                modulus = modulus.divide(g);
+            }
+            expected = reference1.modInverse(modulus).toString();
+            actual = bigInt1.modInverse(new BigInteger(modulus.toString())).toString();
+        } else if (operation.equals("shiftLeft")) {
+            expected = reference1.shiftLeft(37) + " " + reference1.shiftLeft(64) + " " + reference1.shiftLeft(-45);
+            actual = bigInt1.shiftLeft(37) + " " + bigInt1.shiftLeft(64) + " " + bigInt1.shiftLeft(-45);
+        } else if (operation.equals("shiftRight")) {
+            expected = reference1.shiftRight(37) + " " + reference1.shiftRight(64) + " " + reference1.shiftRight(-45);
+            actual = bigInt1.shiftRight(37) + " " + bigInt1.shiftRight(64) + " " + bigInt1.shiftRight(-45);
+        } else if (operation.equals("and")) {
+            expected = reference1.and(reference2) + " " + reference1.negate().and(reference2);
+            actual = bigInt1.and(bigInt2) + " " + bigInt1.makeNegative().and(bigInt2);
+        } else if (operation.equals("or")) {
+            expected = reference1.or(reference2) + " " + reference1.negate().or(reference2);
+            actual = bigInt1.or(bigInt2) + " " + bigInt1.makeNegative().or(bigInt2);
+        } else if (operation.equals("xor")) {
+            expected = reference1.xor(reference2) + " " + reference1.negate().xor(reference2);
+            actual = bigInt1.xor(bigInt2) + " " + bigInt1.makeNegative().xor(bigInt2);
+        } else if (operation.equals("andNot")) {
+            expected = reference1.andNot(reference2) + " " + reference1.negate().andNot(reference2);
+            actual = bigInt1.andNot(bigInt2) + " " + bigInt1.makeNegative().andNot(bigInt2);
+        } else if (operation.equals("not")) {
+            expected = reference1.not() + " " + reference2.not();
+            actual = bigInt1.not() + " " + bigInt2.not();
+        } else if (operation.equals("bitCount")) {
+            expected = reference1.bitCount() + " " + reference2.bitCount() + " " + reference1.getLowestSetBit();
+            actual = bigInt1.bitCount() + " " + bigInt2.bitCount() + " " + bigInt1.getLowestSetBit();
+        } else if (operation.equals("bits")) {
+            StringBuilder expectedBits = new StringBuilder();
+            StringBuilder actualBits = new StringBuilder();
+            for (int bit = 0; bit < reference1.bitLength() + 70; bit += 97) {
+                expectedBits.append(reference1.testBit(bit) ? '1' : '0').append(reference1.setBit(bit))
+                        .append(reference1.clearBit(bit)).append(reference1.flipBit(bit));
+                actualBits.append(bigInt1.testBit(bit) ? '1' : '0').append(bigInt1.setBit(bit))
+                        .append(bigInt1.clearBit(bit)).append(bigInt1.flipBit(bit));
+            }
+            expected = expectedBits.toString();
+            actual = actualBits.toString();
+        } else if (operation.equals("isProbablePrime")) {
+            // Products and squares of the primes above big integers 1 and 2 are composite without small factors
+            java.math.BigInteger p = reference1.abs().nextProbablePrime();
+            java.math.BigInteger q = reference2.abs().nextProbablePrime();
+            java.math.BigInteger[] values = {reference1, reference2, p, q, p.multiply(q), q.multiply(q)};
+            StringBuilder expectedPrimes = new StringBuilder();
+            StringBuilder actualPrimes = new StringBuilder();
+            for (java.math.BigInteger value : values) {
+                expectedPrimes.append(value.isProbablePrime(100)).append(' ');
+                actualPrimes.append(new BigInteger(value.toString()).isProbablePrime(100)).append(' ');
+            }
+            expected = expectedPrimes.toString();
+            actual = actualPrimes.toString();
+        } else if (operation.equals("nextProbablePrime")) {
+            expected = reference1.abs().nextProbablePrime() + " " + reference2.abs().nextProbablePrime();
+            actual = new BigInteger(reference1.abs().toString()).nextProbablePrime() + " "
+                    + new BigInteger(reference2.abs().toString()).nextProbablePrime();
+        } else if (operation.equals("parallel nextProbablePrime")) {
+            ForkJoinPool pool = new ForkJoinPool(8);
+            expected = reference1.abs().nextProbablePrime().toString();
+            actual = new BigInteger(reference1.abs().toString()).nextProbablePrime(pool).toString();
+            pool.shutdown();
+        } else if (operation.equals("toString")) {
+            expected = reference1.toString();
+            actual = bigInt1.toString();
+        } else {
+            throw new IllegalArgumentException("Not an operation: " + operation);
+        }
+        Assert.assertEquals(expected, actual);
+    }
+
+    @Given("random big integers with {int} and {int} digits sharing a factor of {int} digits")
+    public void randomBigIntegersSharingAFactor(int digitsOne, int digitsTwo, int digitsFactor) {
+        Random random = new Random(digitsOne * 31L + digitsTwo * 17L + digitsFactor);
+        java.math.BigInteger factor = new java.math.BigInteger(TestValues.randomDigits(random, digitsFactor)).abs();
+        this.reference1 = new java.math.BigInteger(TestValues.randomDigits(random, digitsOne)).multiply(factor);
+        this.reference2 = new java.math.BigInteger(TestValues.randomDigits(random, digitsTwo)).multiply(factor);
+        this.bigInt1 = new BigInteger(reference1.toString());
+        this.bigInt2 = new BigInteger(reference2.toString());
+    }
+
+    @Given("random big integer 1 with {int} digits and big integer 2 equal to {int} to the power {int}")
+    public void randomBigIntegerAndPowerOfTwo(int digits, int base, int exponent) {
+        Random random = new Random(digits * 31L + exponent);
+        this.reference1 = new java.math.BigInteger(TestValues.randomDigits(random, digits));
+        this.reference2 = java.math.BigInteger.valueOf(base).pow(exponent);
+        this.bigInt1 = new BigInteger(reference1.toString());
+        this.bigInt2 = new BigInteger(reference2.toString());
+    }
+
+    @Then("{string} shifted left by {int} should be {string}")
+    public void shiftedLeftShouldBe(String value, int n, String result) {
+        Assert.assertEquals(result, new BigInteger(value).shiftLeft(n).toString());
+    }
+
+    @Then("{string} shifted right by {int} should be {string}")
+    public void shiftedRightShouldBe(String value, int n, String result) {
+        Assert.assertEquals(result, new BigInteger(value).shiftRight(n).toString());
+    }
+
+    @Then("{string} {word} {string} should be {string}")
+    public void bitwiseOperationShouldBe(String one, String operation, String two, String result) {
+        BigInteger left = new BigInteger(one);
+        BigInteger right = new BigInteger(two);
+        BigInteger actual;
+        if (operation.equals("and")) {
+            actual = left.and(right);
+        } else if (operation.equals("or")) {
+            actual = left.or(right);
+        } else if (operation.equals("xor")) {
+            actual = left.xor(right);
+        } else if (operation.equals("andNot")) {
+            actual = left.andNot(right);
+        } else {
+            throw new IllegalArgumentException("Not an operation: " + operation);
+        }
+        Assert.assertEquals(result, actual.toString());
+    }
+
+    @Then("bit {int} of {string} should be {int}")
+    public void bitShouldBe(int bit, String value, int expected) {
+        Assert.assertEquals(expected == 1, new BigInteger(value).testBit(bit));
+    }
+
+    @Then("{string} should have {int} bits differing from the sign and lowest set bit {int}")
+    public void bitCountAndLowestSetBitShouldBe(String value, int bitCount, int lowestSetBit) {
+        Assert.assertEquals(bitCount, new BigInteger(value).bitCount());
+        Assert.assertEquals(lowestSetBit, new BigInteger(value).getLowestSetBit());
+    }
+
+    @Then("testing bit {int} of {string} should fail")
+    public void testingBitShouldFail(int bit, String value) {
+        try {
+            new BigInteger(value).testBit(bit);
+            Assert.fail();
+        } catch (ArithmeticException ex) {
+            // Pass test
+        }
+    }
+
+    @Then("the gcd of {string} and {string} should be {string}")
+    public void theGcdShouldBe(String one, String two, String gcd) {
+        Assert.assertEquals(gcd, new BigInteger(one).gcd(new BigInteger(two)).toString());
+    }
+
+    @Then("the lcm of {string} and {string} should be {string}")
+    public void theLcmShouldBe(String one, String two, String lcm) {
+        Assert.assertEquals(lcm, new BigInteger(one).lcm(new BigInteger(two)).toString());
+    }
+
+    @Then("the extended gcd of {string} and {string} should be {string} with coefficients {string} and {string}")
+    public void theExtendedGcdShouldBe(String one, String two, String gcd, String x, String y) {
+        BigInteger[] parts = new BigInteger(one).extendedGcd(new BigInteger(two));
+        Assert.assertEquals(gcd + " " + x + " " + y, parts[0] + " " + parts[1] + " " + parts[2]);
+    }
+
+    @Then("the inverse of {string} modulo {string} should be {string}")
+    public void theInverseShouldBe(String value, String modulus, String inverse) {
+        Assert.assertEquals(inverse, new BigInteger(value).modInverse(new BigInteger(modulus)).toString());
+    }
+
+    @Then("inverting {string} modulo {string} should fail")
+    public void invertingShouldFail(String value, String modulus) {
+        try {
+            new BigInteger(value).modInverse(new BigInteger(modulus));
+            Assert.fail();
+        } catch (ArithmeticException ex) {
+            // Pass test
+        }
+    }
+
+    @Then("greatest common divisors of consecutive Fibonacci numbers up to {int} should be one")
+    public void greatestCommonDivisorsOfFibonacciNumbersShouldBeOne(int count) {
+        java.math.BigInteger previous = java.math.BigInteger.ONE;
+        java.math.BigInteger current = java.math.BigInteger.ONE;
+        for (int i = 0; i < count; i++) {
+            java.math.BigInteger next = previous.add(current);
+            previous = current;
+            current = next;
+            if (i % 250 == 0) {
+                BigInteger one = new BigInteger(previous.toString());
+                BigInteger two = new BigInteger(current.toString());
+                Assert.assertEquals("1", one.gcd(two).toString());
+                BigInteger[] parts = two.extendedGcd(one);
+                Assert.assertEquals(java.math.BigInteger.ONE, current.multiply(new java.math.BigInteger(parts[1].toString()))
+                        .add(previous.multiply(new java.math.BigInteger(parts[2].toString()))));
+            }
+        }
+    }
+
+    @Then("powers of ten with up to {int} digits should round-trip through strings")
+    public void powersOfTenShouldRoundTripThroughStrings(int digits) {
+        for (int length = 1; length <= digits; length += length < 100 ? 1 : 97) {
+            for (int offset = -1; offset <= 1; offset++) {
+                String expected = java.math.BigInteger.TEN.pow(length - 1).add(java.math.BigInteger.valueOf(offset)).toString();
+                Assert.assertEquals(expected, new BigInteger(expected).toString());
+            }
+        }
+    }
+
+    @Then("bit lengths and digit counts around powers of two and ten up to {int} should match the reference implementation")
+    public void bitLengthsAndDigitCountsShouldMatchTheReferenceImplementation(int exponent) {
+        for (int k = 0; k <= exponent; k++) {
+            java.math.BigInteger[] bases = {java.math.BigInteger.ONE.shiftLeft(k), java.math.BigInteger.TEN.pow(k)};
+            for (java.math.BigInteger base : bases) {
+                for (int offset = -1; offset <= 1; offset++) {
+                    java.math.BigInteger reference = base.add(java.math.BigInteger.valueOf(offset));
+                    for (java.math.BigInteger signed : new java.math.BigInteger[]{reference, reference.negate()}) {
+                        BigInteger value = new BigInteger(signed.toString());
+                        Assert.assertEquals(signed.toString(), signed.bitLength(), value.bitLength());
+                        Assert.assertEquals(signed.toString(), signed.abs().toString().length(), value.digitCount());
+                    }
+                }
+            }
+        }
+    }
+
+    @Then("the derived properties of big integer 1 should be cached")
+    public void theDerivedPropertiesOfBigInteger1ShouldBeCached() {
+        String string = bigInt1.toString();
+        Assert.assertSame(string, bigInt1.toString());
+        Assert.assertEquals(string.replace("-", "").length(), bigInt1.digitCount());
+        Assert.assertEquals(bigInt1.bitLength(), bigInt1.bitLength());
+        BigInteger copy = new BigInteger(string);
+        Assert.assertEquals(bigInt1.hashCode(), copy.hashCode());
+        Assert.assertEquals(bigInt1.hashCode(), bigInt1.hashCode());
+        Assert.assertEquals(bigInt1, copy);
+        Assert.assertNotEquals(bigInt1, copy.add(new BigInteger(1)));
+    }
+
+    @Then("the square root of {string} should be {string} with remainder {string}")
+    public void theSquareRootShouldBe(String value, String root, String remainder) {
+        BigInteger[] parts = new BigInteger(value).sqrtAndRemainder();
+        Assert.assertEquals(root, parts[0].toString());
+        Assert.assertEquals(remainder, parts[1].toString());
+        Assert.assertEquals(root, new BigInteger(value).sqrt().toString());
+    }
+
+    @Then("root {int} of {string} should be {string}")
+    public void theRootShouldBe(int n, String value, String root) {
+        Assert.assertEquals(root, new BigInteger(value).nthRoot(n).toString());
+    }
+
+    @Then("taking the square root of {string} should fail")
+    public void takingTheSquareRootShouldFail(String value) {
+        try {
+            new BigInteger(value).sqrt();
+            Assert.fail();
+        } catch (ArithmeticException ex) {
+            // Pass test
+        }
+    }
+
+    @Then("taking root {int} of {string} should fail")
+    public void takingTheRootShouldFail(int n, String value) {
+        try {
+            new BigInteger(value).nthRoot(n);
+            Assert.fail();
+        } catch (ArithmeticException ex) {
+            // Pass test
+        }
+    }
+
+    @Then("{string} should be a perfect power")
+    public void shouldBeAPerfectPower(String value) {
+        Assert.assertTrue(new BigInteger(value).isPerfectPower());
+    }
+
+    @Then("{string} should not be a perfect power")
+    public void shouldNotBeAPerfectPower(String value) {
+        Assert.assertFalse(new BigInteger(value).isPerfectPower());
+    }
+
+    @Then("perfect powers up to {int} should match a brute force search")
+    public void perfectPowersShouldMatchABruteForceSearch(int limit) {
+        boolean[] powers = new boolean[limit + 1];
+        powers[0] = true;
+        powers[1] = true;
+        for (long base = 2; base * base <= limit; base++) {
+            for (long power = base * base; power <= limit; power *= base) {
+                powers[(int) power] = true;
+            }
+        }
+        for (int i = 0; i <= limit; i++) {
+            Assert.assertEquals(String.valueOf(i), powers[i], new BigInteger(i).isPerfectPower());
+        }
+    }
+
+    @Then("{string} should be probably prime")
+    public void shouldBeProbablyPrime(String value) {
+        Assert.assertTrue(new BigInteger(value).isProbablePrime(100));
+    }
+
+    @Then("{string} should not be probably prime")
+    public void shouldNotBeProbablyPrime(String value) {
+        Assert.assertFalse(new BigInteger(value).isProbablePrime(100));
+    }
+
+    @Then("probable primes up to {int} should match a sieve")
+    public void probablePrimesShouldMatchASieve(int limit) {
+        boolean[] composite = new boolean[limit + 1];
+        composite[0] = true;
+        composite[1] = true;
+        for (int i = 2; (long) i * i <= limit; i++) {
+            if (!composite[i]) {
+                for (int j = i * i; j <= limit; j += i) {
+                    composite[j] = true;
+                }
+            }
+        }
+        for (int i = 0; i <= limit; i++) {
+            Assert.assertEquals(String.valueOf(i), !composite[i], new BigInteger(i).isProbablePrime(100));
+        }
+    }
+
+    @Then("the next probable prime after {string} should be {string}")
+    public void theNextProbablePrimeShouldBe(String value, String prime) {
+        Assert.assertEquals(prime, new BigInteger(value).nextProbablePrime().toString());
+    }
+
+    @Then("finding the next probable prime after {string} should fail")
+    public void findingTheNextProbablePrimeShouldFail(String value) {
+        try {
+            new BigInteger(value).nextProbablePrime();
+            Assert.fail();
+        } catch (ArithmeticException ex) {
+            // Pass test
+        }
+    }
+
+    @Then("the factorial of {int} should be {string}")
+    public void theFactorialShouldBe(int n, String factorial) {
+        Assert.assertEquals(factorial, BigInteger.factorial(n).toString());
+    }
+
+    @Then("{int} choose {int} should be {string}")
+    public void theBinomialShouldBe(int n, int k, String binomial) {
+        Assert.assertEquals(binomial, BigInteger.binomial(n, k).toString());
+    }
+
+    @Then("the product of the range from {int} to {int} should be {string}")
+    public void theProductOfTheRangeShouldBe(int from, int to, String product) {
+        Assert.assertEquals(product, BigInteger.productOfRange(from, to).toString());
+    }
+
+    @Then("taking the factorial of {int} should fail")
+    public void takingTheFactorialShouldFail(int n) {
+        try {
+            BigInteger.factorial(n);
+            Assert.fail();
+        } catch (ArithmeticException ex) {
+            // Pass test
+        }
+    }
+
+    @Then("taking {int} choose {int} should fail")
+    public void takingTheBinomialShouldFail(int n, int k) {
+        try {
+            BigInteger.binomial(n, k);
+            Assert.fail();
+        } catch (ArithmeticException ex) {
+            // Pass test
+        }
+    }
+
+    @Then("factorials and binomials up to {int} should match repeated multiplication")
+    public void factorialsAndBinomialsShouldMatchRepeatedMultiplication(int limit) {
+        java.math.BigInteger factorial = java.math.BigInteger.ONE;
+        for (int n = 0; n <= limit; n++) {
+            if (n > 0) {
+                factorial = factorial.multiply(java.math.BigInteger.valueOf(n));
+            }
+            Assert.assertEquals(String.valueOf(n), factorial.toString(), BigInteger.factorial(n).toString());
+            java.math.BigInteger binomial = java.math.BigInteger.ONE;
+            for (int k = 0; k <= n; k++) {
+                Assert.assertEquals(n + " " + k, binomial.toString(), BigInteger.binomial(n, k).toString());
+                binomial = binomial.multiply(java.math.BigInteger.valueOf(n - k)).divide(java.math.BigInteger.valueOf(k + 1));
+            }
+        }
+    }
+
+    @Then("the factorial of {int} should match repeated multiplication")
+    public void theFactorialShouldMatchRepeatedMultiplication(int n) {
+        Assert.assertEquals(referenceProduct(1, n).toString(), BigInteger.factorial(n).toString());
+    }
+
+    @Then("{int} choose {int} should match repeated multiplication")
+    public void theBinomialShouldMatchRepeatedMultiplication(int n, int k) {
+        java.math.BigInteger expected = referenceProduct(n - k + 1, n).divide(referenceProduct(1, k));
+        Assert.assertEquals(expected.toString(), BigInteger.binomial(n, k).toString());
+    }
+
+    @Then("the product of the range from {int} to {int} should match repeated multiplication")
+    public void theProductOfTheRangeShouldMatchRepeatedMultiplication(int from, int to) {
+        Assert.assertEquals(referenceProduct(from, to).toString(), BigInteger.productOfRange(from, to).toString());
+    }
+
+    private static java.math.BigInteger referenceProduct(int from, int to) {
+        java.math.BigInteger product = java.math.BigInteger.ONE;
+        for (int i = from; i <= to; i++) {
+            product = product.multiply(java.math.BigInteger.valueOf(i));
+        }
+        return product;
+    }
 }
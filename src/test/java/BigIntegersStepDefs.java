@@ -0,0 +1,121 @@
+import io.cucumber.java.en.Given;
+import io.cucumber.java.en.When;
+import io.cucumber.java.en.Then;
+import org.junit.Assert;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class BigIntegersStepDefs {
+
+    private BigInteger[] values;
+    private BigInteger[] secondValues;
+    private java.math.BigInteger[] references;
+    private java.math.BigInteger[] secondReferences;
+    private BigInteger result;
+
+    @Given("big integer values {string}")
+    public void bigIntegerValues(String list) {
+        values = parse(list);
+    }
+
+    @Given("second big integer values {string}")
+    public void secondBigIntegerValues(String list) {
+        secondValues = parse(list);
+    }
+
+    @Given("{int} random big integer values with up to {int} digits")
+    public void randomBigIntegerValues(int count, int digits) {
+        Random random = new Random(count * 31L + digits);
+        values = new BigInteger[count];
+        secondValues = new BigInteger[count];
+        references = new java.math.BigInteger[count];
+        secondReferences = new java.math.BigInteger[count];
+        for (int i = 0; i < count; i++) {
+            String one = TestValues.randomDigits(random, 1 + random.nextInt(digits));
+            String two = TestValues.randomDigits(random, 1 + random.nextInt(digits));
+            values[i] = new BigInteger(one);
+            secondValues[i] = new BigInteger(two);
+            references[i] = new java.math.BigInteger(one);
+            secondReferences[i] = new java.math.BigInteger(two);
+        }
+    }
+
+    @When("the values are summed")
+    public void theValuesAreSummed() {
+        result = BigIntegers.sum(values);
+    }
+
+    @When("the dot product is taken")
+    public void theDotProductIsTaken() {
+        result = BigIntegers.dot(values, secondValues);
+    }
+
+    @When("the values are multiplied together")
+    public void theValuesAreMultipliedTogether() {
+        result = BigIntegers.product(values);
+    }
+
+    @Then("the bulk result should be {string}")
+    public void theBulkResultShouldBe(String expected) {
+        Assert.assertEquals(expected, result.toString());
+    }
+
+    @Then("the prefix sums should be {string}")
+    public void thePrefixSumsShouldBe(String expected) {
+        Assert.assertEquals("[" + expected + "]", Arrays.toString(BigIntegers.prefixSums(values)));
+    }
+
+    @Then("taking the dot product should fail")
+    public void takingTheDotProductShouldFail() {
+        try {
+            BigIntegers.dot(values, secondValues);
+            Assert.fail();
+        } catch (IllegalArgumentException ex) {
+            // Pass test
+        }
+    }
+
+    @Then("{string} of the values should match the reference implementation")
+    public void operationOfTheValuesShouldMatchTheReferenceImplementation(String operation) {
+        java.math.BigInteger sum = java.math.BigInteger.ZERO;
+        java.math.BigInteger dot = java.math.BigInteger.ZERO;
+        java.math.BigInteger product = java.math.BigInteger.ONE;
+        java.math.BigInteger[] prefixSums = new java.math.BigInteger[references.length];
+        for (int i = 0; i < references.length; i++) {
+            sum = sum.add(references[i]);
+            dot = dot.add(references[i].multiply(secondReferences[i]));
+            product = product.multiply(references[i]);
+            prefixSums[i] = sum;
+        }
+        if (operation.equals("sum")) {
+            Assert.assertEquals(sum.toString(), BigIntegers.sum(values).toString());
+        } else if (operation.equals("parallel sum")) {
+            Assert.assertEquals(sum.toString(), BigIntegers.sumParallel(values).toString());
+        } else if (operation.equals("prefix sums")) {
+            Assert.assertEquals(Arrays.toString(prefixSums), Arrays.toString(BigIntegers.prefixSums(values)));
+        } else if (operation.equals("dot")) {
+            Assert.assertEquals(dot.toString(), BigIntegers.dot(values, secondValues).toString());
+        } else if (operation.equals("parallel dot")) {
+            Assert.assertEquals(dot.toString(), BigIntegers.dotParallel(values, secondValues).toString());
+        } else if (operation.equals("product")) {
+            Assert.assertEquals(product.toString(), BigIntegers.product(values).toString());
+        } else if (operation.equals("parallel product")) {
+            Assert.assertEquals(product.toString(), BigIntegers.productParallel(values).toString());
+        } else {
+            throw new IllegalArgumentException("Not an operation: " + operation);
+        }
+    }
+
+    private static BigInteger[] parse(String list) {
+        if (list.isEmpty()) {
+            return new BigInteger[0];
+        }
+        String[] parts = list.split(", ");
+        BigInteger[] parsed = new BigInteger[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            parsed[i] = new BigInteger(parts[i]);
+        }
+        return parsed;
+    }
+}
@@ -0,0 +1,174 @@
+import io.cucumber.java.en.Given;
+import io.cucumber.java.en.When;
+import io.cucumber.java.en.Then;
+import org.junit.Assert;
+
+import java.util.Random;
+
+public class ModularContextStepDefs {
+
+    private ModularContext context;
+    private ModularContext.Residue a;
+    private ModularContext.Residue b;
+
+    @Given("a modular context with modulus {string}")
+    public void aModularContextWithModulus(String modulus) {
+        context = new ModularContext(new BigInteger(modulus));
+    }
+
+    @Given("residues a of {string} and b of {string}")
+    public void residuesAAndB(String valueA, String valueB) {
+        a = context.residue(new BigInteger(valueA));
+        b = context.residue(new BigInteger(valueB));
+    }
+
+    @When("a is updated in place by {string} with b")
+    public void aIsUpdatedInPlaceWithB(String operation) {
+        apply(operation, a, b, true);
+    }
+
+    @When("a is updated in place by {string} with a")
+    public void aIsUpdatedInPlaceWithA(String operation) {
+        apply(operation, a, a, true);
+    }
+
+    @When("a is copied to b")
+    public void aIsCopiedToB() {
+        b = a.copy();
+    }
+
+    @Then("residue a should be {string}")
+    public void residueAShouldBe(String value) {
+        Assert.assertEquals(value, a.toBigInteger().toString());
+    }
+
+    @Then("residue b should be {string}")
+    public void residueBShouldBe(String value) {
+        Assert.assertEquals(value, b.toString());
+    }
+
+    @Then("the residue of {string} should be {string}")
+    public void theResidueShouldBe(String value, String residue) {
+        Assert.assertEquals(residue, context.residue(new BigInteger(value)).toBigInteger().toString());
+    }
+
+    @Then("the residues {string} {word} {string} should give {string}")
+    public void theResiduesShouldGive(String valueOne, String operation, String valueTwo, String expected) {
+        ModularContext.Residue one = context.residue(new BigInteger(valueOne));
+        if (operation.equals("pow")) {
+            Assert.assertEquals(expected, context.pow(one, new BigInteger(valueTwo)).toString());
+            Assert.assertEquals(expected, context.powInPlace(one, new BigInteger(valueTwo)).toString());
+            return;
+        }
+        ModularContext.Residue two = context.residue(new BigInteger(valueTwo));
+        Assert.assertEquals(expected, apply(operation, one, two, false).toString());
+        Assert.assertEquals(expected, apply(operation, one, two, true).toString());
+    }
+
+    @Then("creating a modular context with modulus {string} should fail")
+    public void creatingAModularContextShouldFail(String modulus) {
+        try {
+            new ModularContext(new BigInteger(modulus));
+            Assert.fail();
+        } catch (ArithmeticException ex) {
+            // Pass test
+        }
+    }
+
+    @Then("inverting {string} modulo {string} in a modular context should fail")
+    public void invertingInAModularContextShouldFail(String value, String modulus) {
+        ModularContext context = new ModularContext(new BigInteger(modulus));
+        try {
+            context.inverse(context.residue(new BigInteger(value)));
+            Assert.fail();
+        } catch (ArithmeticException ex) {
+            // Pass test
+        }
+    }
+
+    @Then("combining residues of different modular contexts should fail")
+    public void combiningResiduesOfDifferentContextsShouldFail() {
+        ModularContext one = new ModularContext(new BigInteger("101"));
+        ModularContext two = new ModularContext(new BigInteger("101"));
+        try {
+            one.mul(one.one(), two.one());
+            Assert.fail();
+        } catch (IllegalArgumentException ex) {
+            // Pass test
+        }
+    }
+
+    @Then("a chain of {int} random operations modulo a {int} digit odd modulus should match the reference implementation")
+    public void aChainOfRandomOperationsShouldMatch(int count, int digits) {
+        Random random = new Random(count * 31L + digits);
+        java.math.BigInteger modulus = new java.math.BigInteger(TestValues.randomPositiveDigits(random, digits))
+                .setBit(0);
+        ModularContext context = new ModularContext(new BigInteger(modulus.toString()));
+        java.math.BigInteger reference = new java.math.BigInteger(TestValues.randomPositiveDigits(random, digits + 5));
+        ModularContext.Residue accumulator = context.residue(new BigInteger(reference.toString()));
+        reference = reference.mod(modulus);
+        for (int i = 0; i < count; i++) {
+            String operandDigits = TestValues.randomDigits(random, 1 + random.nextInt(digits));
+            java.math.BigInteger operand = new java.math.BigInteger(operandDigits);
+            ModularContext.Residue residue = context.residue(new BigInteger(operand.toString()));
+            boolean inPlace = random.nextBoolean();
+            String operation = new String[]{"add", "sub", "mul", "mul", "square", "pow", "inverse"}[random.nextInt(7)];
+            if (operation.equals("pow")) {
+                String exponentDigits = TestValues.randomPositiveDigits(random, 1 + random.nextInt(40));
+                java.math.BigInteger exponent = new java.math.BigInteger(exponentDigits);
+                reference = reference.modPow(exponent, modulus);
+                BigInteger power = new BigInteger(exponent.toString());
+                accumulator = inPlace ? context.powInPlace(accumulator, power) : context.pow(accumulator, power);
+            } else if (operation.equals("inverse") && !reference.gcd(modulus).equals(java.math.BigInteger.ONE)) {
+                continue;
+            } else {
+                reference = applyReference(operation, reference, operand.mod(modulus), modulus);
+                accumulator = apply(operation, accumulator, residue, inPlace);
+            }
+            Assert.assertEquals(operation + " " + i, reference.toString(), accumulator.toBigInteger().toString());
+        }
+    }
+
+    private ModularContext.Residue apply(String operation, ModularContext.Residue one, ModularContext.Residue two,
+                                         boolean inPlace) {
+        switch (operation) {
+            case "add":
+                return inPlace ? context(one).addInPlace(one, two) : context(one).add(one, two);
+            case "sub":
+                return inPlace ? context(one).subInPlace(one, two) : context(one).sub(one, two);
+            case "mul":
+                return inPlace ? context(one).mulInPlace(one, two) : context(one).mul(one, two);
+            case "square":
+                return inPlace ? context(one).squareInPlace(one) : context(one).square(one);
+            case "pow":
+                BigInteger exponent = two.toBigInteger();
+                return inPlace ? context(one).powInPlace(one, exponent) : context(one).pow(one, exponent);
+            case "inverse":
+                return inPlace ? context(one).inverseInPlace(one) : context(one).inverse(one);
+            default:
+                throw new IllegalArgumentException("Not an operation: " + operation);
+        }
+    }
+
+    private static ModularContext context(ModularContext.Residue residue) {
+        return residue.context();
+    }
+
+    private static java.math.BigInteger applyReference(String operation, java.math.BigInteger one,
+                                                       java.math.BigInteger two, java.math.BigInteger modulus) {
+        switch (operation) {
+            case "add":
+                return one.add(two).mod(modulus);
+            case "sub":
+                return one.subtract(two).mod(modulus);
+            case "mul":
+                return one.multiply(two).mod(modulus);
+            case "square":
+                return one.multiply(one).mod(modulus);
+            case "inverse":
+                return one.modInverse(modulus);
+            default:
+                throw new IllegalArgumentException("Not an operation: " + operation);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+import io.cucumber.java.en.Given;
+import io.cucumber.java.en.When;
+import io.cucumber.java.en.Then;
+import org.junit.Assert;
+
+import java.util.Random;
+
+public class MutableBigIntegerStepDefs {
+
+    private MutableBigInteger accumulator;
+    private BigInteger saved;
+    private java.math.BigInteger referenceSum;
+
+    @Given("an accumulator starting at {string}")
+    public void anAccumulatorStartingAt(String value) {
+        accumulator = new MutableBigInteger(new BigInteger(value));
+    }
+
+    @When("{string} is added to the accumulator")
+    public void isAddedToTheAccumulator(String value) {
+        accumulator.addTo(new BigInteger(value));
+    }
+
+    @When("{string} is subtracted from the accumulator")
+    public void isSubtractedFromTheAccumulator(String value) {
+        accumulator.subtractFrom(new BigInteger(value));
+    }
+
+    @When("the accumulator is multiplied by {int}")
+    public void theAccumulatorIsMultipliedBy(int factor) {
+        accumulator.multiplyBy(factor);
+    }
+
+    @When("the accumulator is shifted left by {int} bits")
+    public void theAccumulatorIsShiftedLeftBy(int bits) {
+        accumulator.shiftLeft(bits);
+    }
+
+    @When("the accumulator is saved")
+    public void theAccumulatorIsSaved() {
+        saved = accumulator.toBigInteger();
+    }
+
+    @When("{int} random big integers with {int} digits are accumulated")
+    public void randomBigIntegersAreAccumulated(int count, int digits) {
+        Random random = new Random(count * 31L + digits);
+        referenceSum = java.math.BigInteger.ZERO;
+        for (int i = 0; i < count; i++) {
+            String value = TestValues.randomDigits(random, 1 + random.nextInt(digits));
+            accumulator.addTo(new BigInteger(value));
+            referenceSum = referenceSum.add(new java.math.BigInteger(value));
+        }
+    }
+
+    @Then("the accumulator should be {string}")
+    public void theAccumulatorShouldBe(String value) {
+        Assert.assertEquals(value, accumulator.toBigInteger().toString());
+    }
+
+    @Then("the saved value should be {string}")
+    public void theSavedValueShouldBe(String value) {
+        Assert.assertEquals(value, saved.toString());
+    }
+
+    @Then("the accumulator should match the reference sum")
+    public void theAccumulatorShouldMatchTheReferenceSum() {
+        Assert.assertEquals(referenceSum.toString(), accumulator.toString());
+    }
+}
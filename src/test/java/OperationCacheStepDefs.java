@@ -0,0 +1,122 @@
+import io.cucumber.java.en.Given;
+import io.cucumber.java.en.Then;
+import io.cucumber.java.en.When;
+import org.junit.Assert;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+public class OperationCacheStepDefs {
+
+    private OperationCache cache;
+    private BigInteger result;
+    private final ConcurrentLinkedQueue<String[]> checks = new ConcurrentLinkedQueue<>();
+
+    @Given("an operation cache of {long} bytes")
+    public void anOperationCacheOfBytes(long bytes) {
+        cache = new OperationCache(bytes);
+    }
+
+    @When("{string} is raised to {string} through the cache {int} times")
+    public void isRaisedToThroughTheCache(String base, String exponent, int times) {
+        for (int i = 0; i < times; i++) {
+            result = cache.power(new BigInteger(base), new BigInteger(exponent));
+        }
+    }
+
+    @When("{string} is multiplied by {string} through the cache")
+    public void isMultipliedByThroughTheCache(String one, String two) {
+        result = cache.multiply(new BigInteger(one), new BigInteger(two));
+    }
+
+    @When("{int} distinct powers of 2 up to 2^{int} are computed through the cache")
+    public void distinctPowersOfTwoAreComputedThroughTheCache(int count, int maxExponent) {
+        Random random = new Random(count);
+        for (int i = 0; i < count; i++) {
+            int exponent = 1 + random.nextInt(maxExponent);
+            BigInteger power = cache.power(new BigInteger(2), new BigInteger(exponent));
+            checks.add(new String[]{power.toString(), java.math.BigInteger.ONE.shiftLeft(exponent).toString()});
+        }
+    }
+
+    @When("{int} threads each compute {int} random powers and products through the cache")
+    public void threadsEachComputeRandomPowersAndProducts(int threads, int operations) throws InterruptedException {
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Random random = new Random(t);
+            workers.add(new Thread(() -> {
+                for (int i = 0; i < operations; i++) {
+                    // Few distinct operands, so that threads hit each other's entries
+                    int one = random.nextInt(40) - 20;
+                    int two = random.nextInt(40);
+                    java.math.BigInteger base = java.math.BigInteger.valueOf(one);
+                    if (random.nextBoolean()) {
+                        BigInteger value = cache.power(new BigInteger(one), new BigInteger(two));
+                        checks.add(new String[]{value.toString(), base.pow(two).toString()});
+                    } else {
+                        BigInteger value = cache.multiply(new BigInteger(one).power(new BigInteger(7)), new BigInteger(two));
+                        checks.add(new String[]{value.toString(),
+                                base.pow(7).multiply(java.math.BigInteger.valueOf(two)).toString()});
+                    }
+                }
+            }));
+        }
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+    }
+
+    @Then("the cached result should be {string}")
+    public void theCachedResultShouldBe(String expected) {
+        Assert.assertEquals(expected, result.toString());
+    }
+
+    @Then("the cache should report {long} hits, {long} misses and {long} evictions")
+    public void theCacheShouldReport(long hits, long misses, long evictions) {
+        Assert.assertEquals(hits, cache.hits());
+        Assert.assertEquals(misses, cache.misses());
+        Assert.assertEquals(evictions, cache.evictions());
+    }
+
+    @Then("the cache should hold at most {long} bytes")
+    public void theCacheShouldHoldAtMostBytes(long bytes) {
+        Assert.assertTrue(cache.weight() <= bytes);
+        Assert.assertTrue(cache.size() > 0);
+    }
+
+    @Then("the cache should hold {int} entries")
+    public void theCacheShouldHoldEntries(int entries) {
+        Assert.assertEquals(entries, cache.size());
+    }
+
+    @Then("the cache should have evicted entries")
+    public void theCacheShouldHaveEvictedEntries() {
+        Assert.assertTrue(cache.evictions() > 0);
+    }
+
+    @Then("raising {string} to {string} through the cache should be answered from the cache")
+    public void raisingThroughTheCacheShouldBeAnsweredFromTheCache(String base, String exponent) {
+        long hits = cache.hits();
+        cache.power(new BigInteger(base), new BigInteger(exponent));
+        Assert.assertEquals(hits + 1, cache.hits());
+    }
+
+    @Then("every result should match java.math.BigInteger")
+    public void everyResultShouldMatch() {
+        Assert.assertFalse(checks.isEmpty());
+        for (String[] check : checks) {
+            Assert.assertEquals(check[1], check[0]);
+        }
+    }
+
+    @Then("the hits and misses should add up to {long}")
+    public void theHitsAndMissesShouldAddUpTo(long calls) {
+        Assert.assertEquals(calls, cache.hits() + cache.misses());
+        Assert.assertTrue(cache.hits() > 0);
+    }
+}
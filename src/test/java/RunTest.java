@@ -3,7 +3,7 @@ import io.cucumber.junit.CucumberOptions;
 import org.junit.runner.RunWith;
 
 @RunWith(Cucumber.class)
-@CucumberOptions(features="resources/features", glue="")
+@CucumberOptions(features="classpath:features", glue="")
 
 public class RunTest {
 
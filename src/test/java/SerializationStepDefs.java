@@ -0,0 +1,203 @@
+import io.cucumber.java.en.Given;
+import io.cucumber.java.en.Then;
+import org.junit.Assert;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+public class SerializationStepDefs {
+
+    private BigInteger[] values;
+    private Path file;
+
+    @Then("the binary encoding of {string} should be {string}")
+    public void theBinaryEncodingShouldBe(String value, String expected) {
+        byte[] bytes = new BigInteger(value).toByteArray();
+        Assert.assertEquals(expected, toHex(bytes));
+        Assert.assertEquals(bytes.length, new BigInteger(value).binarySize());
+    }
+
+    @Then("random big integers with up to {int} digits should round-trip through byte arrays")
+    public void randomBigIntegersShouldRoundTripThroughByteArrays(int digits) {
+        Random random = new Random(digits);
+        for (int i = 0; i < 200; i++) {
+            String value = TestValues.randomDigits(random, 1 + random.nextInt(digits));
+            BigInteger original = new BigInteger(value);
+            Assert.assertEquals(value, BigInteger.fromByteArray(original.toByteArray()).toString());
+        }
+    }
+
+    @Then("random big integers with up to {int} digits should round-trip through a big-endian buffer")
+    public void randomBigIntegersShouldRoundTripThroughABigEndianBuffer(int digits) {
+        Random random = new Random(digits);
+        BigInteger[] originals = new BigInteger[200];
+        int size = 0;
+        for (int i = 0; i < originals.length; i++) {
+            originals[i] = new BigInteger(TestValues.randomDigits(random, 1 + random.nextInt(digits)));
+            size += originals[i].binarySize();
+        }
+        ByteBuffer buffer = ByteBuffer.allocateDirect(size);
+        for (BigInteger original : originals) {
+            original.writeTo(buffer);
+        }
+        Assert.assertEquals(ByteOrder.BIG_ENDIAN, buffer.order());
+        Assert.assertFalse(buffer.hasRemaining());
+        Assert.assertThrows(java.nio.BufferOverflowException.class, () -> BigInteger.ONE.writeTo(buffer));
+        ((Buffer) buffer).flip();
+        for (BigInteger original : originals) {
+            Assert.assertEquals(original, BigInteger.readFrom(buffer));
+        }
+        Assert.assertEquals(ByteOrder.BIG_ENDIAN, buffer.order());
+        Assert.assertThrows(java.nio.BufferUnderflowException.class, () -> BigInteger.readFrom(buffer));
+    }
+
+    @Then("decoding {string} should fail")
+    public void decodingShouldFail(String hex) {
+        byte[] bytes = fromHex(hex);
+        Assert.assertThrows(NumberFormatException.class, () -> BigInteger.fromByteArray(bytes));
+    }
+
+    @Given("{int} random big integers with up to {int} digits are written to a file in {int} byte windows")
+    public void randomBigIntegersAreWrittenToAFile(int count, int digits, int windowSize) throws IOException {
+        Random random = new Random(count * 31L + digits);
+        values = new BigInteger[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = new BigInteger(TestValues.randomDigits(random, 1 + random.nextInt(digits)));
+        }
+        file = Files.createTempFile("biginteger", ".bin");
+        try (BigIntegerFileWriter writer = new BigIntegerFileWriter(file, windowSize)) {
+            writer.writeAll(values);
+        }
+    }
+
+    @Then("reading the file in {int} byte windows should give the same big integers")
+    public void readingTheFileShouldGiveTheSameBigIntegers(int windowSize) throws IOException {
+        try {
+            long expectedSize = 0;
+            for (BigInteger value : values) {
+                expectedSize += value.binarySize();
+            }
+            Assert.assertEquals(expectedSize, Files.size(file));
+            try (BigIntegerFileReader reader = new BigIntegerFileReader(file, windowSize)) {
+                Assert.assertArrayEquals(values, reader.readAll());
+                Assert.assertFalse(reader.hasNext());
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Then("random big integers with up to {int} digits should round-trip through decimal streams")
+    public void randomBigIntegersShouldRoundTripThroughDecimalStreams(int digits) throws IOException {
+        Random random = new Random(digits);
+        for (int i = 0; i < 200; i++) {
+            assertDecimalStreamRoundTrip(TestValues.randomDigits(random, 1 + random.nextInt(digits)));
+        }
+    }
+
+    @Then("a random big integer with {int} digits should round-trip through decimal streams")
+    public void aRandomBigIntegerShouldRoundTripThroughDecimalStreams(int digits) throws IOException {
+        assertDecimalStreamRoundTrip(TestValues.randomDigits(new Random(digits), digits));
+    }
+
+    @Then("parsing {int} zeros followed by {string} should fail")
+    public void parsingZerosFollowedByShouldFail(int zeros, String digits) {
+        String text = zeros(zeros) + digits;
+        Assert.assertThrows(NumberFormatException.class, () -> BigInteger.parse(new StringReader(text)));
+    }
+
+    @Then("parsing {string} followed by {int} zeros and {string} should give {string}")
+    public void parsingFollowedByZerosShouldGive(String prefix, int zeros, String digits, String expected)
+            throws IOException {
+        String text = prefix + zeros(zeros) + digits;
+        Assert.assertEquals(expected, BigInteger.parse(new StringReader(text)).toString());
+    }
+
+    @Then("parsing {string} followed by a {word} should give {string}")
+    public void parsingFollowedByWhitespaceShouldGive(String digits, String whitespace, String expected)
+            throws IOException {
+        String text = digits + whitespace(whitespace);
+        Assert.assertEquals(expected, BigInteger.parse(new StringReader(text)).toString());
+    }
+
+    @Then("parsing {int} zeros followed by {string} and a {word} should give {string}")
+    public void parsingZerosFollowedByWhitespaceShouldGive(int zeros, String digits, String whitespace,
+                                                           String expected) throws IOException {
+        String text = zeros(zeros) + digits + whitespace(whitespace);
+        Assert.assertEquals(expected, BigInteger.parse(new StringReader(text)).toString());
+    }
+
+    @Then("parsing {string} followed by a {word} and {string} should fail")
+    public void parsingFollowedByWhitespaceAndShouldFail(String digits, String whitespace, String rest) {
+        String text = digits + whitespace(whitespace) + rest;
+        Assert.assertThrows(NumberFormatException.class, () -> BigInteger.parse(new StringReader(text)));
+    }
+
+    @Then("writing {string} to a decimal stream should give {string}")
+    public void writingToADecimalStreamShouldGive(String value, String expected) throws IOException {
+        StringWriter writer = new StringWriter();
+        new BigInteger(value).writeDecimal(writer);
+        Assert.assertEquals(expected, writer.toString());
+    }
+
+    private static void assertDecimalStreamRoundTrip(String value) throws IOException {
+        BigInteger parsed = BigInteger.parse(new StringReader(value));
+        Assert.assertEquals(new BigInteger(value), parsed);
+        StringWriter writer = new StringWriter();
+        parsed.writeDecimal(writer);
+        Assert.assertEquals(value, writer.toString());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        parsed.writeDecimal(out);
+        Assert.assertEquals(value, new String(out.toByteArray(), StandardCharsets.US_ASCII));
+        Assert.assertEquals(parsed, BigInteger.parse(new ByteArrayInputStream(out.toByteArray())));
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder builder = new StringBuilder(2 * bytes.length);
+        for (byte b : bytes) {
+            builder.append(String.format("%02x", b));
+        }
+        return builder.toString();
+    }
+
+    private static byte[] fromHex(String hex) {
+        byte[] bytes = new byte[hex.length() / 2];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) Integer.parseInt(hex.substring(2 * i, 2 * i + 2), 16);
+        }
+        return bytes;
+    }
+
+    private static String whitespace(String name) {
+        switch (name) {
+            case "newline":
+                return "\n";
+            case "CRLF":
+                return "\r\n";
+            case "space":
+                return " ";
+            case "tab":
+                return "\t";
+            default:
+                throw new IllegalArgumentException("Not a kind of whitespace: " + name);
+        }
+    }
+
+    private static String zeros(int count) {
+        char[] zeros = new char[count];
+        Arrays.fill(zeros, '0');
+        return new String(zeros);
+    }
+}
@@ -0,0 +1,20 @@
+import java.util.Random;
+
+final class TestValues {
+
+    private TestValues() {
+    }
+
+    static String randomDigits(Random random, int digits) {
+        return random.nextBoolean() ? "-" + randomPositiveDigits(random, digits) : randomPositiveDigits(random, digits);
+    }
+
+    static String randomPositiveDigits(Random random, int digits) {
+        StringBuilder builder = new StringBuilder(digits);
+        builder.append((char) ('1' + random.nextInt(9)));
+        for (int i = 1; i < digits; i++) {
+            builder.append((char) ('0' + random.nextInt(10)));
+        }
+        return builder.toString();
+    }
+}
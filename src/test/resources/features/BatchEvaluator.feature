@@ -0,0 +1,67 @@
+Feature: Test batch evaluation of arithmetic expressions
+
+  #####################
+  # Parsing
+  #####################
+
+  @PositiveTest
+  @Expression
+  Scenario Outline: Test expressions are evaluated with the usual precedence
+    Then expression "<expression>" should evaluate to "<result>"
+
+    Examples:
+      | expression                   | result |
+      | 1 + 2 * 3                    | 7      |
+      | (1 + 2) * 3                  | 9      |
+      | 2 ^ 3 ^ 2                    | 512    |
+      | -2 ^ 2                       | -4     |
+      | (-2) ^ 2                     | 4      |
+      | 2 ^ -1                       | 0      |
+      | 10 - 4 - 3                   | 3      |
+      | 100 / 10 / 5                 | 2      |
+      | -7 / 2                       | -3     |
+      | -7 % 2                       | -1     |
+      | 2 - -3                       | 5      |
+      | - (4 * 5)                    | -20    |
+      | (2 ^ 64 - 1) % 1000000007    | 582344007 |
+
+  @NegativeTest
+  @Expression
+  Scenario Outline: Test malformed expressions are rejected
+    Then expression "<expression>" should fail to parse with "<message>"
+
+    Examples:
+      | expression | message                       |
+      | 1 +        | Unexpected end of expression. |
+      | (1 + 2     | Unexpected end of expression. |
+      | 1 + 2)     | Unexpected ')' at position 5. |
+      | 3 x 4      | Unexpected 'x' at position 2. |
+      |            | Unexpected end of expression. |
+
+  @PositiveTest
+  @Expression
+  Scenario: Test equal subexpressions are equal expressions
+    Then expressions "(2 ^ 10 - 1) * 3" and "(2^10-1)*3" should be equal
+    And expressions "2 - 1" and "1 - 2" should not be equal
+
+  #####################
+  # Batches
+  #####################
+
+  @PositiveTest
+  @BatchEvaluator
+  Scenario: Test a batch writes one line per expression in order
+    When the batch "1 + 1|(2 ^ 100 - 1) * (2 ^ 100 - 1)||7 / 0|2 ^ 100 - 1|1 +" is evaluated
+    Then the batch output should be "2|1606938044258990275541962092338627301321746534979799428890625|error: Division by zero.|1267650600228229401496703205375|error: Unexpected end of expression."
+    And the batch should report 5 expressions, 2 failed and 2 shared subexpressions
+
+  @PositiveTest
+  @BatchEvaluator
+  Scenario Outline: Test random batches match java.math.BigInteger
+    Then a batch of <count> random expressions evaluated in batches of <batch> lines should match java.math.BigInteger
+
+    Examples:
+      | count | batch |
+      | 2000  | 4096  |
+      | 2000  | 7     |
+      | 300   | 1     |
@@ -55,6 +55,34 @@ Feature: Test correctness of BigInteger
     When big integer 1 is converted to string
     Then conversion result should be "-15000000"
 
+  @PositiveTest
+  @Creation
+  Scenario: Test creation of big integer with leading zeros
+    Given initial result "-0000000000000000000000000000000000000000000000000000012345678901234567890"
+    Then result should be "-12345678901234567890"
+
+  @PositiveTest
+  @Creation
+  Scenario: Test powers of ten keep their zeros through conversion
+    Then powers of ten with up to 5000 digits should round-trip through strings
+
+  @PositiveTest
+  @Creation
+  Scenario: Test creation of big integer from a long
+    Given big integer 1 created from long -9223372036854775808
+    When big integer 1 is converted to string
+    Then conversion result should be "-9223372036854775808"
+
+  @PositiveTest
+  @Creation
+  Scenario: Test small big integers are shared
+    Then creating big integers from long -16 should share one instance
+    And creating big integers from long 0 should share one instance
+    And creating big integers from long 1024 should share one instance
+    And creating big integers from long 1025 should give equal values
+    And creating big integers from long -17 should give equal values
+    And creating big integers from long 4294967296 should give equal values
+
   @NegativeTest
   @Creation
   Scenario: Test creation of bad big integer is rejected
@@ -222,6 +250,50 @@ Feature: Test correctness of BigInteger
     And big integer 2 equal to 2000
     Then big integer should be smaller than other
 
+  @PositiveTest
+  @CompareTo
+  Scenario: Test compare to orders by sign first
+    Given big integer 1 equal to -5000000
+    And big integer 2 equal to 3
+    Then big integer 1 should compare to big integer 2 as -1
+
+  @PositiveTest
+  @CompareTo
+  Scenario: Test compare to orders negative numbers by magnitude
+    Given big integer 1 created from long -9223372036854775808
+    And big integer 2 equal to -1
+    Then big integer 1 should compare to big integer 2 as -1
+
+  @PositiveTest
+  @CompareTo
+  Scenario: Test compare to finds equal numbers
+    Given big integer 1 equal to 500
+    And big integer 2 equal to 500
+    Then big integer 1 should compare to big integer 2 as 0
+
+  @PositiveTest
+  @CompareTo
+  Scenario: Test sorting big integers
+    Then sorting 2000 random big integers should match the reference order
+
+  @PositiveTest
+  @Signum
+  Scenario: Test sign of a negative big integer
+    Given big integer 1 equal to -7
+    Then the sign of big integer 1 should be -1
+
+  @PositiveTest
+  @Signum
+  Scenario: Test sign of zero
+    Given big integer 1 equal to 0
+    Then the sign of big integer 1 should be 0
+
+  @PositiveTest
+  @Signum
+  Scenario: Test sign of a positive big integer
+    Given big integer 1 equal to 7
+    Then the sign of big integer 1 should be 1
+
   @PositiveTest
   @IsEven
   Scenario: Test even check for an even number
@@ -324,6 +396,14 @@ Feature: Test correctness of BigInteger
     When big integers are added together
     Then math result should be "500"
 
+  @PositiveTest
+  @Addition
+  Scenario: Test addition of big integers overflowing a long
+    Given big integer 1 created from long 9223372036854775807
+    And big integer 2 created from long 1
+    When big integers are added together
+    Then math result should be "9223372036854775808"
+
   #####################
   # Subtraction
   #####################
@@ -400,6 +480,14 @@ Feature: Test correctness of BigInteger
     When big integers are subtracted
     Then math result should be "-600"
 
+  @PositiveTest
+  @Subtraction
+  Scenario: Test subtraction of big integers overflowing a long
+    Given big integer 1 created from long -9223372036854775807
+    And big integer 2 created from long 9223372036854775807
+    When big integers are subtracted
+    Then math result should be "-18446744073709551614"
+
   #####################
   # Multiplication
   #####################
@@ -444,6 +532,14 @@ Feature: Test correctness of BigInteger
     When big integers are multiplied together
     Then math result should be "-5250"
 
+  @PositiveTest
+  @Multiplication
+  Scenario: Test multiplication of word sized big integers overflowing a long
+    Given big integer 1 created from long 4294967295
+    And big integer 2 created from long -4294967295
+    When big integers are multiplied together
+    Then math result should be "-18446744065119617025"
+
   #####################
   # Division
   #####################
@@ -504,6 +600,51 @@ Feature: Test correctness of BigInteger
     When big integers are divided
     Then math result should be "-150"
 
+  @PositiveTest
+  @Division
+  Scenario: Test division of big integers is exact beyond double precision
+    Given initial result "123456789012345678901234567890123456789"
+    When result is divided by "3"
+    Then result should be "41152263004115226300411522630041152263"
+
+  @PositiveTest
+  @Division
+  Scenario: Test remainder of big integers
+    Given big integer 1 equal to 750
+    And big integer 2 equal to 55
+    When big integers are divided with remainder
+    Then math result should be "35"
+
+  @PositiveTest
+  @Division
+  Scenario: Test remainder of big integers takes the sign of the dividend
+    Given big integer 1 equal to -750
+    And big integer 2 equal to 55
+    When big integers are divided with remainder
+    Then math result should be "-35"
+
+  @PositiveTest
+  @Division
+  Scenario: Test modulo of big integers is never negative
+    Given big integer 1 equal to -750
+    And big integer 2 equal to 55
+    When big integer 1 is reduced modulo big integer 2
+    Then math result should be "20"
+
+  @NegativeTest
+  @Division
+  Scenario: Test division of big integers by zero is rejected
+    Given big integer 1 equal to 750
+    And big integer 2 equal to 0
+    Then dividing big integers should fail
+
+  @NegativeTest
+  @Division
+  Scenario: Test modulo of big integers by a negative modulus is rejected
+    Given big integer 1 equal to 750
+    And big integer 2 equal to -55
+    Then reducing big integer 1 modulo big integer 2 should fail
+
   #####################
   # Power
   #####################
@@ -562,4 +703,540 @@ Feature: Test correctness of BigInteger
     Given big integer 1 equal to -500
     And big integer 2 equal to 4
     When big integers are exponentiated
-    Then math result should be "62500000000"
\ No newline at end of file
+    Then math result should be "62500000000"
+
+  @PositiveTest
+  @Power
+  Scenario: Test exponentiation of big integers with a long exponent
+    Given big integer 1 equal to 3
+    And big integer 2 equal to 200
+    When big integers are exponentiated
+    Then math result should be "265613988875874769338781322035779626829233452653394495974574961739092490901302182994384699044001"
+
+  @PositiveTest
+  @Power
+  Scenario: Test exponentiation of even big integers
+    Given big integer 1 equal to -12
+    And big integer 2 equal to 25
+    When big integers are exponentiated
+    Then math result should be "-953962166440690129601298432"
+
+  @PositiveTest
+  @Power
+  Scenario: Test modular exponentiation of big integers
+    Given big integer 1 equal to 4
+    And big integer 2 equal to 13
+    When big integer 1 is raised to big integer 2 modulo "497"
+    Then math result should be "445"
+
+  @PositiveTest
+  @Power
+  Scenario: Test modular exponentiation of negative big integers
+    Given big integer 1 equal to -4
+    And big integer 2 equal to 13
+    When big integer 1 is raised to big integer 2 modulo "1000"
+    Then math result should be "136"
+
+  @PositiveTest
+  @Power
+  Scenario: Test modular exponentiation to zero power
+    Given big integer 1 equal to 500
+    And big integer 2 equal to 0
+    When big integer 1 is raised to big integer 2 modulo "7"
+    Then math result should be "1"
+
+  @PositiveTest
+  @Power
+  Scenario: Test modular exponentiation to a negative power
+    Given big integer 1 equal to 3
+    And big integer 2 equal to -2
+    When big integer 1 is raised to big integer 2 modulo "7"
+    Then math result should be "4"
+
+  @NegativeTest
+  @Power
+  Scenario: Test modular exponentiation to a negative power rejects a non-invertible base
+    Given big integer 1 equal to 6
+    And big integer 2 equal to -1
+    Then raising big integer 1 to big integer 2 modulo "9" should fail
+
+  @NegativeTest
+  @Power
+  Scenario: Test modular exponentiation rejects a non-positive modulus
+    Given big integer 1 equal to 500
+    And big integer 2 equal to 3
+    Then raising big integer 1 to big integer 2 modulo "0" should fail
+    And raising big integer 1 to big integer 2 modulo "-7" should fail
+
+  #####################
+  # Large values
+  #####################
+
+  @PositiveTest
+  @LargeValues
+  Scenario: Test large big integers convert and compute precisely
+    Given random big integers with 500 and 320 digits
+    Then "toString" should match the reference implementation
+    And "+" should match the reference implementation
+    And "-" should match the reference implementation
+    And "*" should match the reference implementation
+
+  @PositiveTest
+  @LargeValues
+  Scenario: Test large big integers of equal length carry and borrow across words
+    Given random big integers with 64 and 64 digits
+    Then "+" should match the reference implementation
+    And "-" should match the reference implementation
+    And "*" should match the reference implementation
+
+  @PositiveTest
+  @LargeValues
+  Scenario: Test carries and borrows propagate across every word
+    Given initial result "340282366920938463463374607431768211455"
+    When big integer is added to "1"
+    Then result should be "340282366920938463463374607431768211456"
+    When big integer is subtracted by 1
+    Then result should be "340282366920938463463374607431768211455"
+    When big integer is added to "-340282366920938463463374607431768211455"
+    Then result should be "0"
+
+  @PositiveTest
+  @Multiplication
+  @LargeValues
+  Scenario: Test Karatsuba sized big integers multiply precisely
+    Given random big integers with 1500 and 1200 digits
+    Then "*" should match the reference implementation
+    And "square" should match the reference implementation
+
+  @PositiveTest
+  @Multiplication
+  @LargeValues
+  Scenario: Test Toom-Cook sized big integers multiply precisely
+    Given random big integers with 6000 and 5000 digits
+    Then "*" should match the reference implementation
+    And "square" should match the reference implementation
+
+  @PositiveTest
+  @Multiplication
+  @LargeValues
+  Scenario: Test unbalanced big integers multiply precisely
+    Given random big integers with 6000 and 800 digits
+    Then "*" should match the reference implementation
+
+  @PositiveTest
+  @Multiplication
+  @LargeValues
+  Scenario: Test transform sized big integers multiply precisely
+    Given random big integers with 40000 and 40000 digits
+    Then "*" should match the reference implementation
+    And "square" should match the reference implementation
+    And "*" should match the reference implementation
+
+  @PositiveTest
+  @Multiplication
+  @LargeValues
+  Scenario: Test parallel multiplication gives the same result as sequential
+    Given random big integers with 60000 and 45000 digits
+    Then "parallel *" should match the reference implementation
+    And "parallel square" should match the reference implementation
+
+  @PositiveTest
+  @Division
+  @LargeValues
+  Scenario: Test large big integers divide precisely
+    Given random big integers with 3000 and 700 digits
+    Then "/" should match the reference implementation
+    And "%" should match the reference implementation
+    And "mod" should match the reference implementation
+    And "divideAndRemainder" should match the reference implementation
+
+  @PositiveTest
+  @Division
+  @LargeValues
+  Scenario: Test big integers large enough for recursive division divide precisely
+    Given random big integers with 20000 and 6000 digits
+    Then "/" should match the reference implementation
+    And "%" should match the reference implementation
+    And "mod" should match the reference implementation
+
+  @PositiveTest
+  @Power
+  @LargeValues
+  Scenario: Test modular exponentiation of large big integers
+    Given random big integers with 300 and 200 digits
+    Then "modPow" should match the reference implementation
+
+  @PositiveTest
+  @Power
+  @LargeValues
+  Scenario: Test modular exponentiation with moduli large enough for Barrett reduction
+    Given random big integers with 3000 and 2500 digits
+    Then "modPow" should match the reference implementation
+
+  @PositiveTest
+  @Creation
+  @LargeValues
+  Scenario: Test conversion of big integers large enough for divide and conquer
+    Given random big integers with 200000 and 30000 digits
+    Then "toString" should match the reference implementation
+    And "*" should match the reference implementation
+    And "bitLength" should match the reference implementation
+    And "digitCount" should match the reference implementation
+
+  #####################
+  # Derived properties
+  #####################
+
+  @PositiveTest
+  @DerivedProperties
+  Scenario: Test bit length and digit count at the boundaries where they change
+    Then bit lengths and digit counts around powers of two and ten up to 300 should match the reference implementation
+
+  @PositiveTest
+  @DerivedProperties
+  Scenario: Test bit length and digit count of random big integers
+    Given random big integers with 5000 and 17 digits
+    Then "bitLength" should match the reference implementation
+    And "digitCount" should match the reference implementation
+
+  @PositiveTest
+  @DerivedProperties
+  Scenario: Test derived properties are cached
+    Given random big integers with 3000 and 1 digits
+    Then the derived properties of big integer 1 should be cached
+
+  #####################
+  # Roots
+  #####################
+
+  @PositiveTest
+  @Roots
+  Scenario: Test square roots of small big integers
+    Then the square root of "0" should be "0" with remainder "0"
+    And the square root of "1" should be "1" with remainder "0"
+    And the square root of "15" should be "3" with remainder "6"
+    And the square root of "16" should be "4" with remainder "0"
+    And the square root of "18446744073709551615" should be "4294967295" with remainder "8589934590"
+    And the square root of "18446744073709551616" should be "4294967296" with remainder "0"
+    And the square root of "100000000000000000000000000000000000000000" should be "316227766016837933199" with remainder "562477137586013626399"
+
+  @PositiveTest
+  @Roots
+  Scenario: Test nth roots of small big integers
+    Then root 1 of "-12345" should be "-12345"
+    And root 3 of "26" should be "2"
+    And root 3 of "27" should be "3"
+    And root 3 of "-28" should be "-3"
+    And root 5 of "1000000000000000000000000000000" should be "1000000"
+    And root 5 of "999999999999999999999999999999" should be "999999"
+    And root 100 of "12345678901234567890" should be "1"
+    And root 2147483647 of "-12345678901234567890" should be "-1"
+
+  @NegativeTest
+  @Roots
+  Scenario: Test roots that are not defined are rejected
+    Then taking the square root of "-1" should fail
+    And taking root 4 of "-16" should fail
+    And taking root 0 of "16" should fail
+    And taking root -3 of "16" should fail
+
+  @PositiveTest
+  @Roots
+  Scenario: Test perfect powers are recognised
+    Then "0" should be a perfect power
+    And "1" should be a perfect power
+    And "-1" should be a perfect power
+    And "-8" should be a perfect power
+    And "-64" should be a perfect power
+    And "60466176" should be a perfect power
+    And "1152921504606846976" should be a perfect power
+    And "-4" should not be a perfect power
+    And "-16" should not be a perfect power
+    And "2" should not be a perfect power
+    And "108" should not be a perfect power
+    And "1152921504606846977" should not be a perfect power
+
+  @PositiveTest
+  @Roots
+  Scenario: Test perfect powers up to a bound
+    Then perfect powers up to 100000 should match a brute force search
+
+  @PositiveTest
+  @Roots
+  @LargeValues
+  Scenario: Test roots of large big integers
+    Given random big integers with 20000 and 300 digits
+    Then "sqrt" should match the reference implementation
+    And "nthRoot" should match the reference implementation
+    And "isPerfectPower" should match the reference implementation
+
+  ###########################
+  # Greatest common divisor
+  ###########################
+
+  @PositiveTest
+  @Gcd
+  Scenario: Test greatest common divisors of small big integers
+    Then the gcd of "0" and "0" should be "0"
+    And the gcd of "0" and "-15" should be "15"
+    And the gcd of "12" and "18" should be "6"
+    And the gcd of "-12" and "18" should be "6"
+    And the gcd of "17" and "5" should be "1"
+    And the gcd of "18446744073709551616" and "12884901888" should be "4294967296"
+    And the gcd of "340282366920938463463374607431768211455" and "18446744073709551615" should be "18446744073709551615"
+
+  @PositiveTest
+  @Gcd
+  Scenario: Test least common multiples of small big integers
+    Then the lcm of "0" and "7" should be "0"
+    And the lcm of "4" and "6" should be "12"
+    And the lcm of "-4" and "6" should be "12"
+    And the lcm of "4294967296" and "4294967297" should be "18446744078004518912"
+
+  @PositiveTest
+  @Gcd
+  Scenario: Test extended greatest common divisors of small big integers
+    Then the extended gcd of "240" and "46" should be "2" with coefficients "14" and "-73"
+    And the extended gcd of "-240" and "46" should be "2" with coefficients "9" and "47"
+    And the extended gcd of "5" and "0" should be "5" with coefficients "1" and "0"
+    And the extended gcd of "-5" and "0" should be "5" with coefficients "-1" and "0"
+    And the extended gcd of "0" and "-5" should be "5" with coefficients "0" and "-1"
+
+  @PositiveTest
+  @Gcd
+  Scenario: Test modular inverses of small big integers
+    Then the inverse of "3" modulo "7" should be "5"
+    And the inverse of "-3" modulo "7" should be "2"
+    And the inverse of "10" modulo "1" should be "0"
+    And the inverse of "4294967297" modulo "18446744073709551557" should be "5406804297540643858"
+
+  @NegativeTest
+  @Gcd
+  Scenario: Test modular inverses that do not exist are rejected
+    Then inverting "6" modulo "9" should fail
+    And inverting "0" modulo "7" should fail
+    And inverting "3" modulo "0" should fail
+    And inverting "3" modulo "-7" should fail
+
+  @PositiveTest
+  @Gcd
+  Scenario: Test greatest common divisors of Fibonacci numbers, which take the most Euclidean steps
+    Then greatest common divisors of consecutive Fibonacci numbers up to 3000 should be one
+
+  @PositiveTest
+  @Gcd
+  @LargeValues
+  Scenario: Test greatest common divisors of big integers large enough for Lehmer steps
+    Given random big integers with 2000 and 1500 digits sharing a factor of 300 digits
+    Then "gcd" should match the reference implementation
+    And "lcm" should match the reference implementation
+    And "extendedGcd" should match the reference implementation
+    And "modInverse" should match the reference implementation
+
+  @PositiveTest
+  @Gcd
+  @LargeValues
+  Scenario: Test greatest common divisors of big integers large enough for the half-GCD
+    Given random big integers with 20000 and 19000 digits sharing a factor of 2000 digits
+    Then "gcd" should match the reference implementation
+    And "lcm" should match the reference implementation
+    And "extendedGcd" should match the reference implementation
+    And "modInverse" should match the reference implementation
+
+  #####################
+  # Bit operations
+  #####################
+
+  @PositiveTest
+  @BitOperations
+  Scenario: Test shifts of small big integers
+    Then "5" shifted left by 3 should be "40"
+    And "-5" shifted left by 3 should be "-40"
+    And "1" shifted left by 64 should be "18446744073709551616"
+    And "0" shifted left by 100 should be "0"
+    And "40" shifted left by -3 should be "5"
+    And "5" shifted right by 1 should be "2"
+    And "-5" shifted right by 1 should be "-3"
+    And "-4" shifted right by 1 should be "-2"
+    And "-1" shifted right by 1000 should be "-1"
+    And "18446744073709551616" shifted right by 64 should be "1"
+    And "18446744073709551615" shifted right by 64 should be "0"
+    And "-18446744073709551615" shifted right by 64 should be "-1"
+    And "5" shifted right by -2 should be "20"
+
+  @PositiveTest
+  @BitOperations
+  Scenario: Test bitwise operations on the two's complement form
+    Then "12" and "10" should be "8"
+    And "12" or "10" should be "14"
+    And "12" xor "10" should be "6"
+    And "12" andNot "10" should be "4"
+    And "-6" and "7" should be "2"
+    And "-6" or "5" should be "-1"
+    And "-6" xor "-1" should be "5"
+    And "-18446744073709551616" and "-1" should be "-18446744073709551616"
+    And "-18446744073709551616" or "4294967295" should be "-18446744069414584321"
+    And "18446744073709551615" andNot "-4294967296" should be "4294967295"
+
+  @PositiveTest
+  @BitOperations
+  Scenario: Test single bits of the two's complement form
+    Then bit 0 of "5" should be 1
+    And bit 1 of "5" should be 0
+    And bit 100 of "5" should be 0
+    And bit 0 of "-4" should be 0
+    And bit 2 of "-4" should be 1
+    And bit 3 of "-4" should be 1
+    And bit 100 of "-4" should be 1
+    And "0" should have 0 bits differing from the sign and lowest set bit -1
+    And "255" should have 8 bits differing from the sign and lowest set bit 0
+    And "-256" should have 8 bits differing from the sign and lowest set bit 8
+    And "-1" should have 0 bits differing from the sign and lowest set bit 0
+
+  @NegativeTest
+  @BitOperations
+  Scenario: Test negative bit addresses are rejected
+    Then testing bit -1 of "5" should fail
+
+  @PositiveTest
+  @BitOperations
+  @LargeValues
+  Scenario: Test bit operations on large big integers
+    Given random big integers with 3000 and 2000 digits
+    Then "shiftLeft" should match the reference implementation
+    And "shiftRight" should match the reference implementation
+    And "and" should match the reference implementation
+    And "or" should match the reference implementation
+    And "xor" should match the reference implementation
+    And "andNot" should match the reference implementation
+    And "not" should match the reference implementation
+    And "bitCount" should match the reference implementation
+    And "bitLength" should match the reference implementation
+    And "bits" should match the reference implementation
+
+  @PositiveTest
+  @BitOperations
+  @LargeValues
+  Scenario: Test multiplying and dividing by powers of two
+    Given random big integer 1 with 5000 digits and big integer 2 equal to 2 to the power 3333
+    Then "*" should match the reference implementation
+    And "/" should match the reference implementation
+    And "%" should match the reference implementation
+    And "divideAndRemainder" should match the reference implementation
+
+  #####################
+  # Primes
+  #####################
+
+  @PositiveTest
+  @Primes
+  Scenario: Test primality of small big integers
+    Then "2" should be probably prime
+    And "97" should be probably prime
+    And "-97" should be probably prime
+    And "4294967291" should be probably prime
+    And "170141183460469231731687303715884105727" should be probably prime
+    And "0" should not be probably prime
+    And "1" should not be probably prime
+    And "4294967297" should not be probably prime
+    And "340282366920938463463374607431768211457" should not be probably prime
+
+  @PositiveTest
+  @Primes
+  Scenario: Test Carmichael numbers, strong pseudoprimes and squares of primes are recognised as composite
+    Then "561" should not be probably prime
+    And "2047" should not be probably prime
+    And "3215031751" should not be probably prime
+    And "3825123056546413051" should not be probably prime
+    And "5459" should not be probably prime
+    And "5777" should not be probably prime
+    And "1194649" should not be probably prime
+    And "383123885216472214589586755549637256619304505646776321" should not be probably prime
+
+  @PositiveTest
+  @Primes
+  Scenario: Test primality up to a bound
+    Then probable primes up to 200000 should match a sieve
+
+  @PositiveTest
+  @Primes
+  Scenario: Test the next probable prime of small big integers
+    Then the next probable prime after "0" should be "2"
+    And the next probable prime after "1" should be "2"
+    And the next probable prime after "2" should be "3"
+    And the next probable prime after "4294967290" should be "4294967291"
+    And the next probable prime after "4294967291" should be "4294967311"
+    And the next probable prime after "18446744073709551615" should be "18446744073709551629"
+    And the next probable prime after "100000000000000000000" should be "100000000000000000039"
+    And the next probable prime after "170141183460469231731687303715884105727" should be "170141183460469231731687303715884105757"
+
+  @NegativeTest
+  @Primes
+  Scenario: Test the next probable prime of a negative big integer is rejected
+    Then finding the next probable prime after "-5" should fail
+
+  @PositiveTest
+  @Primes
+  @LargeValues
+  Scenario: Test primality of large big integers
+    Given random big integers with 300 and 200 digits
+    Then "isProbablePrime" should match the reference implementation
+    And "nextProbablePrime" should match the reference implementation
+    And "parallel nextProbablePrime" should match the reference implementation
+
+  #############################
+  # Factorials and binomials
+  #############################
+
+  @PositiveTest
+  @Factorials
+  Scenario: Test factorials of small values
+    Then the factorial of 0 should be "1"
+    And the factorial of 1 should be "1"
+    And the factorial of 5 should be "120"
+    And the factorial of 20 should be "2432902008176640000"
+    And the factorial of 21 should be "51090942171709440000"
+    And the factorial of 30 should be "265252859812191058636308480000000"
+
+  @PositiveTest
+  @Factorials
+  Scenario: Test binomial coefficients of small values
+    Then 5 choose 2 should be "10"
+    And 10 choose 0 should be "1"
+    And 10 choose 10 should be "1"
+    And 10 choose 11 should be "0"
+    And 10 choose -1 should be "0"
+    And 100 choose 50 should be "100891344545564193334812497256"
+    And 1000 choose 3 should be "166167000"
+
+  @PositiveTest
+  @Factorials
+  Scenario: Test products of ranges
+    Then the product of the range from 3 to 6 should be "360"
+    And the product of the range from 7 to 7 should be "7"
+    And the product of the range from 7 to 6 should be "1"
+    And the product of the range from -3 to 3 should be "0"
+    And the product of the range from -4 to -2 should be "-24"
+    And the product of the range from -5 to -2 should be "120"
+    And the product of the range from 4294967 to 4294970 should be "340282748483883459476512080"
+    And the product of the range from -2147483648 to -2147483647 should be "4611686016279904256"
+
+  @NegativeTest
+  @Factorials
+  Scenario: Test factorials and binomials of negative values are rejected
+    Then taking the factorial of -1 should fail
+    And taking -1 choose 0 should fail
+
+  @PositiveTest
+  @Factorials
+  Scenario: Test factorials and binomials up to a bound
+    Then factorials and binomials up to 300 should match repeated multiplication
+
+  @PositiveTest
+  @Factorials
+  @LargeValues
+  Scenario: Test factorials and binomials of large values
+    Then the factorial of 30000 should match repeated multiplication
+    And 40000 choose 15000 should match repeated multiplication
+    And 1000000 choose 1000 should match repeated multiplication
+    And the product of the range from 200000 to 230000 should match repeated multiplication
@@ -0,0 +1,64 @@
+Feature: Test the concurrent BigIntegerAdder
+
+  @PositiveTest
+  @BigIntegerAdder
+  Scenario: Test a new adder sums to zero
+    Given a new adder
+    Then the adder sum should be "0"
+
+  @PositiveTest
+  @BigIntegerAdder
+  Scenario: Test small values are summed
+    Given a new adder
+    When "5" is added to the adder
+    And "-12" is added to the adder
+    And the adder is incremented 3 times
+    And the adder is decremented 1 times
+    Then the adder sum should be "-5"
+
+  @PositiveTest
+  @BigIntegerAdder
+  Scenario: Test partial sums spill past the range of a long
+    Given a new adder
+    When "9223372036854775807" is added to the adder
+    And "9223372036854775807" is added to the adder
+    And "1" is added to the adder
+    Then the adder sum should be "18446744073709551615"
+    When "-9223372036854775808" is added to the adder
+    And "-9223372036854775808" is added to the adder
+    And "-9223372036854775808" is added to the adder
+    Then the adder sum should be "-9223372036854775809"
+
+  @PositiveTest
+  @BigIntegerAdder
+  Scenario: Test values wider than a long are added
+    Given a new adder
+    When "123456789012345678901234567890" is added to the adder
+    And "-3" is added to the adder
+    And "-123456789012345678901234567890" is added to the adder
+    Then the adder sum should be "-3"
+
+  @PositiveTest
+  @BigIntegerAdder
+  Scenario: Test sumThenReset returns the sum and starts over
+    Given a new adder
+    When "1000000000000000000000" is added to the adder
+    And "7" is added to the adder
+    Then resetting the adder should return "1000000000000000000007"
+    And the adder sum should be "0"
+    When "42" is added to the adder
+    Then the adder sum should be "42"
+
+  @PositiveTest
+  @BigIntegerAdder
+  Scenario: Test the adder counts every addition from many threads
+    Given a new adder
+    When 16 threads each add 20000 random values to the adder
+    Then the adder sum should match the sum of the values added
+
+  @PositiveTest
+  @BigIntegerAdder
+  Scenario: Test the adder counts every addition from many threads while it is drained
+    Given a new adder
+    When 8 threads each add 20000 random values to the adder while another thread drains it
+    Then the drained sums and the adder sum should add up to the sum of the values added
@@ -0,0 +1,87 @@
+Feature: Test correctness of BigIntegers bulk operations
+
+  #####################
+  # Sums
+  #####################
+
+  @PositiveTest
+  @Sum
+  Scenario: Test sum of big integers
+    Given big integer values "18446744073709551615, 1, -5, 4"
+    When the values are summed
+    Then the bulk result should be "18446744073709551615"
+
+  @PositiveTest
+  @Sum
+  Scenario: Test sum of no big integers
+    Given big integer values ""
+    When the values are summed
+    Then the bulk result should be "0"
+
+  @PositiveTest
+  @Sum
+  Scenario: Test prefix sums of big integers
+    Given big integer values "5, -10, 4294967296, 0"
+    Then the prefix sums should be "5, -5, 4294967291, 4294967291"
+
+  @PositiveTest
+  @Sum
+  @LargeValues
+  Scenario: Test sums of many random big integers
+    Given 5000 random big integer values with up to 200 digits
+    Then "sum" of the values should match the reference implementation
+    And "parallel sum" of the values should match the reference implementation
+    And "prefix sums" of the values should match the reference implementation
+
+  #####################
+  # Dot products
+  #####################
+
+  @PositiveTest
+  @Dot
+  Scenario: Test dot product of big integers
+    Given big integer values "3, -2, 100000000000"
+    And second big integer values "7, 8, 100000000000"
+    When the dot product is taken
+    Then the bulk result should be "10000000000000000000005"
+
+  @NegativeTest
+  @Dot
+  Scenario: Test dot product of vectors of different lengths is rejected
+    Given big integer values "1, 2"
+    And second big integer values "1"
+    Then taking the dot product should fail
+
+  @PositiveTest
+  @Dot
+  @LargeValues
+  Scenario: Test dot products of many random big integers
+    Given 5000 random big integer values with up to 200 digits
+    Then "dot" of the values should match the reference implementation
+    And "parallel dot" of the values should match the reference implementation
+
+  #####################
+  # Products
+  #####################
+
+  @PositiveTest
+  @Product
+  Scenario: Test product of big integers
+    Given big integer values "2, -3, 4294967296, 5"
+    When the values are multiplied together
+    Then the bulk result should be "-128849018880"
+
+  @PositiveTest
+  @Product
+  Scenario: Test product of no big integers
+    Given big integer values ""
+    When the values are multiplied together
+    Then the bulk result should be "1"
+
+  @PositiveTest
+  @Product
+  @LargeValues
+  Scenario: Test products of many random big integers
+    Given 3000 random big integer values with up to 60 digits
+    Then "product" of the values should match the reference implementation
+    And "parallel product" of the values should match the reference implementation
@@ -0,0 +1,78 @@
+Feature: Test correctness of ModularContext
+
+  #####################
+  # Arithmetic
+  #####################
+
+  @PositiveTest
+  @ModularArithmetic
+  Scenario: Test arithmetic modulo a small modulus
+    Given a modular context with modulus "97"
+    Then the residue of "200" should be "6"
+    And the residue of "-1" should be "96"
+    And the residues "50" add "60" should give "13"
+    And the residues "5" sub "10" should give "92"
+    And the residues "50" mul "60" should give "90"
+    And the residues "96" mul "96" should give "1"
+    And the residues "3" pow "96" should give "1"
+    And the residues "3" pow "-1" should give "65"
+    And the residues "3" pow "0" should give "1"
+    And the residues "3" inverse "0" should give "65"
+    And the residues "10" square "0" should give "3"
+
+  @PositiveTest
+  @ModularArithmetic
+  Scenario: Test arithmetic modulo a modulus of several words
+    Given a modular context with modulus "340282366920938463463374607431768211297"
+    Then the residues "340282366920938463463374607431768211296" add "340282366920938463463374607431768211296" should give "340282366920938463463374607431768211295"
+    And the residues "1" sub "340282366920938463463374607431768211296" should give "2"
+    And the residues "18446744073709551616" mul "18446744073709551616" should give "159"
+    And the residues "2" pow "340282366920938463463374607431768211296" should give "1"
+
+  @PositiveTest
+  @ModularArithmetic
+  Scenario: Test in-place operations update only their first operand
+    Given a modular context with modulus "1000000007"
+    And residues a of "123456789" and b of "987654321"
+    When a is updated in place by "mul" with b
+    Then residue a should be "259106859"
+    And residue b should be "987654321"
+    When a is updated in place by "add" with b
+    Then residue a should be "246761173"
+    When a is updated in place by "sub" with b
+    Then residue a should be "259106859"
+    When a is updated in place by "mul" with a
+    Then residue a should be "910891340"
+    When a is updated in place by "inverse" with b
+    And a is updated in place by "mul" with b
+    And a is updated in place by "square" with b
+    And a is updated in place by "pow" with b
+    Then residue b should be "987654321"
+
+  @PositiveTest
+  @ModularArithmetic
+  Scenario: Test copies are not affected by in-place operations
+    Given a modular context with modulus "1000000007"
+    And residues a of "5" and b of "7"
+    When a is copied to b
+    And a is updated in place by "square" with a
+    Then residue a should be "25"
+    And residue b should be "5"
+
+  @NegativeTest
+  @ModularArithmetic
+  Scenario: Test unsupported moduli and operands are rejected
+    Then creating a modular context with modulus "10" should fail
+    And creating a modular context with modulus "0" should fail
+    And creating a modular context with modulus "-7" should fail
+    And inverting "5" modulo "15" in a modular context should fail
+    And combining residues of different modular contexts should fail
+
+  @PositiveTest
+  @ModularArithmetic
+  @LargeValues
+  Scenario: Test long chains of operations match the reference implementation
+    Then a chain of 2000 random operations modulo a 9 digit odd modulus should match the reference implementation
+    And a chain of 2000 random operations modulo a 20 digit odd modulus should match the reference implementation
+    And a chain of 2000 random operations modulo a 300 digit odd modulus should match the reference implementation
+    And a chain of 200 random operations modulo a 3000 digit odd modulus should match the reference implementation
@@ -0,0 +1,54 @@
+Feature: Test correctness of MutableBigInteger
+
+  #####################
+  # Accumulation
+  #####################
+
+  @PositiveTest
+  @Accumulation
+  Scenario: Test accumulating big integers in place
+    Given an accumulator starting at "0"
+    When "18446744073709551615" is added to the accumulator
+    And "1" is added to the accumulator
+    Then the accumulator should be "18446744073709551616"
+    When "18446744073709551617" is subtracted from the accumulator
+    Then the accumulator should be "-1"
+    When "-5" is subtracted from the accumulator
+    Then the accumulator should be "4"
+
+  @PositiveTest
+  @Accumulation
+  Scenario: Test accumulator crosses zero
+    Given an accumulator starting at "-340282366920938463463374607431768211456"
+    When "340282366920938463463374607431768211456" is added to the accumulator
+    Then the accumulator should be "0"
+    When "340282366920938463463374607431768211457" is subtracted from the accumulator
+    Then the accumulator should be "-340282366920938463463374607431768211457"
+
+  @PositiveTest
+  @Accumulation
+  Scenario: Test accumulator multiplies and shifts in place
+    Given an accumulator starting at "123456789123456789"
+    When the accumulator is multiplied by -1000000007
+    Then the accumulator should be "-123456789987654312864197523"
+    When the accumulator is shifted left by 70 bits
+    Then the accumulator should be "-145752051780093881845915907138796295679222218752"
+    When the accumulator is multiplied by 0
+    Then the accumulator should be "0"
+
+  @PositiveTest
+  @Accumulation
+  Scenario: Test accumulator snapshots are not affected by later updates
+    Given an accumulator starting at "1000"
+    When the accumulator is saved
+    And "1" is added to the accumulator
+    Then the saved value should be "1000"
+    And the accumulator should be "1001"
+
+  @PositiveTest
+  @Accumulation
+  @LargeValues
+  Scenario: Test accumulating many large big integers
+    Given an accumulator starting at "0"
+    When 1000 random big integers with 300 digits are accumulated
+    Then the accumulator should match the reference sum
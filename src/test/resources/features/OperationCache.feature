@@ -0,0 +1,62 @@
+Feature: Test the operation cache
+
+  @PositiveTest
+  @OperationCache
+  Scenario: Test repeated powers are answered from the cache
+    Given an operation cache of 1000000 bytes
+    When "10" is raised to "50" through the cache 3 times
+    Then the cached result should be "100000000000000000000000000000000000000000000000000"
+    And the cache should report 2 hits, 1 misses and 0 evictions
+
+  @PositiveTest
+  @OperationCache
+  Scenario: Test products share an entry regardless of operand order
+    Given an operation cache of 1000000 bytes
+    When "123456789012345678901234567890" is multiplied by "-987654321" through the cache
+    And "-987654321" is multiplied by "123456789012345678901234567890" through the cache
+    Then the cached result should be "-121932631124828532112482853211126352690"
+    And the cache should report 1 hits, 1 misses and 0 evictions
+
+  @PositiveTest
+  @OperationCache
+  Scenario: Test the least recently used entries are evicted to stay within the limit
+    Given an operation cache of 16000 bytes
+    When 200 distinct powers of 2 up to 2^1000 are computed through the cache
+    Then the cache should hold at most 16000 bytes
+    And the cache should have evicted entries
+    And every result should match java.math.BigInteger
+
+  @PositiveTest
+  @OperationCache
+  Scenario: Test results larger than the limit are computed but not cached
+    Given an operation cache of 16000 bytes
+    When "3" is raised to "100000" through the cache 2 times
+    Then the cache should report 0 hits, 2 misses and 0 evictions
+    And the cache should hold 0 entries
+
+  @PositiveTest
+  @OperationCache
+  Scenario: Test results larger than a segment's share of the limit are cached
+    Given an operation cache of 16000 bytes
+    When "3" is raised to "30000" through the cache 2 times
+    Then the cache should report 1 hits, 1 misses and 0 evictions
+    And the cache should hold 1 entries
+
+  @PositiveTest
+  @OperationCache
+  Scenario: Test a large result evicts entries of other segments to fit the limit
+    Given an operation cache of 16000 bytes
+    When 60 distinct powers of 2 up to 2^100 are computed through the cache
+    And "3" is raised to "60000" through the cache 2 times
+    Then the cache should hold at most 16000 bytes
+    And the cache should have evicted entries
+    And raising "3" to "60000" through the cache should be answered from the cache
+    And every result should match java.math.BigInteger
+
+  @PositiveTest
+  @OperationCache
+  Scenario: Test the cache gives correct results when shared between threads
+    Given an operation cache of 200000 bytes
+    When 8 threads each compute 2000 random powers and products through the cache
+    Then every result should match java.math.BigInteger
+    And the hits and misses should add up to 16000
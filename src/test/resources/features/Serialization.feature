@@ -0,0 +1,104 @@
+Feature: Test binary serialization of BigInteger
+
+  #####################
+  # Byte arrays
+  #####################
+
+  @PositiveTest
+  @Serialization
+  Scenario: Test binary encoding of a negative big integer
+    Then the binary encoding of "-4294967296" should be "feffffff0000000001000000"
+
+  @PositiveTest
+  @Serialization
+  Scenario: Test binary encoding of zero
+    Then the binary encoding of "0" should be "00000000"
+
+  @PositiveTest
+  @Serialization
+  Scenario: Test big integers round-trip through byte arrays
+    Then random big integers with up to 500 digits should round-trip through byte arrays
+
+  @PositiveTest
+  @Serialization
+  Scenario: Test big integers round-trip through buffers of either byte order
+    Then random big integers with up to 500 digits should round-trip through a big-endian buffer
+
+  @NegativeTest
+  @Serialization
+  Scenario: Test truncated binary encoding is rejected
+    Then decoding "0200000001000000" should fail
+
+  @NegativeTest
+  @Serialization
+  Scenario: Test binary encoding with trailing bytes is rejected
+    Then decoding "000000000000" should fail
+
+  #####################
+  # Files
+  #####################
+
+  @PositiveTest
+  @Serialization
+  Scenario: Test big integers round-trip through a memory-mapped file
+    Given 3000 random big integers with up to 300 digits are written to a file in 4096 byte windows
+    Then reading the file in 4096 byte windows should give the same big integers
+
+  @PositiveTest
+  @Serialization
+  Scenario: Test a big integer larger than the mapped window round-trips through a file
+    Given 3 random big integers with up to 20000 digits are written to a file in 1024 byte windows
+    Then reading the file in 1024 byte windows should give the same big integers
+
+  #####################
+  # Decimal streams
+  #####################
+
+  @PositiveTest
+  @DecimalStream
+  Scenario: Test big integers round-trip through decimal streams
+    Then random big integers with up to 1000 digits should round-trip through decimal streams
+
+  @PositiveTest
+  @DecimalStream
+  Scenario Outline: Test big integers spanning many stream blocks round-trip through decimal streams
+    Then a random big integer with <digits> digits should round-trip through decimal streams
+
+    Examples:
+      | digits |
+      | 36864  |
+      | 36865  |
+      | 250000 |
+
+  @PositiveTest
+  @DecimalStream
+  Scenario: Test parsing a stream with whole blocks of leading zeros
+    Then parsing 80000 zeros followed by "-0012345" should fail
+    And parsing "-" followed by 80000 zeros and "12345" should give "-12345"
+
+  @PositiveTest
+  @DecimalStream
+  Scenario: Test zero is written to a decimal stream
+    Then writing "-0" to a decimal stream should give "0"
+
+  @PositiveTest
+  @DecimalStream
+  Scenario: Test parsing a stream ending in a line terminator or other whitespace
+    Then parsing "123" followed by a newline should give "123"
+    And parsing "-123" followed by a CRLF should give "-123"
+    And parsing "42" followed by a space should give "42"
+    And parsing "42" followed by a tab should give "42"
+    And parsing 36859 zeros followed by "12345" and a newline should give "12345"
+    And parsing 36858 zeros followed by "12345" and a CRLF should give "12345"
+
+  @NegativeTest
+  @DecimalStream
+  Scenario: Test parsing a stream with digits after trailing whitespace is rejected
+    Then parsing "123" followed by a newline and "4" should fail
+    And parsing "123" followed by a space and "x" should fail
+    And parsing "-" followed by a space and "1" should fail
+
+  @NegativeTest
+  @DecimalStream
+  Scenario: Test parsing a stream with a stray character is rejected
+    Then parsing 50000 zeros followed by "12x45" should fail